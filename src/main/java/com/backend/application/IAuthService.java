@@ -1,30 +1,17 @@
 package com.backend.application;
 
-import com.backend.domain.model.AuthUser;
+import com.backend.application.dto.GoogleLoginResult;
 import com.backend.domain.model.UserModel;
 
 public interface IAuthService {
     
     /**
-     * Autentica un usuario con Google OAuth
+     * Login completo con Google: verifica el token, obtiene o crea el usuario en una sola operación
+     * y genera el JWT
      * @param googleToken Token de Google
-     * @return AuthUser con información del usuario autenticado
+     * @return Usuario, si es nuevo y JWT
      */
-    AuthUser authenticateWithGoogle(String googleToken);
-    
-    /**
-     * Registra un nuevo usuario después de la autenticación con Google
-     * @param authUser Usuario autenticado
-     * @return UserModel del usuario registrado
-     */
-    UserModel registerNewUser(AuthUser authUser);
-    
-    /**
-     * Verifica si un usuario existe por email
-     * @param email Email del usuario
-     * @return true si existe, false si no
-     */
-    boolean userExistsByEmail(String email);
+    GoogleLoginResult loginWithGoogle(String googleToken);
     
     /**
      * Obtiene un usuario por email
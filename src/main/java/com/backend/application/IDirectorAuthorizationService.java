@@ -0,0 +1,15 @@
+package com.backend.application;
+
+import com.backend.domain.model.ServiceModel;
+
+public interface IDirectorAuthorizationService {
+
+    // Decide si el usuario es director del servicio (desde caché; como mucho una lectura de MongoDB)
+    boolean isDirectorOf(String userId, String serviceId);
+
+    // Reemplaza los directores cacheados del servicio tras una escritura de asignaciones
+    void directorsChanged(ServiceModel service);
+
+    // Descarta todas las decisiones cacheadas (p. ej. tras archivar servicios)
+    void invalidateAll();
+}
@@ -1,40 +1,32 @@
 package com.backend.application;
 
-import com.backend.application.dto.UpdateAssingmentRequest;
+import com.backend.application.dto.PublishResult;
+import com.backend.domain.model.AssignmentDiff;
 import com.backend.domain.model.ServiceModel;
 import lombok.Data;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface INotificationService {
     
     /**
      * Genera el cuerpo del email para usuarios asignados a un servicio
      * @param service Servicio al que fueron asignados
-     * @param newAssignments Asignaciones nuevas
-     * @param oldAssignments Asignaciones anteriores
+     * @param diff Diferencia calculada entre el estado persistido y el nuevo
      * @return Lista de cuerpos de email para cada usuario asignado
      */
-    List<EmailNotificationBody> generateAssignmentNotifications(
-        ServiceModel service, 
-        UpdateAssingmentRequest.Assignments newAssignments, 
-        UpdateAssingmentRequest.Assignments oldAssignments
-    );
+    List<EmailNotificationBody> generateAssignmentNotifications(ServiceModel service, AssignmentDiff diff);
     
     /**
      * Genera el cuerpo del email para usuarios removidos de un servicio
      * @param service Servicio del que fueron removidos
-     * @param newAssignments Asignaciones nuevas
-     * @param oldAssignments Asignaciones anteriores
+     * @param diff Diferencia calculada entre el estado persistido y el nuevo
      * @return Lista de cuerpos de email para cada usuario removido
      */
-    List<EmailNotificationBody> generateRemovalNotifications(
-        ServiceModel service, 
-        UpdateAssingmentRequest.Assignments newAssignments, 
-        UpdateAssingmentRequest.Assignments oldAssignments
-    );
+    List<EmailNotificationBody> generateRemovalNotifications(ServiceModel service, AssignmentDiff diff);
     
     /**
      * Genera notificación de recordatorio para un usuario
@@ -42,6 +34,13 @@ public interface INotificationService {
      */
     void generateReminderNotification(com.backend.application.dto.NotificationMessage notificationMessage);
     
+    /**
+     * Publica en un solo lote los recordatorios de una ejecución sin esperar al broker
+     * @param notificationMessages Recordatorios a publicar
+     * @return Futuro con los mensajes confirmados por el broker y los que acabaron en la DLQ
+     */
+    CompletableFuture<PublishResult> sendReminderNotifications(List<com.backend.application.dto.NotificationMessage> notificationMessages);
+    
     /**
      * Clase interna para representar el cuerpo de un email de notificación
      */
@@ -4,6 +4,10 @@ import java.time.LocalDate;
 import java.util.List;
 
 import com.backend.application.dto.*;
+import com.backend.domain.model.AssignmentIndexRebuildResult;
+import com.backend.domain.model.CursorPage;
+import com.backend.domain.model.ServiceArchiveResult;
+import com.backend.domain.model.ServiceMigrationResult;
 import com.backend.domain.model.ServiceModel;
 import com.backend.domain.model.UserModel;
 
@@ -28,6 +32,7 @@ public interface IServiceService {
 
     ServiceModel getServiceById(String serviceId);
     List<ServiceModel> getAllServices();
+    CursorPage<ServiceModel> getServicesPage(LocalDate from, LocalDate to, String location, String cursor, Integer limit);
 
     
     // Validaciones de roles dinámicos
@@ -35,7 +40,9 @@ public interface IServiceService {
     
     
 
-    void deleteExpiredServices();
+    ServiceArchiveResult deleteExpiredServices();
+    ServiceMigrationResult migrateServiceUserReferences();
+    AssignmentIndexRebuildResult rebuildAssignmentIndex();
     
    
 } 
\ No newline at end of file
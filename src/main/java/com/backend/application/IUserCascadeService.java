@@ -0,0 +1,13 @@
+package com.backend.application;
+
+import java.util.List;
+
+import com.backend.application.dto.UserCascadeProgress;
+
+public interface IUserCascadeService {
+
+    // Encola la propagación del perfil del usuario a sus copias en los servicios y retorna de inmediato
+    UserCascadeProgress propagateProfileChange(String userId);
+
+    List<UserCascadeProgress> getCascades();
+}
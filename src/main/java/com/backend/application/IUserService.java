@@ -2,6 +2,7 @@ package com.backend.application;
 
 import java.util.List;
 
+import com.backend.domain.model.CursorPage;
 import com.backend.domain.model.UserModel;
 import com.backend.domain.model.ServiceModel;
 
@@ -14,11 +15,13 @@ public interface IUserService {
     UserModel updateUser(UserModel user);
     void deleteUser(String id);
     List<UserModel> getAllUsers();
+    CursorPage<UserModel> getUsersPage(UserModel.Role role, String cursor, Integer limit);
     UserModel getUserByPhoneNumber(String phoneNumber);
     
 
     
     // Consultas de servicios por usuario
     List<ServiceModel> getServicesForUser(String userId);
+    List<ServiceModel> getUpcomingServicesForUser(String userId);
 
 }
@@ -1,7 +1,12 @@
 package com.backend.application;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -12,10 +17,14 @@ import org.springframework.stereotype.Service;
 import com.backend.domain.model.UserModel;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+
 import javax.crypto.SecretKey;
 
 @Service
@@ -27,8 +36,33 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private Long expiration;
     
+    // Número máximo de tokens verificados que se recuerdan hasta su expiración
+    @Value("${app.security.jwt.verified-cache-size:1000}")
+    private int verifiedCacheSize;
+    
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    // Claims ya verificados, por hash SHA-256 del token (LRU)
+    private Map<String, VerifiedToken> verifiedTokens;
+    
+    @PostConstruct
+    void init() {
+        // La clave y el parser son inmutables: se construyen una sola vez
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > verifiedCacheSize;
+            }
+        };
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
     
     public String generateToken(UserModel user) {
@@ -36,6 +70,7 @@ public class JwtService {
         claims.put("userId", user.getId());
         claims.put("email", user.getEmail());
         claims.put("roles", user.getRoles()); // Cambiado de role a roles
+        claims.put("tokenVersion", user.getTokenVersion() != null ? user.getTokenVersion() : 0L);
         
         return createToken(claims, user.getEmail());
     }
@@ -68,16 +103,35 @@ public class JwtService {
     }
     
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
     
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifica firma y expiración y devuelve los claims. Un token ya verificado se sirve desde
+     * memoria hasta su expiración; uno inválido lanza la excepción de jjwt y nunca se cachea.
+     */
+    public Claims verify(String token) {
+        String tokenHash = sha256(token);
+        long now = System.currentTimeMillis();
+        
+        synchronized (verifiedTokens) {
+            VerifiedToken cached = verifiedTokens.get(tokenHash);
+            if (cached != null) {
+                if (cached.expiresAt > now) {
+                    return cached.claims;
+                }
+                verifiedTokens.remove(tokenHash);
+            }
+        }
+        
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(tokenHash, new VerifiedToken(claims, claims.getExpiration().getTime()));
+            }
+        }
+        return claims;
     }
     
     public Boolean isTokenExpired(String token) {
@@ -85,7 +139,23 @@ public class JwtService {
     }
     
     public Boolean validateToken(String token, String email) {
-        final String tokenEmail = extractEmail(token);
-        return (email.equals(tokenEmail) && !isTokenExpired(token));
+        // Un único parseo: verify ya rechaza tokens expirados o con firma inválida
+        final Claims claims = verify(token);
+        return email.equals(claims.getSubject()) && !claims.getExpiration().before(new Date());
+    }
+    
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+    
+    @AllArgsConstructor
+    private static class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAt;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.backend.application.dto;
+
+import com.backend.domain.model.UserModel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GoogleLoginResult {
+    private UserModel user;
+    private boolean newUser;
+    private String token;
+}
@@ -4,6 +4,12 @@ import lombok.Data;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -31,4 +37,50 @@ public class NotificationMessage {
     private String serviceDate;
     private String serviceLocation;
     private String practiceDate;
+    private String eventId; // Suceso que origina el aviso: versión del servicio o día del recordatorio
+    private String notificationKey; // Identidad estable para descartar duplicados (ver keyOf)
+    
+    public NotificationMessage(NotificationType type, NotificationCategory category, String userId, String userEmail,
+                               String userRole, String instrument, String subject, String emailBody, String serviceId,
+                               String serviceDate, String serviceLocation, String practiceDate) {
+        this(type, category, userId, userEmail, userRole, instrument, subject, emailBody, serviceId,
+            serviceDate, serviceLocation, practiceDate, null, null);
+    }
+    
+    // Asignaciones y remociones: cada escritura del servicio es un suceso distinto
+    public static String serviceEventId(String serviceId, Long serviceVersion) {
+        return "service:" + serviceId + ":v" + (serviceVersion != null ? serviceVersion : 0L);
+    }
+    
+    // Recordatorios: una tanda por servicio y día
+    public static String reminderEventId(String serviceId, LocalDate runDate) {
+        return "reminder:" + serviceId + ":" + runDate;
+    }
+    
+    /**
+     * SHA-256 del suceso, servicio, destinatario, categoría, rol, instrumento y contenido: las
+     * reentregas del mismo aviso generan la misma clave, y otro suceso (p. ej. volver a asignar
+     * a alguien tras quitarlo) otra distinta aunque el contenido coincida
+     */
+    public static String keyOf(NotificationMessage notification) {
+        String identity = String.join("\u001F",
+            String.valueOf(notification.getEventId()),
+            String.valueOf(notification.getServiceId()),
+            String.valueOf(notification.getUserId()),
+            String.valueOf(notification.getUserEmail()),
+            String.valueOf(notification.getCategory()),
+            String.valueOf(notification.getUserRole()),
+            String.valueOf(notification.getInstrument()),
+            String.valueOf(notification.getSubject()),
+            String.valueOf(notification.getEmailBody()),
+            String.valueOf(notification.getServiceDate()),
+            String.valueOf(notification.getServiceLocation()),
+            String.valueOf(notification.getPracticeDate()));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(identity.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
 }
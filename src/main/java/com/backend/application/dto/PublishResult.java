@@ -0,0 +1,34 @@
+package com.backend.application.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de publicar un lote en RabbitMQ: solo cuentan como confirmados los mensajes
+ * con ack del broker; el resto se devuelve con el motivo
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PublishResult {
+    private int total;
+    private int confirmed;
+    private List<FailedPublish> failed = new ArrayList<>();
+    private long elapsedMillis;
+
+    public boolean isAllConfirmed() {
+        return failed.isEmpty();
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class FailedPublish {
+        private NotificationMessage notification;
+        private String reason;
+    }
+}
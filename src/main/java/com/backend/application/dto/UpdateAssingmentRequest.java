@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class UpdateAssingmentRequest {
 
+    // Ya no se usa para calcular notificaciones: el diff se calcula en el servidor
     private Assignments oldAssignments;
     private Assignments newAssignments;
 
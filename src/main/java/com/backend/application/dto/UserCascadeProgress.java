@@ -0,0 +1,31 @@
+package com.backend.application.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserCascadeProgress {
+    private String cascadeId;
+    private String userId;
+    private CascadeStatus status;
+    private int totalServices;
+    private int processedServices;
+    private long modifiedDocuments;
+    private int batches;
+    private LocalDateTime requestedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    public enum CascadeStatus {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
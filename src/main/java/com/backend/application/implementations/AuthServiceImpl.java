@@ -3,22 +3,16 @@ package com.backend.application.implementations;
 import java.time.LocalDateTime;
 import java.util.List;
 
-import jakarta.annotation.PostConstruct;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import com.backend.application.IAuthService;
 import com.backend.application.JwtService;
-import com.backend.domain.model.AuthUser;
+import com.backend.application.dto.GoogleLoginResult;
 import com.backend.domain.model.UserModel;
+import com.backend.domain.model.UserUpsertResult;
 import com.backend.domain.port.UserUseCases;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.backend.infraestructure.security.GoogleIdTokenVerifier;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,76 +26,24 @@ public class AuthServiceImpl implements IAuthService {
     
     private final JwtService jwtService;
     
-    private RestTemplate restTemplate;
-    private ObjectMapper objectMapper;
+    private final GoogleIdTokenVerifier googleIdTokenVerifier;
 
-    @Value("${google.oauth.client-id}")
-    private String googleClientId;
-    
-    @PostConstruct
-    public void init() {
-        this.restTemplate = new RestTemplate();
-        this.objectMapper = new ObjectMapper();
-    }
-
-    @Override
-    public AuthUser authenticateWithGoogle(String googleToken) {
-        try {
-
-           
-
-            // Validar el token con Google
-            GoogleUserInfo googleUserInfo = validateGoogleToken(googleToken);
-            
-            // Verificar si el usuario existe
-            UserModel existingUser = userUseCases.getUserByEmail(googleUserInfo.getEmail());
-            
-            if (existingUser != null) {
-                // Usuario existente
-                AuthUser authUser = new AuthUser();
-                authUser.setId(existingUser.getId());
-                authUser.setEmail(existingUser.getEmail());
-                authUser.setName(existingUser.getName());
-                authUser.setGoogleId(googleUserInfo.getGoogleId());
-                authUser.setPicture(googleUserInfo.getPicture());
-                authUser.setNewUser(false);
-                authUser.setCreatedAt(existingUser.getCreatedAt());
-                authUser.setLastLoginAt(LocalDateTime.now());
-                
-                return authUser;
-            } else {
-                // Usuario nuevo
-                AuthUser authUser = new AuthUser(googleUserInfo.getEmail(), googleUserInfo.getGoogleId());
-                authUser.setName(googleUserInfo.getName());
-                authUser.setPicture(googleUserInfo.getPicture());
-                authUser.setNewUser(true);
-                
-                return authUser;
-            }
-            
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Token de Google inválido: " + e.getMessage());
-        }
-    }
-    
     @Override
-    public UserModel registerNewUser(AuthUser authUser) {
-        // Crear nuevo usuario con datos mínimos
+    public GoogleLoginResult loginWithGoogle(String googleToken) {
+        // Validar el token con Google (en local)
+        GoogleUserInfo googleUserInfo = validateGoogleToken(googleToken);
+        
+        // Datos mínimos si el usuario es nuevo: nombre y teléfono los completará después
         UserModel newUser = new UserModel();
-        newUser.setEmail(authUser.getEmail());
-        newUser.setRoles(List.of(UserModel.Role.MUSICIAN)); // Rol por defecto como lista
+        newUser.setEmail(googleUserInfo.getEmail());
+        newUser.setRoles(List.of(UserModel.Role.MUSICIAN));
         newUser.setCreatedAt(LocalDateTime.now());
         
-        // No establecer nombre ni teléfono - el usuario los completará después
-        // newUser.setName(authUser.getName()); // Comentado para que el usuario lo complete después
-        // newUser.setPhoneNumber(null); // Comentado para que el usuario lo complete después
+        // Una sola operación en users: devuelve el existente o lo crea
+        UserUpsertResult result = userUseCases.upsertByEmail(newUser);
         
-        return userUseCases.createUser(newUser);
-    }
-    
-    @Override
-    public boolean userExistsByEmail(String email) {
-        return userUseCases.getUserByEmail(email) != null;
+        String token = jwtService.generateToken(result.getUser());
+        return new GoogleLoginResult(result.getUser(), result.isCreated(), token);
     }
     
     @Override
@@ -131,49 +73,18 @@ public class AuthServiceImpl implements IAuthService {
     }
     
     /**
-     * Valida el ID Token de Google con la API de Google y extrae la información del usuario
+     * Valida el ID Token de Google en local (firma contra las claves JWKS cacheadas, exp, iss y aud)
+     * y extrae la información del usuario, sin llamar a tokeninfo
      */
-    private GoogleUserInfo validateGoogleToken(String token) throws Exception {
-        try {
-            
-            
-            // Para ID Tokens de Google, usamos la API de userinfo
-            // Primero validamos el token con Google
-            String url = "https://oauth2.googleapis.com/tokeninfo?id_token=" + token;
-            
-            HttpHeaders headers = new HttpHeaders();
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
-            
-          
-            if (response.getStatusCode().is2xxSuccessful()) {
-                JsonNode jsonNode = objectMapper.readTree(response.getBody());
-                
-                // Validar que el token pertenece a nuestra aplicación
-                String aud = jsonNode.get("aud").asText();
-                if (!aud.equals(googleClientId)) {
-                    throw new IllegalArgumentException("Token no válido para esta aplicación. Expected: " + googleClientId + ", Got: " + aud);
-                }
-                
-                // Extraer información del usuario
-                String email = jsonNode.get("email").asText();
-                String googleId = jsonNode.get("sub").asText();
-                String name = jsonNode.has("name") ? jsonNode.get("name").asText() : "";
-                String picture = jsonNode.has("picture") ? jsonNode.get("picture").asText() : "";
-                
-                
-                
-                return new GoogleUserInfo(email, googleId, name, picture);
-            } else {
-                log.error("Error response from Google: {}", response.getBody());
-                throw new IllegalArgumentException("Error al validar token con Google: " + response.getStatusCode());
-            }
-            
-        } catch (Exception e) {
-            log.error("Error validating Google token: {}", e.getMessage(), e);
-            throw new IllegalArgumentException("Error al validar token de Google: " + e.getMessage());
-        }
+    private GoogleUserInfo validateGoogleToken(String token) {
+        Jwt idToken = googleIdTokenVerifier.verify(token);
+        
+        String email = idToken.getClaimAsString("email");
+        String googleId = idToken.getSubject();
+        String name = idToken.hasClaim("name") ? idToken.getClaimAsString("name") : "";
+        String picture = idToken.hasClaim("picture") ? idToken.getClaimAsString("picture") : "";
+        
+        return new GoogleUserInfo(email, googleId, name, picture);
     }
     
     /**
@@ -0,0 +1,145 @@
+package com.backend.application.implementations;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.backend.application.IDirectorAuthorizationService;
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserAssignmentUseCases;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Caché serviceId → ids de directores para autorizar los endpoints de director.
+ * Un fallo carga solo los directores del servicio: desde user_assignments si el índice está activado
+ * (y el servicio indexado), si no directors._id de services. Las escrituras de asignaciones de este proceso
+ * reemplazan la entrada y los cambios hechos desde otra instancia se ven como mucho tras el TTL.
+ */
+@Service
+public class DirectorAuthorizationServiceImpl implements IDirectorAuthorizationService {
+
+    private final ServicesUseCases servicesUseCases;
+    private final UserAssignmentUseCases userAssignmentUseCases;
+    private final boolean assignmentIndexEnabled;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    // Orden de acceso: al superar maxSize se descarta el servicio menos usado recientemente
+    private final Map<String, DirectorsEntry> directorsByService;
+    // Cuenta las escrituras: una carga que se solapa con una escritura no se guarda (podría ser anterior)
+    private long writes;
+
+    public DirectorAuthorizationServiceImpl(ServicesUseCases servicesUseCases,
+                                            UserAssignmentUseCases userAssignmentUseCases,
+                                            @Value("${app.assignments.index.enabled:false}") boolean assignmentIndexEnabled,
+                                            @Value("${app.security.director-cache.max-size:2000}") int maxSize,
+                                            @Value("${app.security.director-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.servicesUseCases = servicesUseCases;
+        this.userAssignmentUseCases = userAssignmentUseCases;
+        this.assignmentIndexEnabled = assignmentIndexEnabled;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.directorsByService = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DirectorsEntry> eldest) {
+                return size() > DirectorAuthorizationServiceImpl.this.maxSize;
+            }
+        };
+    }
+
+    @Override
+    public boolean isDirectorOf(String userId, String serviceId) {
+        if (userId == null || serviceId == null) {
+            return false;
+        }
+
+        Set<String> directorIds = cached(serviceId);
+        if (directorIds != null) {
+            return directorIds.contains(userId);
+        }
+
+        long writesBeforeLoad = writes();
+        directorIds = loadDirectorIds(serviceId);
+        if (directorIds == null) {
+            // Servicio inexistente: no se cachea para no retener ids arbitrarios
+            return false;
+        }
+        putIfUnchanged(serviceId, directorIds, writesBeforeLoad);
+        return directorIds.contains(userId);
+    }
+
+    @Override
+    public void directorsChanged(ServiceModel service) {
+        if (service == null || service.getId() == null) {
+            return;
+        }
+        Set<String> directorIds = service.getDirectors() == null ? Set.of() :
+                service.getDirectors().stream()
+                        .filter(Objects::nonNull)
+                        .map(UserModel::getId)
+                        .collect(Collectors.toUnmodifiableSet());
+        synchronized (this) {
+            writes++;
+            put(service.getId(), directorIds);
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        writes++;
+        directorsByService.clear();
+    }
+
+    private Set<String> loadDirectorIds(String serviceId) {
+        if (assignmentIndexEnabled) {
+            Set<String> indexed = userAssignmentUseCases.findDirectorIds(serviceId);
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+        return servicesUseCases.getDirectorIds(serviceId);
+    }
+
+    private synchronized long writes() {
+        return writes;
+    }
+
+    private synchronized Set<String> cached(String serviceId) {
+        DirectorsEntry entry = directorsByService.get(serviceId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.getExpiresAt() < System.currentTimeMillis()) {
+            directorsByService.remove(serviceId);
+            return null;
+        }
+        return entry.getDirectorIds();
+    }
+
+    private synchronized void putIfUnchanged(String serviceId, Set<String> directorIds, long expectedWrites) {
+        if (writes == expectedWrites) {
+            put(serviceId, directorIds);
+        }
+    }
+
+    private synchronized void put(String serviceId, Set<String> directorIds) {
+        directorsByService.put(serviceId,
+            new DirectorsEntry(Set.copyOf(directorIds), System.currentTimeMillis() + ttlMillis));
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class DirectorsEntry {
+        private Set<String> directorIds;
+        private long expiresAt;
+    }
+}
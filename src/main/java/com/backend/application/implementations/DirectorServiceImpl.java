@@ -18,11 +18,11 @@ public class DirectorServiceImpl implements IDirectorService {
     @Override
     @Transactional
     public ServiceModel updateClothesColorForService(String serviceId, String clothesColor) {
-        ServiceModel service = servicesUseCases.getServiceById(serviceId);
+        // Solo se envía el campo modificado: no pisa cambios concurrentes de asignaciones
+        ServiceModel service = servicesUseCases.setClothesColor(serviceId, clothesColor);
         if (service == null) {
             throw new IllegalArgumentException("Servicio no encontrado: " + serviceId);
         }
-        service.setClothesColor(clothesColor);
-        return servicesUseCases.updateService(service);
+        return service;
     }
 }
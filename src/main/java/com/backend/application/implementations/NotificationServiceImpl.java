@@ -2,9 +2,8 @@ package com.backend.application.implementations;
 
 import com.backend.application.INotificationService;
 import com.backend.application.dto.NotificationMessage;
-import com.backend.domain.port.UserUseCases;
-import com.backend.application.dto.MusicianAssignment;
-import com.backend.application.dto.UpdateAssingmentRequest;
+import com.backend.application.dto.PublishResult;
+import com.backend.domain.model.AssignmentDiff;
 import com.backend.domain.model.ServiceModel;
 import com.backend.domain.model.UserModel;
 import com.backend.infraestructure.services.NotificationProducer;
@@ -15,75 +14,30 @@ import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements INotificationService {
     
-    private final UserUseCases userUseCases;
     private final NotificationProducer notificationProducer;
     
     @Override
-    public List<EmailNotificationBody> generateAssignmentNotifications(
-            ServiceModel service, 
-            UpdateAssingmentRequest.Assignments newAssignments, 
-            UpdateAssingmentRequest.Assignments oldAssignments) {
-        
+    public List<EmailNotificationBody> generateAssignmentNotifications(ServiceModel service, AssignmentDiff diff) {
         List<EmailNotificationBody> notifications = new ArrayList<>();
         List<NotificationMessage> queueMessages = new ArrayList<>();
         
-        // Procesar directores asignados
-        if (newAssignments.getDirectorIds() != null) {
-            Set<String> oldDirectorIds = oldAssignments.getDirectorIds() != null ?
-                    new HashSet<>(oldAssignments.getDirectorIds()) :
-                Set.of();
-            
-            for (String directorId : newAssignments.getDirectorIds()) {
-                if (!oldDirectorIds.contains(directorId)) {
-                    // Nuevo director asignado
-                    UserModel director = userUseCases.getUserById(directorId);
-                    if (director != null) {
-                        EmailNotificationBody notification = createDirectorAssignmentEmail(service, director);
-                        notifications.add(notification);
-                        
-                        // Crear mensaje para la cola
-                        NotificationMessage queueMessage = createNotificationMessage(notification, service, NotificationMessage.NotificationCategory.ASSIGNMENT);
-                        queueMessages.add(queueMessage);
-                    }
-                }
-            }
-        }
-        
-        // Procesar músicos asignados
-        if (newAssignments.getMusiciansList() != null) {
-            Set<String> oldMusicianIds = oldAssignments.getMusiciansList() != null ? 
-                oldAssignments.getMusiciansList().stream()
-                    .flatMap(assignment -> assignment.getMusicianIds().stream())
-                    .collect(Collectors.toSet()) : 
-                Set.of();
+        // Los usuarios ya vienen embebidos en el servicio: no se vuelven a consultar
+        for (AssignmentDiff.AssignmentChange change : diff.getAdded()) {
+            EmailNotificationBody notification = change.getRole() == UserModel.Role.DIRECTOR ?
+                createDirectorAssignmentEmail(service, change.getUser()) :
+                createMusicianAssignmentEmail(service, change.getUser(), change.getInstrument());
+            notifications.add(notification);
             
-            for (MusicianAssignment assignment : newAssignments.getMusiciansList()) {
-
-               for (String musicianId : assignment.getMusicianIds()) {
-                   if(!oldMusicianIds.contains(musicianId)) {
-                       // Nuevo músico asignado
-                       UserModel musician = userUseCases.getUserById(musicianId);
-                       if (musician != null) {
-                           EmailNotificationBody notification = createMusicianAssignmentEmail(service, musician, assignment.getInstrument());
-                           notifications.add(notification);
-
-                           // Crear mensaje para la cola
-                           NotificationMessage queueMessage = createNotificationMessage(notification, service, NotificationMessage.NotificationCategory.ASSIGNMENT);
-                           queueMessages.add(queueMessage);
-                       }
-                   }
-               }
-            }
+            // Crear mensaje para la cola
+            queueMessages.add(createNotificationMessage(notification, service, NotificationMessage.NotificationCategory.ASSIGNMENT));
         }
         
         // Enviar mensajes a la cola
@@ -95,61 +49,19 @@ public class NotificationServiceImpl implements INotificationService {
     }
     
     @Override
-    public List<EmailNotificationBody> generateRemovalNotifications(
-            ServiceModel service, 
-            UpdateAssingmentRequest.Assignments newAssignments, 
-            UpdateAssingmentRequest.Assignments oldAssignments) {
-        
+    public List<EmailNotificationBody> generateRemovalNotifications(ServiceModel service, AssignmentDiff diff) {
         List<EmailNotificationBody> notifications = new ArrayList<>();
         List<NotificationMessage> queueMessages = new ArrayList<>();
         
-        // Procesar directores removidos
-        if (oldAssignments.getDirectorIds() != null) {
-            Set<String> newDirectorIds = newAssignments.getDirectorIds() != null ? 
-                newAssignments.getDirectorIds().stream().collect(Collectors.toSet()) : 
-                Set.of();
-            
-            for (String directorId : oldAssignments.getDirectorIds()) {
-                if (!newDirectorIds.contains(directorId)) {
-                    // Director removido
-                    UserModel director = userUseCases.getUserById(directorId);
-                    if (director != null) {
-                        EmailNotificationBody notification = createDirectorRemovalEmail(service, director);
-                        notifications.add(notification);
-                        
-                        // Crear mensaje para la cola
-                        NotificationMessage queueMessage = createNotificationMessage(notification, service, NotificationMessage.NotificationCategory.REMOVAL);
-                        queueMessages.add(queueMessage);
-                    }
-                }
-            }
-        }
-        
-        // Procesar músicos removidos
-        if (oldAssignments.getMusiciansList() != null) {
-            Set<String> newMusicianIds = newAssignments.getMusiciansList() != null ? 
-                newAssignments.getMusiciansList().stream()
-                    .flatMap(assignment -> assignment.getMusicianIds().stream())
-                    .collect(Collectors.toSet()) : 
-                Set.of();
+        // Los usuarios removidos vienen del snapshot persistido antes del cambio
+        for (AssignmentDiff.AssignmentChange change : diff.getRemoved()) {
+            EmailNotificationBody notification = change.getRole() == UserModel.Role.DIRECTOR ?
+                createDirectorRemovalEmail(service, change.getUser()) :
+                createMusicianRemovalEmail(service, change.getUser(), change.getInstrument());
+            notifications.add(notification);
             
-            for (MusicianAssignment assignment : oldAssignments.getMusiciansList()) {
-
-                for (String musicianId : assignment.getMusicianIds()) {
-                    if (!newMusicianIds.contains(musicianId)) {
-                        // Músico removido
-                        UserModel musician = userUseCases.getUserById(musicianId);
-                        if (musician != null) {
-                            EmailNotificationBody notification = createMusicianRemovalEmail(service, musician, assignment.getInstrument());
-                            notifications.add(notification);
-
-                            // Crear mensaje para la cola
-                            NotificationMessage queueMessage = createNotificationMessage(notification, service, NotificationMessage.NotificationCategory.REMOVAL);
-                            queueMessages.add(queueMessage);
-                        }
-                    }
-                }
-            }
+            // Crear mensaje para la cola
+            queueMessages.add(createNotificationMessage(notification, service, NotificationMessage.NotificationCategory.REMOVAL));
         }
         
         // Enviar mensajes a la cola
@@ -164,7 +76,7 @@ public class NotificationServiceImpl implements INotificationService {
      * Convierte EmailNotificationBody a NotificationMessage para la cola
      */
     private NotificationMessage createNotificationMessage(EmailNotificationBody emailNotification, ServiceModel service, NotificationMessage.NotificationCategory category) {
-        return new NotificationMessage(
+        NotificationMessage message = new NotificationMessage(
             NotificationMessage.NotificationType.EMAIL,
             category,
             emailNotification.getUserName(),
@@ -178,6 +90,9 @@ public class NotificationServiceImpl implements INotificationService {
             service.getLocation(),
             formatDate(service.getPracticeDate())
         );
+        // La versión escrita identifica el cambio: reasignar tras una remoción es otro aviso
+        message.setEventId(NotificationMessage.serviceEventId(service.getId(), service.getVersion()));
+        return message;
     }
     
     /**
@@ -279,4 +194,13 @@ public class NotificationServiceImpl implements INotificationService {
             log.error("❌ Error enviando notificación de recordatorio: {}", e.getMessage());
         }
     }
+    
+    @Override
+    public CompletableFuture<PublishResult> sendReminderNotifications(List<NotificationMessage> notificationMessages) {
+        if (notificationMessages.isEmpty()) {
+            return CompletableFuture.completedFuture(new PublishResult());
+        }
+        // Todo el envío de recordatorios en un canal; las confirmaciones llegan por el ConfirmCallback
+        return notificationProducer.sendMultipleNotificationsToQueue(notificationMessages);
+    }
 }
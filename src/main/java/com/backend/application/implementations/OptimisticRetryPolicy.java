@@ -0,0 +1,38 @@
+package com.backend.application.implementations;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reintento acotado para escrituras condicionadas por versión.
+ * Cada intento debe releer el documento y volver a aplicar el cambio (merge sobre el estado actual);
+ * si se agotan los intentos se propaga la OptimisticLockingFailureException (409 en los controladores).
+ */
+@Component
+@Slf4j
+public class OptimisticRetryPolicy {
+
+    @Value("${app.concurrency.max-retries:3}")
+    private int maxRetries;
+
+    public <T> T execute(String operation, Supplier<T> attempt) {
+        int retries = 0;
+        while (true) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (retries >= maxRetries) {
+                    log.warn("❌ {}: conflicto de versión tras {} reintentos", operation, retries);
+                    throw e;
+                }
+                retries++;
+                log.info("🔁 {}: conflicto de versión, reintento {}/{}", operation, retries, maxRetries);
+            }
+        }
+    }
+}
@@ -4,18 +4,26 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.backend.application.INotificationService;
 import com.backend.application.IReminderService;
+import com.backend.application.dto.NotificationMessage;
 import com.backend.application.dto.NotificationMessage.NotificationCategory;
 import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserAssignment;
 import com.backend.domain.model.UserModel;
 import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserAssignmentUseCases;
 import com.backend.domain.port.UserUseCases;
 
 import lombok.RequiredArgsConstructor;
@@ -29,19 +37,73 @@ public class ReminderServiceImpl implements IReminderService {
     private final ServicesUseCases servicesUseCases;
     private final UserUseCases userUseCases;
     private final INotificationService notificationService;
+    private final ServiceUserHydrator userHydrator;
+    private final UserAssignmentUseCases userAssignmentUseCases;
+    
+    // true: los destinatarios salen del índice user_assignments en lugar de los arrays de services
+    @Value("${app.assignments.index.enabled:false}")
+    private boolean assignmentIndexEnabled;
     
     @Override
     public List<ServiceModel> findUpcomingServices() {
         LocalDate afterTomorrow = LocalDate.now().plusDays(2);
         LocalDate tenDaysFromAfterTomorrow = afterTomorrow.plusDays(10);
         
-        List<ServiceModel> allServices = servicesUseCases.getAllServices();
+        // La ventana se filtra en MongoDB usando el índice de serviceDate;
+        // los emails de todos los participantes se resuelven con una sola consulta
+        return userHydrator.hydrate(servicesUseCases.getServicesByDateRange(afterTomorrow, tenDaysFromAfterTomorrow));
+    }
+    
+    /**
+     * Misma ventana que findUpcomingServices, pero desde user_assignments: una consulta al índice,
+     * una a services por _id (fecha, lugar y ensayo) y una a users para los emails
+     */
+    private int collectRemindersFromAssignmentIndex(List<NotificationMessage> reminders) {
+        LocalDate afterTomorrow = LocalDate.now().plusDays(2);
+        List<UserAssignment> assignments = userAssignmentUseCases.findAssignmentsBetween(afterTomorrow, afterTomorrow.plusDays(10));
+        if (assignments.isEmpty()) {
+            return 0;
+        }
+        
+        Set<String> serviceIds = new LinkedHashSet<>();
+        Set<String> userIds = new LinkedHashSet<>();
+        assignments.forEach(assignment -> {
+            serviceIds.add(assignment.getServiceId());
+            userIds.add(assignment.getUserId());
+        });
+        Map<String, ServiceModel> services = servicesUseCases.getServicesByIds(serviceIds).stream()
+                .collect(Collectors.toMap(ServiceModel::getId, Function.identity()));
+        Map<String, UserModel> users = userUseCases.getUsersByIds(userIds).stream()
+                .collect(Collectors.toMap(UserModel::getId, Function.identity()));
         
-        return allServices.stream()
-                .filter(service -> service.getServiceDate() != null)
-                .filter(service -> !service.getServiceDate().isBefore(afterTomorrow))
-                .filter(service -> !service.getServiceDate().isAfter(tenDaysFromAfterTomorrow))
-                .collect(Collectors.toList());
+        log.info("📧 Enviando recordatorios para {} servicios próximos (índice de asignaciones)", services.size());
+        for (UserAssignment assignment : assignments) {
+            ServiceModel service = services.get(assignment.getServiceId());
+            UserModel user = users.get(assignment.getUserId());
+            if (service == null || user == null) {
+                // Fila pendiente de limpiar: el servicio o el usuario ya no existen
+                continue;
+            }
+            if (assignment.getRole() == UserModel.Role.DIRECTOR) {
+                sendDirectorReminder(user, service, reminders);
+            } else {
+                sendMusicianReminder(user, assignment.getInstrument(), service, reminders);
+            }
+        }
+        return services.size();
+    }
+    
+    private int collectRemindersFromServices(List<NotificationMessage> reminders) {
+        List<ServiceModel> upcomingServices = findUpcomingServices();
+        if (upcomingServices.isEmpty()) {
+            return 0;
+        }
+        
+        log.info("📧 Enviando recordatorios para {} servicios próximos", upcomingServices.size());
+        for (ServiceModel service : upcomingServices) {
+            sendRemindersForService(service, reminders);
+        }
+        return upcomingServices.size();
     }
     
     @Override
@@ -66,20 +128,26 @@ public class ReminderServiceImpl implements IReminderService {
         try {
             log.info("🕐 Iniciando envío de recordatorios automáticos...");
             
-            List<ServiceModel> upcomingServices = findUpcomingServices();
+            // Se construyen todos los recordatorios y se publican en un único lote confirmado
+            List<NotificationMessage> reminders = new ArrayList<>();
+            int serviceCount = assignmentIndexEnabled ?
+                collectRemindersFromAssignmentIndex(reminders) : collectRemindersFromServices(reminders);
             
-            if (upcomingServices.isEmpty()) {
+            if (serviceCount == 0) {
                 log.info("📅 No hay servicios próximos en los próximos 10 días");
                 return;
             }
             
-            log.info("📧 Enviando recordatorios para {} servicios próximos", upcomingServices.size());
-            
-            for (ServiceModel service : upcomingServices) {
-                sendRemindersForService(service);
-            }
-            
-            log.info("✅ Recordatorios enviados exitosamente para {} servicios", upcomingServices.size());
+            // El resultado llega cuando el broker confirma cada recordatorio; los fallidos ya se reintentaron
+            notificationService.sendReminderNotifications(reminders).thenAccept(result -> {
+                if (result.isAllConfirmed()) {
+                    log.info("✅ {} recordatorios enviados exitosamente para {} servicios", 
+                        result.getConfirmed(), serviceCount);
+                } else {
+                    result.getFailed().forEach(failed -> log.error("❌ Recordatorio enviado a la DLQ para {}: {}", 
+                        failed.getNotification().getUserEmail(), failed.getReason()));
+                }
+            });
             
         } catch (Exception e) {
             log.error("❌ Error enviando recordatorios automáticos: {}", e.getMessage(), e);
@@ -87,14 +155,14 @@ public class ReminderServiceImpl implements IReminderService {
     }
     
     /**
-     * Envía recordatorios para un servicio específico
+     * Añade al lote los recordatorios de un servicio específico
      */
-    private void sendRemindersForService(ServiceModel service) {
+    private void sendRemindersForService(ServiceModel service, List<NotificationMessage> reminders) {
         try {
             // Enviar recordatorios a directores
             if (service.getDirectors() != null && !service.getDirectors().isEmpty()) {
                 for (UserModel director : service.getDirectors()) {
-                    sendDirectorReminder(director, service);
+                    sendDirectorReminder(director, service, reminders);
                 }
             }
             
@@ -105,7 +173,7 @@ public class ReminderServiceImpl implements IReminderService {
                     if (musicianAssignment.getMusician() != null && !musicianAssignment.getMusician().isEmpty()) {
                         for (UserModel musician : musicianAssignment.getMusician()) {
                             sendMusicianReminder(musician,
-                                               musicianAssignment.getInstrument(), service);
+                                               musicianAssignment.getInstrument(), service, reminders);
                         }
                     }
                 }
@@ -118,9 +186,9 @@ public class ReminderServiceImpl implements IReminderService {
     }
     
     /**
-     * Envía recordatorio a un director
+     * Añade el recordatorio de un director
      */
-    private void sendDirectorReminder(UserModel director, ServiceModel service) {
+    private void sendDirectorReminder(UserModel director, ServiceModel service, List<NotificationMessage> reminders) {
         try {
             long daysUntilPractice = calculateDaysUntilPractice(
                 service.getServiceDate(), service.getPracticeDate());
@@ -129,9 +197,9 @@ public class ReminderServiceImpl implements IReminderService {
             
             
             // Crear notificación para el director
-            createReminderNotification(director, subject, service, "DIRECTOR");
+            reminders.add(createReminderNotification(director, subject, service, "DIRECTOR"));
             
-            log.info("📧 Recordatorio enviado al director {} para servicio {}", 
+            log.info("📧 Recordatorio preparado para el director {} en servicio {}", 
                 director.getName(), service.getId());
             
         } catch (Exception e) {
@@ -141,9 +209,10 @@ public class ReminderServiceImpl implements IReminderService {
     }
     
     /**
-     * Envía recordatorio a un músico
+     * Añade el recordatorio de un músico
      */
-    private void sendMusicianReminder(UserModel musician, String instrument, ServiceModel service) {
+    private void sendMusicianReminder(UserModel musician, String instrument, ServiceModel service,
+                                      List<NotificationMessage> reminders) {
         try {
             long daysUntilPractice = calculateDaysUntilPractice(
                 service.getServiceDate(), service.getPracticeDate());
@@ -151,9 +220,9 @@ public class ReminderServiceImpl implements IReminderService {
             String subject = "🎵 Recordatorio de Ensayo - Preparar Instrumento";
            
             // Crear notificación para el músico
-            createReminderNotification(musician, subject, service, "MUSICIAN");
+            reminders.add(createReminderNotification(musician, subject, service, "MUSICIAN"));
             
-            log.info("📧 Recordatorio enviado al músico {} para servicio {}", 
+            log.info("📧 Recordatorio preparado para el músico {} en servicio {}", 
                 musician.getName(), service.getId());
             
         } catch (Exception e) {
@@ -163,29 +232,24 @@ public class ReminderServiceImpl implements IReminderService {
     }
     
     /**
-     * Crea y envía la notificación de recordatorio
+     * Crea la notificación de recordatorio (se publica con el resto del lote)
      */
-    private void createReminderNotification(UserModel user, String subject,
+    private NotificationMessage createReminderNotification(UserModel user, String subject,
                                          ServiceModel service, String role) {
-        try {
-            // Crear mensaje de notificación
-            var notificationMessage = new com.backend.application.dto.NotificationMessage();
-            notificationMessage.setUserId(user.getName());
-            notificationMessage.setUserEmail(user.getEmail());
-            notificationMessage.setUserRole(role);
-            notificationMessage.setSubject(subject);
-            notificationMessage.setServiceDate(formatDate(service.getServiceDate()));
-            notificationMessage.setServiceLocation(service.getLocation());
-            notificationMessage.setPracticeDate(service.getPracticeDate() != null ? 
-                formatDate(service.getPracticeDate()) : null);
-            notificationMessage.setCategory(NotificationCategory.REMINDER);
-            
-            // Enviar notificación a través del sistema existente
-            notificationService.generateReminderNotification(notificationMessage);
-            
-        } catch (Exception e) {
-            log.error("❌ Error creando notificación de recordatorio: {}", e.getMessage());
-        }
+        // Crear mensaje de notificación
+        var notificationMessage = new NotificationMessage();
+        notificationMessage.setUserId(user.getName());
+        notificationMessage.setUserEmail(user.getEmail());
+        notificationMessage.setUserRole(role);
+        notificationMessage.setSubject(subject);
+        notificationMessage.setServiceId(service.getId());
+        notificationMessage.setEventId(NotificationMessage.reminderEventId(service.getId(), LocalDate.now()));
+        notificationMessage.setServiceDate(formatDate(service.getServiceDate()));
+        notificationMessage.setServiceLocation(service.getLocation());
+        notificationMessage.setPracticeDate(service.getPracticeDate() != null ? 
+            formatDate(service.getPracticeDate()) : null);
+        notificationMessage.setCategory(NotificationCategory.REMINDER);
+        return notificationMessage;
     }
     
     /**
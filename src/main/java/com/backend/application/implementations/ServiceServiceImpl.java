@@ -3,24 +3,41 @@ package com.backend.application.implementations;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.backend.application.dto.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import com.backend.application.IDirectorAuthorizationService;
 import com.backend.application.INotificationService;
 import com.backend.application.IServiceService;
 import com.backend.domain.port.UserUseCases;
 
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import com.backend.domain.model.AssignmentDiff;
+import com.backend.domain.model.AssignmentIndexRebuildResult;
+import com.backend.domain.model.CursorPage;
 import com.backend.domain.model.MusiciansList;
+import com.backend.domain.model.ServiceArchiveResult;
+import com.backend.domain.model.ServiceMigrationResult;
 import com.backend.domain.model.ServiceModel;
 import com.backend.domain.model.SongsModel;
 import com.backend.domain.model.UserModel;
 import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserAssignmentUseCases;
+import com.backend.infraestructure.config.MongoRoundTripTracker;
+import com.backend.infraestructure.security.UserTokenVersionRegistry;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -35,6 +52,33 @@ public class ServiceServiceImpl implements IServiceService {
     
     private final INotificationService notificationService;
     
+    private final MongoRoundTripTracker roundTripTracker;
+    
+    private final OptimisticRetryPolicy retryPolicy;
+    
+    private final ServiceUserHydrator userHydrator;
+    
+    private final UserAssignmentUseCases userAssignmentUseCases;
+    
+    private final UserTokenVersionRegistry tokenVersionRegistry;
+    
+    private final IDirectorAuthorizationService directorAuthorization;
+    
+    @Value("${app.assignments.index.rebuild-batch-size:1000}")
+    private int assignmentRebuildBatchSize;
+    
+    @Value("${app.services.archive.batch-size:500}")
+    private int archiveBatchSize;
+    
+    @Value("${app.services.migration.batch-size:500}")
+    private int migrationBatchSize;
+    
+    @Value("${app.pagination.default-limit:50}")
+    private int defaultPageLimit;
+    
+    @Value("${app.pagination.max-limit:200}")
+    private int maxPageLimit;
+    
     // Historias de usuario del Admin
     @Override
     public ServiceModel createService(ServiceModel service) {
@@ -53,7 +97,9 @@ public class ServiceServiceImpl implements IServiceService {
         // Inicializar listas si son null
         initializeServiceLists(service);
         
-        return servicesUseCases.createService(service);
+        ServiceModel createdService = servicesUseCases.createService(service);
+        syncAssignmentIndex(createdService);
+        return createdService;
     }
     
     @Override
@@ -76,57 +122,32 @@ public class ServiceServiceImpl implements IServiceService {
             service.setLocation(location);
             service.setCreatedAt(LocalDateTime.now());
 
+            // Resolver todos los usuarios referenciados en una sola consulta
+            Set<String> userIds = new LinkedHashSet<>();
+            if (directorIds != null) {
+                userIds.addAll(directorIds);
+            }
+            userIds.addAll(collectMusicianIds(musicianAssignments));
+            Map<String, UserModel> users = resolveUsers(userIds);
+
             // Asignar directores
             if (directorIds != null && !directorIds.isEmpty()) {
-                List<UserModel> directors = new ArrayList<>();
-                for (String directorId : directorIds) {
-                    UserModel director = userUseCases.getUserById(directorId);
-                    if (director == null) {
-                        throw new IllegalArgumentException("Director no encontrado: " + directorId);
-                    }
-
-                    // Añadir rol DIRECTOR si no lo tiene ya
-                    if (director.getRoles() == null) {
-                        director.setRoles(new ArrayList<>());
-                    }
-                    if (!director.getRoles().contains(UserModel.Role.DIRECTOR)) {
-                        director.getRoles().add(UserModel.Role.DIRECTOR);
-                        userUseCases.updateUser(director);
-                    }
-
-                    directors.add(director);
-                }
-                service.setDirectors(directors);
+                service.setDirectors(buildDirectors(directorIds, users));
             }
 
             // Asignar músicos con instrumentos
             if (musicianAssignments != null && !musicianAssignments.isEmpty()) {
-                List<MusiciansList> musiciansList = new ArrayList<>();
-                for (MusicianAssignment assignment : musicianAssignments) {
-                    List<UserModel> musicians = assignment.getMusicianIds().stream()
-                            .map(id -> {
-                                UserModel user = userUseCases.getUserById(id);
-                                if (user == null) {
-                                    throw new IllegalArgumentException("No se encontró el músico con id: " + id);
-                                }
-                                return user;
-                            })
-                            .toList();
-
-
-                    MusiciansList musicianAssignment = new MusiciansList();
-                    musicianAssignment.setMusician(musicians);
-                    musicianAssignment.setInstrument(assignment.getInstrument());
-                    musiciansList.add(musicianAssignment);
-                }
-                service.setMusiciansList(musiciansList);
+                service.setMusiciansList(buildMusiciansList(musicianAssignments, users));
             }
 
             // Crear el servicio en la base de datos
-            ServiceModel createdService = servicesUseCases.createService(service);
+            // Con almacenamiento por referencias se devuelve id + nombre: se completa con los usuarios ya resueltos
+            ServiceModel createdService = userHydrator.hydrate(servicesUseCases.createService(service), users);
+            syncAssignmentIndex(createdService);
+            promoteDirectors(createdService.getDirectors());
 
             // Generar notificaciones de asignación para la creación del servicio
-            generateCreationNotifications(createdService, directorIds, musicianAssignments);
+            generateCreationNotifications(createdService);
 
             return createdService;
         } catch (Exception e){
@@ -144,91 +165,40 @@ public class ServiceServiceImpl implements IServiceService {
     
     @Override
     public ServiceModel assignDirectorsToService(String serviceId, List<String> directorIds) {
-        validateServiceExists(serviceId);
         validateDirectorIds(directorIds);
         
-        ServiceModel service = servicesUseCases.getServiceById(serviceId);
-        List<UserModel> directors = new ArrayList<>();
-        
-        for (String directorId : directorIds) {
-            UserModel director = userUseCases.getUserById(directorId);
-            if (director == null) {
-                throw new IllegalArgumentException("Director no encontrado: " + directorId);
-            }
-            
-            // Añadir rol DIRECTOR si no lo tiene ya
-            if (director.getRoles() == null) {
-                director.setRoles(new ArrayList<>());
-            }
-            if (!director.getRoles().contains(UserModel.Role.DIRECTOR)) {
-                director.getRoles().add(UserModel.Role.DIRECTOR);
-                userUseCases.updateUser(director);
-            }
-            
-            directors.add(director);
-        }
-        
-        service.setDirectors(directors);
-        return servicesUseCases.updateService(service);
+        return persistAssignments("assignDirectorsToService", serviceId, directorIds, null).getService();
     }
     
-        @Override
-        @Transactional
-        public ServiceModel assignMusiciansToService(String serviceId, List<MusicianAssignment> musicianAssignments) {
-        validateServiceExists(serviceId);
-       
-        
-        ServiceModel service = servicesUseCases.getServiceById(serviceId);
-        List<MusiciansList> musiciansList = new ArrayList<>();
-        
-        for (MusicianAssignment assignment : musicianAssignments) {
-            List<UserModel> musicians = assignment.getMusicianIds().stream()
-                    .map(id -> {
-                        UserModel user = userUseCases.getUserById(id);
-                        if (user == null) {
-                            throw new IllegalArgumentException("No se encontró el músico con id: " + id);
-                        }
-                        return user;
-                    })
-                    .toList();
-
-            MusiciansList musicianAssignment = new MusiciansList();
-            musicianAssignment.setMusician(musicians);
-            musicianAssignment.setInstrument(assignment.getInstrument());
-            musiciansList.add(musicianAssignment);
-        }
-        
-        service.setMusiciansList(musiciansList);
-        return servicesUseCases.updateService(service);
+    @Override
+    public ServiceModel assignMusiciansToService(String serviceId, List<MusicianAssignment> musicianAssignments) {
+        List<MusicianAssignment> assignments = musicianAssignments != null ? musicianAssignments : new ArrayList<>();
+        return persistAssignments("assignMusiciansToService", serviceId, null, assignments).getService();
     }
     
     @Override
     public ServiceModel updateServiceAssignments(String serviceId, UpdateAssingmentRequest request) {
-        validateServiceExists(serviceId);
-        
-        ServiceModel service = servicesUseCases.getServiceById(serviceId);
-        
-        // Usar las asignaciones que vienen del frontend
-        UpdateAssingmentRequest.Assignments oldAssignments = request.getOldAssignments();
+        // Las asignaciones anteriores no se toman del frontend: el diff se calcula contra lo persistido
         UpdateAssingmentRequest.Assignments newAssignments = request.getNewAssignments();
         
-        // Actualizar directores
-        if (newAssignments.getDirectorIds() != null && !newAssignments.getDirectorIds().isEmpty()) {
-            service = assignDirectorsToService(serviceId, newAssignments.getDirectorIds());
-        }
+        // Las listas vacías no modifican la asignación actual
+        List<String> directorIds = newAssignments.getDirectorIds() != null && !newAssignments.getDirectorIds().isEmpty() ?
+            newAssignments.getDirectorIds() : null;
+        List<MusicianAssignment> musicianAssignments = newAssignments.getMusiciansList() != null && !newAssignments.getMusiciansList().isEmpty() ?
+            newAssignments.getMusiciansList() : null;
         
-        // Actualizar músicos
-        if (newAssignments.getMusiciansList() != null && !newAssignments.getMusiciansList().isEmpty()) {
-            service = assignMusiciansToService(serviceId, newAssignments.getMusiciansList());
-        }
+        // Una lectura del servicio, cambios en memoria y una única escritura condicionada a la versión;
+        // ante un conflicto se relee y el diff se recalcula sobre el estado más reciente
+        AppliedAssignments applied = persistAssignments("updateServiceAssignments", serviceId, directorIds, musicianAssignments);
+        ServiceModel service = applied.getService();
         
         // Generar notificaciones para usuarios asignados
         List<INotificationService.EmailNotificationBody> assignmentNotifications = 
-            notificationService.generateAssignmentNotifications(service, newAssignments, oldAssignments);
+            notificationService.generateAssignmentNotifications(service, applied.getDiff());
         
         // Generar notificaciones para usuarios removidos
         List<INotificationService.EmailNotificationBody> removalNotifications = 
-            notificationService.generateRemovalNotifications(service, newAssignments, oldAssignments);
+            notificationService.generateRemovalNotifications(service, applied.getDiff());
         
         // Las notificaciones se envían automáticamente a través de la cola
         log.info("📧 {} notificaciones de asignación y {} de remoción enviadas a la cola", 
@@ -239,10 +209,18 @@ public class ServiceServiceImpl implements IServiceService {
     
     @Override
     public ServiceModel updateService(ServiceModel service) {
-        validateServiceExists(service.getId());
-        
-        // Obtener el servicio existente
+        return retryPolicy.execute("updateService", () -> mergeAndUpdateService(service));
+    }
+    
+    /**
+     * Relee el servicio y aplica encima los campos no nulos recibidos; la escritura va condicionada
+     * a la versión leída, así que un reintento vuelve a fusionar sobre el estado más reciente
+     */
+    private ServiceModel mergeAndUpdateService(ServiceModel service) {
         ServiceModel existingService = servicesUseCases.getServiceById(service.getId());
+        if (existingService == null) {
+            throw new IllegalArgumentException("Servicio no encontrado: " + service.getId());
+        }
         
         // Actualizar solo los campos que no son null
         if (service.getServiceDate() != null) {
@@ -264,34 +242,36 @@ public class ServiceServiceImpl implements IServiceService {
             existingService.setSongsList(service.getSongsList());
         }
         
-        return servicesUseCases.updateService(existingService);
+        ServiceModel updatedService = userHydrator.hydrate(servicesUseCases.updateService(existingService));
+        syncAssignmentIndex(updatedService);
+        return updatedService;
     }
     
     // Historias de usuario del Director
     @Override
     public ServiceModel createSongListForService(String serviceId, String directorId, List<CreateSongListRequest> songs) {
-        validateServiceExists(serviceId);
         validateDirectorPermission(serviceId, directorId);
         validateSongListData(songs);
         
-        ServiceModel service = servicesUseCases.getServiceById(serviceId);
-        List<SongsModel> songsList = createSongsList(songs);
-        
-        service.setSongsList(songsList);
-        return servicesUseCases.updateService(service);
+        // $set solo de songsList, sin reescribir el resto del servicio
+        ServiceModel service = servicesUseCases.replaceSongs(serviceId, createSongsList(songs));
+        if (service == null) {
+            throw new IllegalArgumentException("Servicio no encontrado: " + serviceId);
+        }
+        return service;
     }
     
     @Override
     public ServiceModel updateSongListForService(String serviceId, String directorId, List<CreateSongListRequest> songs) {
-        validateServiceExists(serviceId);
         validateDirectorPermission(serviceId, directorId);
         validateSongListData(songs);
         
-        ServiceModel service = servicesUseCases.getServiceById(serviceId);
-        List<SongsModel> songsList = createSongsList(songs);
-        
-        service.setSongsList(songsList);
-        return servicesUseCases.updateService(service);
+        // $set solo de songsList, sin reescribir el resto del servicio
+        ServiceModel service = servicesUseCases.replaceSongs(serviceId, createSongsList(songs));
+        if (service == null) {
+            throw new IllegalArgumentException("Servicio no encontrado: " + serviceId);
+        }
+        return service;
     }
     
     // Consultas generales
@@ -300,29 +280,30 @@ public class ServiceServiceImpl implements IServiceService {
         if (serviceId == null || serviceId.trim().isEmpty()) {
             throw new IllegalArgumentException("ID de servicio no puede ser null o vacío");
         }
-        return servicesUseCases.getServiceById(serviceId);
+        return userHydrator.hydrate(servicesUseCases.getServiceById(serviceId));
     }
     
     @Override
     public List<ServiceModel> getAllServices() {
-        return servicesUseCases.getAllServices();
+        return userHydrator.hydrate(servicesUseCases.getAllServices());
     }
 
+    @Override
+    public CursorPage<ServiceModel> getServicesPage(LocalDate from, LocalDate to, String location, String cursor, Integer limit) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la final");
+        }
+        CursorPage<ServiceModel> page = servicesUseCases.getServicesPage(from, to, location, cursor, normalizePageLimit(limit));
+        // Una sola consulta de usuarios para toda la página
+        userHydrator.hydrate(page.getItems());
+        return page;
+    }
     
     // Validaciones de roles dinámicos
     @Override
     public boolean isUserDirectorOfService(String userId, String serviceId) {
-        if (userId == null || serviceId == null) {
-            return false;
-        }
-        
-        ServiceModel service = servicesUseCases.getServiceById(serviceId);
-        if (service == null || service.getDirectors() == null) {
-            return false;
-        }
-        
-        return service.getDirectors().stream()
-                .anyMatch(director -> director.getId().equals(userId));
+        // Caché serviceId → directores: la comprobación repetida dentro de la misma petición no lee MongoDB
+        return directorAuthorization.isDirectorOf(userId, serviceId);
     }
     
     
@@ -330,22 +311,90 @@ public class ServiceServiceImpl implements IServiceService {
     
     // Eliminación automática (historia del sistema)
     @Override
-    public void deleteExpiredServices() {
-        LocalDate today = LocalDate.now();
-        List<ServiceModel> allServices = servicesUseCases.getAllServices();
-        
-        List<String> expiredServiceIds = allServices.stream()
-                .filter(service -> service.getServiceDate().isBefore(today))
-                .map(ServiceModel::getId)
-                .collect(Collectors.toList());
+    public ServiceArchiveResult deleteExpiredServices() {
+        long start = System.currentTimeMillis();
         
-        for (String serviceId : expiredServiceIds) {
-            servicesUseCases.deleteService(serviceId);
+        // Archivado y borrado por lotes en MongoDB, sin cargar el histórico en memoria
+        LocalDate cutoff = LocalDate.now();
+        ServiceArchiveResult result = servicesUseCases.archiveServicesBefore(cutoff, archiveBatchSize);
+        directorAuthorization.invalidateAll();
+        try {
+            userAssignmentUseCases.deleteBefore(cutoff);
+        } catch (Exception e) {
+            log.error("❌ Error limpiando user_assignments de servicios archivados: {}", e.getMessage());
         }
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        
+        log.info("🗄️ {} servicios expirados archivados y {} eliminados en {} lotes ({} ms)",
+            result.getArchived(), result.getDeleted(), result.getBatches(), result.getElapsedMillis());
+        return result;
+    }
+    
+    @Override
+    public ServiceMigrationResult migrateServiceUserReferences() {
+        long start = System.currentTimeMillis();
+        
+        ServiceMigrationResult result = servicesUseCases.migrateToUserReferences(migrationBatchSize);
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        
+        log.info("🗄️ {} de {} servicios migrados a referencias de usuario en {} lotes ({} ms)",
+            result.getMigrated(), result.getScanned(), result.getBatches(), result.getElapsedMillis());
+        return result;
+    }
+    
+    @Override
+    public AssignmentIndexRebuildResult rebuildAssignmentIndex() {
+        long start = System.currentTimeMillis();
+        
+        AssignmentIndexRebuildResult result = userAssignmentUseCases.rebuild(assignmentRebuildBatchSize);
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        
+        log.info("🗂️ user_assignments reconstruido: {} servicios, {} asignaciones, {} filas obsoletas eliminadas ({} ms)",
+            result.getServices(), result.getAssignments(), result.getRemoved(), result.getElapsedMillis());
+        return result;
     }
     
     // Métodos privados para optimización y reutilización
     
+    /**
+     * Mantiene user_assignments y la caché de directores tras cada escritura de asignaciones. Un fallo
+     * del índice no deshace el cambio del servicio: se reconcilia releyendo el servicio persistido
+     */
+    private void syncAssignmentIndex(ServiceModel service) {
+        directorAuthorization.directorsChanged(service);
+        roundTripTracker.track("syncAssignmentIndex", () -> {
+            try {
+                userAssignmentUseCases.replaceForService(service);
+            } catch (Exception e) {
+                log.warn("⚠️ Error actualizando user_assignments para servicio {}, se reconcilia: {}", service.getId(), e.getMessage());
+                reconcileAssignmentIndex(service.getId());
+            }
+            return null;
+        });
+    }
+    
+    // Reindexa el servicio con su última versión; si vuelve a fallar queda para la reconstrucción completa
+    private void reconcileAssignmentIndex(String serviceId) {
+        try {
+            ServiceModel current = servicesUseCases.getServiceById(serviceId);
+            if (current != null) {
+                userAssignmentUseCases.replaceForService(current);
+            }
+        } catch (Exception e) {
+            log.error("❌ Error reconciliando user_assignments para servicio {}: {}", serviceId, e.getMessage());
+        }
+    }
+    
+    private int normalizePageLimit(Integer limit) {
+        if (limit == null) {
+            return defaultPageLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("El límite debe ser mayor que 0");
+        }
+        return Math.min(limit, maxPageLimit);
+    }
+    
     private void validateServiceDates(ServiceModel service) {
         if (service.getServiceDate() == null) {
             throw new IllegalArgumentException("Fecha de servicio es obligatoria");
@@ -370,12 +419,6 @@ public class ServiceServiceImpl implements IServiceService {
         }
     }
     
-    private void validateServiceExists(String serviceId) {
-        if (servicesUseCases.getServiceById(serviceId) == null) {
-            throw new IllegalArgumentException("Servicio no encontrado: " + serviceId);
-        }
-    }
-    
     private void validateDirectorIds(List<String> directorIds) {
         if (directorIds == null || directorIds.isEmpty()) {
             throw new IllegalArgumentException("Lista de directores no puede ser null o vacía");
@@ -396,6 +439,154 @@ public class ServiceServiceImpl implements IServiceService {
         }
     }
     
+    /**
+     * Aplica las asignaciones con reintentos ante conflictos de versión y, ya guardado el servicio,
+     * promueve a los directores fuera del reintento. La operación registra todos sus round trips
+     * (reintentos, user_assignments y promoción incluidos); las escrituras secundarias se
+     * registran además por separado como syncAssignmentIndex y promoteDirectors
+     */
+    private AppliedAssignments persistAssignments(String operation, String serviceId, List<String> directorIds,
+                                                  List<MusicianAssignment> musicianAssignments) {
+        return roundTripTracker.track(operation, () -> {
+            AppliedAssignments applied = retryPolicy.execute(operation,
+                () -> applyAssignments(serviceId, directorIds, musicianAssignments));
+            if (directorIds != null) {
+                promoteDirectors(applied.getService().getDirectors());
+            }
+            return applied;
+        });
+    }
+    
+    /**
+     * Carga el servicio una vez, aplica en memoria los directores y músicos indicados
+     * (null deja la asignación actual) y persiste con una única escritura.
+     * Devuelve también el diff respecto al estado persistido.
+     */
+    private AppliedAssignments applyAssignments(String serviceId, List<String> directorIds, List<MusicianAssignment> musicianAssignments) {
+        // Las remociones se notifican con los datos completos del usuario: se hidratan al leer
+        ServiceModel service = userHydrator.hydrate(servicesUseCases.getServiceById(serviceId));
+        if (service == null) {
+            throw new IllegalArgumentException("Servicio no encontrado: " + serviceId);
+        }
+        ServiceModel previous = new ServiceModel();
+        previous.setDirectors(service.getDirectors());
+        previous.setMusiciansList(service.getMusiciansList());
+        
+        Set<String> userIds = new LinkedHashSet<>();
+        if (directorIds != null) {
+            userIds.addAll(directorIds);
+        }
+        userIds.addAll(collectMusicianIds(musicianAssignments));
+        Map<String, UserModel> users = resolveUsers(userIds);
+        
+        if (directorIds != null) {
+            service.setDirectors(buildDirectors(directorIds, users));
+        }
+        if (musicianAssignments != null) {
+            service.setMusiciansList(buildMusiciansList(musicianAssignments, users));
+        }
+        
+        // Todos los participantes ya están resueltos: la hidratación no vuelve a consultar
+        Map<String, UserModel> knownUsers = new HashMap<>(userHydrator.participantsById(previous));
+        knownUsers.putAll(users);
+        if (directorIds != null) {
+            service.getDirectors().forEach(director -> knownUsers.put(director.getId(), director));
+        }
+        ServiceModel updatedService = userHydrator.hydrate(servicesUseCases.updateService(service), knownUsers);
+        syncAssignmentIndex(updatedService);
+        return new AppliedAssignments(updatedService, AssignmentDiff.between(previous, updatedService));
+    }
+    
+    /**
+     * Resuelve en una sola consulta todos los usuarios de una asignación.
+     * Si faltan varios, se reportan todos juntos en el mismo error.
+     */
+    private Map<String, UserModel> resolveUsers(Set<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        
+        Map<String, UserModel> users = userUseCases.getUsersByIds(userIds).stream()
+                .collect(Collectors.toMap(UserModel::getId, Function.identity()));
+        
+        List<String> missingIds = userIds.stream()
+                .filter(id -> !users.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new IllegalArgumentException("Usuarios no encontrados: " + String.join(", ", missingIds));
+        }
+        
+        return users;
+    }
+    
+    private Set<String> collectMusicianIds(List<MusicianAssignment> musicianAssignments) {
+        Set<String> musicianIds = new LinkedHashSet<>();
+        if (musicianAssignments != null) {
+            for (MusicianAssignment assignment : musicianAssignments) {
+                if (assignment.getMusicianIds() != null) {
+                    musicianIds.addAll(assignment.getMusicianIds());
+                }
+            }
+        }
+        return musicianIds;
+    }
+    
+    /**
+     * Copias de los directores con el rol DIRECTOR ya incluido: es el rol que tendrán tras
+     * promoteDirectors, así la copia embebida en el servicio no queda desactualizada
+     */
+    private List<UserModel> buildDirectors(List<String> directorIds, Map<String, UserModel> users) {
+        List<UserModel> directors = new ArrayList<>();
+        
+        for (String directorId : directorIds) {
+            UserModel user = users.get(directorId);
+            List<UserModel.Role> roles = user.getRoles() != null ? new ArrayList<>(user.getRoles()) : new ArrayList<>();
+            if (!roles.contains(UserModel.Role.DIRECTOR)) {
+                roles.add(UserModel.Role.DIRECTOR);
+            }
+            directors.add(new UserModel(user.getId(), user.getName(), user.getEmail(), user.getPhoneNumber(),
+                roles, user.getCreatedAt(), user.getVersion(), user.getTokenVersion()));
+        }
+        
+        return directors;
+    }
+    
+    /**
+     * Añade el rol DIRECTOR a quienes no lo tengan, en una sola escritura. Se llama solo después
+     * de guardar el servicio: si la escritura condicionada falla nadie queda promovido
+     */
+    private void promoteDirectors(List<UserModel> directors) {
+        if (directors == null || directors.isEmpty()) {
+            return;
+        }
+        
+        List<String> directorIds = directors.stream().map(UserModel::getId).distinct().toList();
+        List<String> promotedIds = roundTripTracker.track("promoteDirectors",
+            () -> userUseCases.ensureRole(directorIds, UserModel.Role.DIRECTOR));
+        if (!promotedIds.isEmpty()) {
+            promotedIds.forEach(tokenVersionRegistry::rolesChanged);
+            log.info("🎼 Rol DIRECTOR añadido a {} usuarios", promotedIds.size());
+        }
+    }
+    
+    private List<MusiciansList> buildMusiciansList(List<MusicianAssignment> musicianAssignments, Map<String, UserModel> users) {
+        List<MusiciansList> musiciansList = new ArrayList<>();
+        
+        for (MusicianAssignment assignment : musicianAssignments) {
+            List<UserModel> musicians = assignment.getMusicianIds() == null ? List.of() :
+                    assignment.getMusicianIds().stream()
+                            .map(users::get)
+                            .toList();
+            
+            MusiciansList musicianAssignment = new MusiciansList();
+            musicianAssignment.setMusician(musicians);
+            musicianAssignment.setInstrument(assignment.getInstrument());
+            musiciansList.add(musicianAssignment);
+        }
+        
+        return musiciansList;
+    }
+    
     private List<SongsModel> createSongsList(List<CreateSongListRequest> songs) {
         List<SongsModel> songsList = new ArrayList<>();
         
@@ -413,21 +604,14 @@ public class ServiceServiceImpl implements IServiceService {
     /**
      * Genera notificaciones de asignación para la creación de un servicio
      */
-    private void generateCreationNotifications(ServiceModel service, List<String> directorIds, List<MusicianAssignment> musicianAssignments) {
+    private void generateCreationNotifications(ServiceModel service) {
         try {
-            // Crear objeto de asignaciones nuevas (lo que se está asignando)
-            UpdateAssingmentRequest.Assignments newAssignments = new UpdateAssingmentRequest.Assignments();
-            newAssignments.setDirectorIds(directorIds != null ? directorIds : new ArrayList<>());
-            newAssignments.setMusiciansList(musicianAssignments != null ? musicianAssignments : new ArrayList<>());
-            
-            // Crear objeto de asignaciones viejas (vacío para creación)
-            UpdateAssingmentRequest.Assignments oldAssignments = new UpdateAssingmentRequest.Assignments();
-            oldAssignments.setDirectorIds(new ArrayList<>());
-            oldAssignments.setMusiciansList(new ArrayList<>());
+            // En la creación no hay estado previo: todas las asignaciones son nuevas
+            AssignmentDiff diff = AssignmentDiff.between(null, service);
             
             // Generar notificaciones de asignación (solo assignments, no removals)
             List<INotificationService.EmailNotificationBody> assignmentNotifications = 
-                notificationService.generateAssignmentNotifications(service, newAssignments, oldAssignments);
+                notificationService.generateAssignmentNotifications(service, diff);
             
             // Log de resultados
             log.info("📧 {} notificaciones de asignación enviadas para la creación del servicio {}", 
@@ -439,4 +623,14 @@ public class ServiceServiceImpl implements IServiceService {
             // No lanzamos la excepción para no afectar la creación del servicio
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Servicio persistido junto con el diff de asignaciones aplicado
+     */
+    @Data
+    @AllArgsConstructor
+    private static class AppliedAssignments {
+        private ServiceModel service;
+        private AssignmentDiff diff;
+    }
+}
@@ -0,0 +1,115 @@
+package com.backend.application.implementations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.backend.domain.model.MusiciansList;
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserUseCases;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sustituye las referencias de usuario (id + nombre) embebidas en los servicios por el UserModel completo.
+ * Depende del modo de almacenamiento (app.services.user-storage): con copias embebidas no hay nada que
+ * hidratar; con referencias se resuelven todos los participantes, sin adivinar por los campos presentes.
+ * Todas las referencias de una colección de servicios se resuelven con una única consulta por lote;
+ * los usuarios ya conocidos por el llamador no se vuelven a consultar.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceUserHydrator {
+
+    private final UserUseCases userUseCases;
+    private final ServicesUseCases servicesUseCases;
+
+    public ServiceModel hydrate(ServiceModel service) {
+        return hydrate(service, Map.of());
+    }
+
+    public ServiceModel hydrate(ServiceModel service, Map<String, UserModel> knownUsers) {
+        if (service != null) {
+            hydrate(List.of(service), knownUsers);
+        }
+        return service;
+    }
+
+    public List<ServiceModel> hydrate(List<ServiceModel> services) {
+        return hydrate(services, Map.of());
+    }
+
+    public List<ServiceModel> hydrate(List<ServiceModel> services, Map<String, UserModel> knownUsers) {
+        if (services.isEmpty() || !servicesUseCases.storesUserReferences()) {
+            return services;
+        }
+        
+        Set<String> missingIds = new LinkedHashSet<>();
+        for (ServiceModel service : services) {
+            participantsOf(service).stream()
+                    .map(UserModel::getId)
+                    .filter(id -> !knownUsers.containsKey(id))
+                    .forEach(missingIds::add);
+        }
+
+        Map<String, UserModel> users = new HashMap<>(knownUsers);
+        if (!missingIds.isEmpty()) {
+            userUseCases.getUsersByIds(missingIds).forEach(user -> users.put(user.getId(), user));
+        }
+
+        for (ServiceModel service : services) {
+            if (service.getDirectors() != null) {
+                service.setDirectors(resolve(service.getDirectors(), users));
+            }
+            if (service.getMusiciansList() != null) {
+                for (MusiciansList assignment : service.getMusiciansList()) {
+                    if (assignment.getMusician() != null) {
+                        assignment.setMusician(resolve(assignment.getMusician(), users));
+                    }
+                }
+            }
+        }
+        return services;
+    }
+
+    /**
+     * Participantes de un servicio ya hidratado indexados por id, para no volver a consultarlos
+     */
+    public Map<String, UserModel> participantsById(ServiceModel service) {
+        Map<String, UserModel> users = new LinkedHashMap<>();
+        participantsOf(service).forEach(user -> users.putIfAbsent(user.getId(), user));
+        return users;
+    }
+
+    private List<UserModel> participantsOf(ServiceModel service) {
+        List<UserModel> participants = new ArrayList<>();
+        if (service.getDirectors() != null) {
+            participants.addAll(service.getDirectors());
+        }
+        if (service.getMusiciansList() != null) {
+            service.getMusiciansList().stream()
+                    .filter(assignment -> assignment.getMusician() != null)
+                    .forEach(assignment -> participants.addAll(assignment.getMusician()));
+        }
+        return participants;
+    }
+
+    /**
+     * Un usuario eliminado se queda con su referencia (id + nombre) en lugar de desaparecer
+     */
+    private List<UserModel> resolve(Collection<UserModel> participants, Map<String, UserModel> users) {
+        return participants.stream()
+                .map(user -> users.getOrDefault(user.getId(), user))
+                .collect(Collectors.toList());
+    }
+}
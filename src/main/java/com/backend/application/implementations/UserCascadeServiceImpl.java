@@ -0,0 +1,161 @@
+package com.backend.application.implementations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.backend.application.IUserCascadeService;
+import com.backend.application.dto.UserCascadeProgress;
+import com.backend.application.dto.UserCascadeProgress.CascadeStatus;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserUseCases;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Propaga en segundo plano los cambios de perfil (nombre, email, teléfono) a las copias del usuario
+ * embebidas en los servicios. Un único hilo procesa las cascadas en orden de llegada, por lotes de
+ * servicios y con una pausa entre lotes para no saturar MongoDB.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserCascadeServiceImpl implements IUserCascadeService {
+
+    private static final int MAX_TRACKED_CASCADES = 100;
+
+    private final ServicesUseCases servicesUseCases;
+    private final UserUseCases userUseCases;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-cascade");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Últimas cascadas en orden de llegada, para consultar el progreso
+    private final Map<String, UserCascadeProgress> cascades = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UserCascadeProgress> eldest) {
+            return size() > MAX_TRACKED_CASCADES;
+        }
+    };
+
+    @Value("${app.users.cascade.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.users.cascade.throttle-ms:100}")
+    private long throttleMillis;
+
+    @Override
+    public UserCascadeProgress propagateProfileChange(String userId) {
+        UserCascadeProgress progress = new UserCascadeProgress();
+        progress.setCascadeId(UUID.randomUUID().toString());
+        progress.setUserId(userId);
+        progress.setStatus(CascadeStatus.PENDING);
+        progress.setRequestedAt(LocalDateTime.now());
+
+        synchronized (cascades) {
+            cascades.put(progress.getCascadeId(), progress);
+        }
+        executor.submit(() -> runCascade(progress));
+
+        return snapshot(progress);
+    }
+
+    @Override
+    public List<UserCascadeProgress> getCascades() {
+        List<UserCascadeProgress> result = new ArrayList<>();
+        synchronized (cascades) {
+            cascades.values().forEach(progress -> result.add(snapshot(progress)));
+        }
+        return result;
+    }
+
+    private void runCascade(UserCascadeProgress progress) {
+        update(progress, p -> {
+            p.setStatus(CascadeStatus.RUNNING);
+            p.setStartedAt(LocalDateTime.now());
+        });
+
+        try {
+            // Se lee el perfil al ejecutar: si hubo varias ediciones seguidas, se propaga la última
+            UserModel user = userUseCases.getUserById(progress.getUserId());
+            if (user == null) {
+                throw new IllegalArgumentException("Usuario no encontrado: " + progress.getUserId());
+            }
+
+            List<String> serviceIds = servicesUseCases.getServiceIdsByParticipant(user.getId());
+            update(progress, p -> p.setTotalServices(serviceIds.size()));
+
+            for (int from = 0; from < serviceIds.size(); from += batchSize) {
+                List<String> batch = serviceIds.subList(from, Math.min(from + batchSize, serviceIds.size()));
+                long modified = servicesUseCases.propagateUserProfile(user, batch);
+
+                update(progress, p -> {
+                    p.setProcessedServices(p.getProcessedServices() + batch.size());
+                    p.setModifiedDocuments(p.getModifiedDocuments() + modified);
+                    p.setBatches(p.getBatches() + 1);
+                });
+
+                if (from + batchSize < serviceIds.size() && throttleMillis > 0) {
+                    Thread.sleep(throttleMillis);
+                }
+            }
+
+            update(progress, p -> {
+                p.setStatus(CascadeStatus.COMPLETED);
+                p.setFinishedAt(LocalDateTime.now());
+            });
+            log.info("✅ Perfil de {} propagado a {} servicios en {} lotes",
+                user.getId(), progress.getProcessedServices(), progress.getBatches());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(progress, "Cascada interrumpida");
+        } catch (Exception e) {
+            fail(progress, e.getMessage());
+        }
+    }
+
+    private void fail(UserCascadeProgress progress, String error) {
+        update(progress, p -> {
+            p.setStatus(CascadeStatus.FAILED);
+            p.setError(error);
+            p.setFinishedAt(LocalDateTime.now());
+        });
+        log.error("❌ Error propagando el perfil de {}: {}", progress.getUserId(), error);
+    }
+
+    private void update(UserCascadeProgress progress, Consumer<UserCascadeProgress> change) {
+        synchronized (progress) {
+            change.accept(progress);
+        }
+    }
+
+    private UserCascadeProgress snapshot(UserCascadeProgress progress) {
+        synchronized (progress) {
+            return new UserCascadeProgress(progress.getCascadeId(), progress.getUserId(), progress.getStatus(),
+                progress.getTotalServices(), progress.getProcessedServices(), progress.getModifiedDocuments(),
+                progress.getBatches(), progress.getRequestedAt(), progress.getStartedAt(),
+                progress.getFinishedAt(), progress.getError());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -3,16 +3,23 @@ package com.backend.application.implementations;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.backend.application.IUserCascadeService;
 import com.backend.application.IUserService;
+import com.backend.domain.model.CursorPage;
 import com.backend.domain.model.ServiceModel;
 import com.backend.domain.model.UserModel;
 import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserAssignmentUseCases;
 import com.backend.domain.port.UserUseCases;
+import com.backend.infraestructure.security.UserTokenVersionRegistry;
 
 @Service
 public class UserServiceImpl implements IUserService {
@@ -23,6 +30,31 @@ public class UserServiceImpl implements IUserService {
     @Autowired
     private ServicesUseCases servicesUseCases;
     
+    @Autowired
+    private OptimisticRetryPolicy retryPolicy;
+    
+    @Autowired
+    private IUserCascadeService userCascadeService;
+    
+    @Autowired
+    private UserAssignmentUseCases userAssignmentUseCases;
+    
+    @Autowired
+    private UserTokenVersionRegistry tokenVersionRegistry;
+    
+    @Autowired
+    private ServiceUserHydrator userHydrator;
+    
+    // Lecturas desde user_assignments (requiere haber reconstruido el índice al activarlo)
+    @Value("${app.assignments.index.enabled:false}")
+    private boolean assignmentIndexEnabled;
+    
+    @Value("${app.pagination.default-limit:50}")
+    private int defaultPageLimit;
+    
+    @Value("${app.pagination.max-limit:200}")
+    private int maxPageLimit;
+    
     // Operaciones CRUD básicas
     @Override
     public UserModel createUser(UserModel user) {
@@ -56,10 +88,39 @@ public class UserServiceImpl implements IUserService {
     @Override
     public UserModel updateUser(UserModel user) {
         validateUserId(user.getId());
-        validateUserExists(user.getId());
         
-        // Obtener el usuario existente
+        AtomicReference<UserModel> previous = new AtomicReference<>();
+        UserModel updatedUser = retryPolicy.execute("updateUser", () -> mergeAndUpdateUser(user, previous));
+        
+        // Las copias embebidas en servicios se actualizan en segundo plano: la petición no espera
+        if (profileChanged(previous.get(), updatedUser)) {
+            userCascadeService.propagateProfileChange(updatedUser.getId());
+        }
+        // Los tokens emitidos con los roles anteriores dejan de autenticarse solo con sus claims
+        if (!Objects.equals(previous.get().getRoles(), updatedUser.getRoles())) {
+            tokenVersionRegistry.rolesChanged(updatedUser.getId());
+        }
+        return updatedUser;
+    }
+    
+    private boolean profileChanged(UserModel before, UserModel after) {
+        return !Objects.equals(before.getName(), after.getName())
+            || !Objects.equals(before.getEmail(), after.getEmail())
+            || !Objects.equals(before.getPhoneNumber(), after.getPhoneNumber());
+    }
+    
+    /**
+     * Relee el usuario y aplica encima los campos no nulos recibidos; la escritura va condicionada
+     * a la versión leída, así que un reintento vuelve a fusionar sobre el estado más reciente
+     */
+    private UserModel mergeAndUpdateUser(UserModel user, AtomicReference<UserModel> previous) {
         UserModel existingUser = userUseCases.getUserById(user.getId());
+        if (existingUser == null) {
+            throw new IllegalArgumentException("Usuario no encontrado: " + user.getId());
+        }
+        previous.set(new UserModel(existingUser.getId(), existingUser.getName(), existingUser.getEmail(),
+            existingUser.getPhoneNumber(), existingUser.getRoles(), existingUser.getCreatedAt(), existingUser.getVersion(),
+            existingUser.getTokenVersion()));
         
         // Actualizar solo los campos que no son null
         if (user.getName() != null && !user.getName().trim().isEmpty()) {
@@ -74,8 +135,11 @@ public class UserServiceImpl implements IUserService {
         if (user.getPhoneNumber() != null && !user.getPhoneNumber().trim().isEmpty()) {
             existingUser.setPhoneNumber(user.getPhoneNumber());
         }
-        if (user.getRoles() != null) {
+        if (user.getRoles() != null && !Objects.equals(existingUser.getRoles(), user.getRoles())) {
             existingUser.setRoles(user.getRoles());
+            // Va en la misma escritura condicionada: los JWT con la versión anterior dejan de valer
+            long tokenVersion = existingUser.getTokenVersion() != null ? existingUser.getTokenVersion() : 0L;
+            existingUser.setTokenVersion(tokenVersion + 1);
         }
         
         return userUseCases.updateUser(existingUser);
@@ -87,6 +151,7 @@ public class UserServiceImpl implements IUserService {
         validateUserExists(id);
         
         userUseCases.deleteUser(id);
+        tokenVersionRegistry.rolesChanged(id);
     }
     
     @Override
@@ -94,6 +159,11 @@ public class UserServiceImpl implements IUserService {
         return userUseCases.getAllUsers();
     }
     
+    @Override
+    public CursorPage<UserModel> getUsersPage(UserModel.Role role, String cursor, Integer limit) {
+        return userUseCases.getUsersPage(role, cursor, normalizePageLimit(limit));
+    }
+    
     @Override
     public UserModel getUserByPhoneNumber(String phoneNumber) {
         validatePhoneNumber(phoneNumber);
@@ -106,21 +176,28 @@ public class UserServiceImpl implements IUserService {
     @Override
     public List<ServiceModel> getServicesForUser(String userId) {
         validateUserId(userId);
-        validateUserExists(userId);
         
-        // Obtener servicios donde el usuario es director o músico
-        List<ServiceModel> directorServices = servicesUseCases.getServicesByDirector(userId);
-        List<ServiceModel> musicianServices = servicesUseCases.getServicesByMusician(userId);
+        // Una sola consulta $or (director o músico), ya ordenada por fecha y sin duplicados
+        return findServicesForUser(userId, null);
+    }
+    
+    @Override
+    public List<ServiceModel> getUpcomingServicesForUser(String userId) {
+        validateUserId(userId);
         
-        // Combinar y eliminar duplicados
-        List<ServiceModel> allServices = new java.util.ArrayList<>(directorServices);
-        for (ServiceModel service : musicianServices) {
-            if (!allServices.stream().anyMatch(s -> s.getId().equals(service.getId()))) {
-                allServices.add(service);
-            }
+        return findServicesForUser(userId, LocalDate.now());
+    }
+    
+    private List<ServiceModel> findServicesForUser(String userId, LocalDate from) {
+        List<ServiceModel> services;
+        if (assignmentIndexEnabled) {
+            // Ids desde el índice estrecho y después una búsqueda por _id
+            services = servicesUseCases.getServicesByIds(userAssignmentUseCases.findServiceIdsForUser(userId, from));
+        } else {
+            services = servicesUseCases.getServicesByParticipant(userId, from);
         }
-        
-        return allServices;
+        // Todos los participantes de todos los servicios en una sola consulta
+        return userHydrator.hydrate(services);
     }
     
 
@@ -143,6 +220,16 @@ public class UserServiceImpl implements IUserService {
         }
     }
     
+    private int normalizePageLimit(Integer limit) {
+        if (limit == null) {
+            return defaultPageLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("El límite debe ser mayor que 0");
+        }
+        return Math.min(limit, maxPageLimit);
+    }
+    
     private void validateUserId(String id) {
         if (id == null || id.trim().isEmpty()) {
             throw new IllegalArgumentException("ID de usuario no puede ser null o vacío");
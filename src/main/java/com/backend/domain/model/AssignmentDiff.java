@@ -0,0 +1,92 @@
+package com.backend.domain.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Diferencia de asignaciones entre dos estados de un servicio,
+ * indexada por (usuario, rol, instrumento).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AssignmentDiff {
+    private List<AssignmentChange> added;
+    private List<AssignmentChange> removed;
+    
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class AssignmentChange {
+        private UserModel user;
+        private UserModel.Role role;
+        private String instrument; // Solo para músicos
+    }
+    
+    /**
+     * Calcula la diferencia en O(n) comparando las asignaciones persistidas con las nuevas.
+     * Un servicio null se considera sin asignaciones (creación).
+     */
+    public static AssignmentDiff between(ServiceModel before, ServiceModel after) {
+        Map<String, AssignmentChange> previous = indexAssignments(before);
+        Map<String, AssignmentChange> current = indexAssignments(after);
+        
+        List<AssignmentChange> added = new ArrayList<>();
+        current.forEach((key, change) -> {
+            if (!previous.containsKey(key)) {
+                added.add(change);
+            }
+        });
+        
+        List<AssignmentChange> removed = new ArrayList<>();
+        previous.forEach((key, change) -> {
+            if (!current.containsKey(key)) {
+                removed.add(change);
+            }
+        });
+        
+        return new AssignmentDiff(added, removed);
+    }
+    
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+    
+    private static Map<String, AssignmentChange> indexAssignments(ServiceModel service) {
+        Map<String, AssignmentChange> assignments = new LinkedHashMap<>();
+        if (service == null) {
+            return assignments;
+        }
+        
+        if (service.getDirectors() != null) {
+            for (UserModel director : service.getDirectors()) {
+                assignments.putIfAbsent(key(director, UserModel.Role.DIRECTOR, null),
+                    new AssignmentChange(director, UserModel.Role.DIRECTOR, null));
+            }
+        }
+        
+        if (service.getMusiciansList() != null) {
+            for (MusiciansList musiciansList : service.getMusiciansList()) {
+                if (musiciansList.getMusician() == null) {
+                    continue;
+                }
+                for (UserModel musician : musiciansList.getMusician()) {
+                    assignments.putIfAbsent(key(musician, UserModel.Role.MUSICIAN, musiciansList.getInstrument()),
+                        new AssignmentChange(musician, UserModel.Role.MUSICIAN, musiciansList.getInstrument()));
+                }
+            }
+        }
+        
+        return assignments;
+    }
+    
+    private static String key(UserModel user, UserModel.Role role, String instrument) {
+        return user.getId() + "|" + role + "|" + (instrument != null ? instrument : "");
+    }
+}
@@ -0,0 +1,16 @@
+package com.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AssignmentIndexRebuildResult {
+    private long services;
+    private long assignments;
+    private long removed;
+    private int batches;
+    private long elapsedMillis;
+}
@@ -0,0 +1,13 @@
+package com.backend.domain.model;
+
+/**
+ * Resultado de reservar la clave de una notificación antes de enviarla
+ */
+public enum NotificationClaim {
+    // Reservada: este consumidor debe enviarla
+    CLAIMED,
+    // Ya se envió dentro del TTL: es un duplicado
+    ALREADY_SENT,
+    // Otro consumidor la está enviando y su reserva no ha caducado
+    IN_PROGRESS
+}
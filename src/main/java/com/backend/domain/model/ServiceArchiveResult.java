@@ -0,0 +1,15 @@
+package com.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ServiceArchiveResult {
+    private long archived;
+    private long deleted;
+    private int batches;
+    private long elapsedMillis;
+}
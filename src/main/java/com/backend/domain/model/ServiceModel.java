@@ -21,4 +21,5 @@ public class ServiceModel {
     private String id;
     private LocalDateTime createdAt;
     private String clothesColor;
+    private Long version; // Versión para escrituras condicionadas (concurrencia optimista)
 }
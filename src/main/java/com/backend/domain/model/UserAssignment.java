@@ -0,0 +1,45 @@
+package com.backend.domain.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Una participación de un usuario en un servicio (fila del índice user_assignments)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserAssignment {
+    private String userId;
+    private String serviceId;
+    private UserModel.Role role;
+    private String instrument;
+    private LocalDate serviceDate;
+
+    public static List<UserAssignment> fromService(ServiceModel service) {
+        List<UserAssignment> assignments = new ArrayList<>();
+        if (service.getDirectors() != null) {
+            for (UserModel director : service.getDirectors()) {
+                assignments.add(new UserAssignment(director.getId(), service.getId(),
+                    UserModel.Role.DIRECTOR, null, service.getServiceDate()));
+            }
+        }
+        if (service.getMusiciansList() != null) {
+            for (MusiciansList assignment : service.getMusiciansList()) {
+                if (assignment.getMusician() == null) {
+                    continue;
+                }
+                for (UserModel musician : assignment.getMusician()) {
+                    assignments.add(new UserAssignment(musician.getId(), service.getId(),
+                        UserModel.Role.MUSICIAN, assignment.getInstrument(), service.getServiceDate()));
+                }
+            }
+        }
+        return assignments;
+    }
+}
@@ -17,6 +17,8 @@ public class UserModel {
     private String phoneNumber;
     private List<Role> roles; // Cambiado de Role role a List<Role> roles
     private LocalDateTime createdAt;
+    private Long version; // Versión para escrituras condicionadas (concurrencia optimista)
+    private Long tokenVersion; // Sube con cada cambio de roles: los JWT emitidos con otra dejan de valer
 
     public static enum Role {
         ADMIN,
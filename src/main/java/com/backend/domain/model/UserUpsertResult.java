@@ -0,0 +1,13 @@
+package com.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserUpsertResult {
+    private UserModel user;
+    private boolean created;
+}
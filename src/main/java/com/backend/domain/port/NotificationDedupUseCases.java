@@ -0,0 +1,11 @@
+package com.backend.domain.port;
+
+import java.time.Duration;
+
+import com.backend.domain.model.NotificationClaim;
+
+public interface NotificationDedupUseCases {
+    NotificationClaim claim(String notificationKey, String owner, Duration lease);
+    void markSent(String notificationKey, Duration ttl);
+    void release(String notificationKey, String owner);
+}
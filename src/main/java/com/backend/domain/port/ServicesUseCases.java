@@ -1,18 +1,37 @@
 package com.backend.domain.port;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
+import com.backend.domain.model.CursorPage;
+import com.backend.domain.model.ServiceArchiveResult;
+import com.backend.domain.model.ServiceMigrationResult;
 import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.SongsModel;
+import com.backend.domain.model.UserModel;
 
 public interface ServicesUseCases {
     ServiceModel createService(ServiceModel service);
     ServiceModel getServiceById(String id);
+    Set<String> getDirectorIds(String serviceId);
+    List<ServiceModel> getServicesByIds(Collection<String> ids);
     ServiceModel updateService(ServiceModel service);
+    ServiceModel setClothesColor(String serviceId, String clothesColor);
+    ServiceModel replaceSongs(String serviceId, List<SongsModel> songs);
     void deleteService(String id);
+    ServiceArchiveResult archiveServicesBefore(LocalDate cutoff, int batchSize);
+    ServiceMigrationResult migrateToUserReferences(int batchSize);
+    boolean storesUserReferences();
     List<ServiceModel> getAllServices();
+    CursorPage<ServiceModel> getServicesPage(LocalDate from, LocalDate to, String location, String cursor, int limit);
     List<ServiceModel> getServicesByDirector(String directorId);
     List<ServiceModel> getServicesByMusician(String musicianId);
+    List<String> getServiceIdsByParticipant(String userId);
+    long propagateUserProfile(UserModel user, List<String> serviceIds);
+    List<ServiceModel> getServicesByParticipant(String userId, LocalDate from);
     //List<ServiceModel> getServicesByLocation(String location);
     //List<ServiceModel> getServicesByDate(LocalDate date);
-    //List<ServiceModel> getServicesByDateRange(LocalDate startDate, LocalDate endDate);
+    List<ServiceModel> getServicesByDateRange(LocalDate startDate, LocalDate endDate);
 }
@@ -0,0 +1,18 @@
+package com.backend.domain.port;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import com.backend.domain.model.AssignmentIndexRebuildResult;
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserAssignment;
+
+public interface UserAssignmentUseCases {
+    void replaceForService(ServiceModel service);
+    long deleteBefore(LocalDate cutoff);
+    List<String> findServiceIdsForUser(String userId, LocalDate from);
+    Set<String> findDirectorIds(String serviceId);
+    List<UserAssignment> findAssignmentsBetween(LocalDate startDate, LocalDate endDate);
+    AssignmentIndexRebuildResult rebuild(int batchSize);
+}
@@ -1,15 +1,23 @@
 package com.backend.domain.port;
 
+import java.util.Collection;
 import java.util.List;
 
+import com.backend.domain.model.CursorPage;
 import com.backend.domain.model.UserModel;
+import com.backend.domain.model.UserUpsertResult;
 
 public interface UserUseCases {
     UserModel createUser(UserModel user);
     UserModel getUserByEmail(String email);
+    UserUpsertResult upsertByEmail(UserModel newUser);
     UserModel getUserById(String id);
+    List<UserModel> getUsersByIds(Collection<String> ids);
     UserModel updateUser(UserModel user);
+    List<String> ensureRole(Collection<String> userIds, UserModel.Role role);
+    Long getTokenVersion(String userId);
     void deleteUser(String id);
     List<UserModel> getAllUsers();
+    CursorPage<UserModel> getUsersPage(UserModel.Role role, String cursor, int limit);
     UserModel getUserByPhoneNumber(String phoneNumber);
 }
@@ -5,7 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.backend.application.IAuthService;
-import com.backend.domain.model.AuthUser;
+import com.backend.application.dto.GoogleLoginResult;
 import com.backend.domain.model.UserModel;
 
 import lombok.RequiredArgsConstructor;
@@ -27,36 +27,24 @@ public class AuthController {
             
             log.info("Type of request.getToken(): {}", request.getToken().getClass());
 
-            // Autenticar con Google
-            AuthUser authUser = authService.authenticateWithGoogle(request.getToken());
-
-            log.info("AuthUser: {}", authUser);
-            if (authUser.isNewUser()) {
-                // Usuario nuevo - registrarlo
-                UserModel newUser = authService.registerNewUser(authUser);
-                String jwtToken = authService.generateJwtToken(newUser);
-                
-                AuthResponse response = new AuthResponse();
-                response.setToken(jwtToken);
-                response.setUser(newUser);
-                response.setNewUser(true);
+            // Verificar el token y obtener o crear el usuario en una sola operación
+            GoogleLoginResult login = authService.loginWithGoogle(request.getToken());
+            
+            AuthResponse response = new AuthResponse();
+            response.setToken(login.getToken());
+            response.setUser(login.getUser());
+            response.setNewUser(login.isNewUser());
+            
+            if (login.isNewUser()) {
+                // Usuario nuevo - registrado
                 response.setMessage("Usuario registrado exitosamente");
-                
                 return ResponseEntity.status(HttpStatus.CREATED).body(response);
-            } else {
-                // Usuario existente - autenticarlo
-                UserModel existingUser = authService.getUserByEmail(authUser.getEmail());
-                String jwtToken = authService.generateJwtToken(existingUser);
-                
-                AuthResponse response = new AuthResponse();
-                response.setToken(jwtToken);
-                response.setUser(existingUser);
-                response.setNewUser(false);
-                response.setMessage("Usuario autenticado exitosamente");
-                
-                return ResponseEntity.ok(response);
             }
             
+            // Usuario existente - autenticado
+            response.setMessage("Usuario autenticado exitosamente");
+            return ResponseEntity.ok(response);
+            
         } catch (IllegalArgumentException e) {
             AuthResponse errorResponse = new AuthResponse();
             errorResponse.setMessage("Error de autenticación: " + e.getMessage());
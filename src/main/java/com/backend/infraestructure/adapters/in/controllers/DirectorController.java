@@ -8,6 +8,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.backend.application.IDirectorAuthorizationService;
 import com.backend.application.IServiceService;
 import com.backend.application.dto.CreateSongListRequest;
 import com.backend.domain.model.ServiceModel;
@@ -22,6 +23,7 @@ public class DirectorController {
     
     private final IServiceService serviceService;
     private final IDirectorService directorService;
+    private final IDirectorAuthorizationService directorAuthorization;
     
     @PostMapping("/{directorId}/services/{serviceId}/songs")
     public ResponseEntity<ServiceModel> createSongList(
@@ -30,7 +32,7 @@ public class DirectorController {
             @RequestBody List<CreateSongListRequest> songs) {
         try {
 
-            if (!serviceService.isUserDirectorOfService(directorId, serviceId)) {
+            if (!directorAuthorization.isDirectorOf(directorId, serviceId)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
@@ -48,7 +50,7 @@ public class DirectorController {
             @RequestBody List<CreateSongListRequest> songs) {
         try {
 
-            if (!serviceService.isUserDirectorOfService(directorId, serviceId)) {
+            if (!directorAuthorization.isDirectorOf(directorId, serviceId)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
@@ -66,7 +68,7 @@ public class DirectorController {
             @RequestBody String clothesColor) {
         try {
 
-            if (!serviceService.isUserDirectorOfService(directorId, serviceId)) {
+            if (!directorAuthorization.isDirectorOf(directorId, serviceId)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
@@ -0,0 +1,165 @@
+package com.backend.infraestructure.adapters.in.controllers;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.backend.application.IServiceService;
+import com.backend.application.IUserCascadeService;
+import com.backend.application.dto.UserCascadeProgress;
+import com.backend.domain.model.AssignmentIndexRebuildResult;
+import com.backend.domain.model.ServiceArchiveResult;
+import com.backend.domain.model.ServiceMigrationResult;
+import com.backend.infraestructure.adapters.in.controllers.dto.SystemOperationResponse;
+import com.backend.infraestructure.adapters.out.CachedUserUseCases;
+import com.backend.infraestructure.config.MongoRoundTripTracker;
+import com.backend.infraestructure.services.NotificationConsumerMetrics;
+import com.backend.infraestructure.services.SmtpTransportPool;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Operaciones de mantenimiento que reescriben colecciones completas y métricas internas
+ * de la aplicación: solo para ADMIN (/api/admin/**)
+ */
+@RestController
+@RequestMapping("/api/admin/maintenance")
+@RequiredArgsConstructor
+public class MaintenanceAdminController {
+
+    private final IServiceService serviceService;
+    private final MongoRoundTripTracker mongoRoundTripTracker;
+    private final IUserCascadeService userCascadeService;
+    private final CachedUserUseCases cachedUserUseCases;
+    private final NotificationConsumerMetrics notificationConsumerMetrics;
+    private final SmtpTransportPool smtpTransportPool;
+
+    // Archivado y borrado de servicios expirados
+    
+    @DeleteMapping("/services/expired")
+    public ResponseEntity<SystemOperationResponse> deleteExpiredServices() {
+        try {
+            ServiceArchiveResult result = serviceService.deleteExpiredServices();
+            
+            SystemOperationResponse response = new SystemOperationResponse();
+            response.setOperation("deleteExpiredServices");
+            response.setStatus("SUCCESS");
+            response.setMessage("Servicios expirados archivados y eliminados correctamente");
+            response.setCounts(Map.of(
+                "archived", result.getArchived(),
+                "deleted", result.getDeleted(),
+                "batches", (long) result.getBatches()));
+            response.setElapsedMillis(result.getElapsedMillis());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            SystemOperationResponse response = new SystemOperationResponse();
+            response.setOperation("deleteExpiredServices");
+            response.setStatus("ERROR");
+            response.setMessage("Error al eliminar servicios expirados: " + e.getMessage());
+            
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
+    // Migración de servicios a referencias de usuario (id + nombre)
+    
+    @PostMapping("/migrations/service-user-refs")
+    public ResponseEntity<SystemOperationResponse> migrateServiceUserReferences() {
+        try {
+            ServiceMigrationResult result = serviceService.migrateServiceUserReferences();
+            
+            SystemOperationResponse response = new SystemOperationResponse();
+            response.setOperation("migrateServiceUserReferences");
+            response.setStatus("SUCCESS");
+            response.setMessage("Servicios migrados a referencias de usuario correctamente");
+            response.setCounts(Map.of(
+                "scanned", result.getScanned(),
+                "migrated", result.getMigrated(),
+                "batches", (long) result.getBatches()));
+            response.setElapsedMillis(result.getElapsedMillis());
+            
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            SystemOperationResponse response = new SystemOperationResponse();
+            response.setOperation("migrateServiceUserReferences");
+            response.setStatus("ERROR");
+            response.setMessage(e.getMessage());
+            
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            SystemOperationResponse response = new SystemOperationResponse();
+            response.setOperation("migrateServiceUserReferences");
+            response.setStatus("ERROR");
+            response.setMessage("Error al migrar servicios: " + e.getMessage());
+            
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
+    // Reconstrucción del índice user_assignments desde services
+    
+    @PostMapping("/assignments/rebuild")
+    public ResponseEntity<SystemOperationResponse> rebuildAssignmentIndex() {
+        try {
+            AssignmentIndexRebuildResult result = serviceService.rebuildAssignmentIndex();
+            
+            SystemOperationResponse response = new SystemOperationResponse();
+            response.setOperation("rebuildAssignmentIndex");
+            response.setStatus("SUCCESS");
+            response.setMessage("Índice de asignaciones reconstruido correctamente");
+            response.setCounts(Map.of(
+                "services", result.getServices(),
+                "assignments", result.getAssignments(),
+                "removed", result.getRemoved(),
+                "batches", (long) result.getBatches()));
+            response.setElapsedMillis(result.getElapsedMillis());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            SystemOperationResponse response = new SystemOperationResponse();
+            response.setOperation("rebuildAssignmentIndex");
+            response.setStatus("ERROR");
+            response.setMessage("Error al reconstruir el índice de asignaciones: " + e.getMessage());
+            
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
+    // Métricas de round trips a MongoDB por operación
+    
+    @GetMapping("/metrics/mongo")
+    public ResponseEntity<Map<String, MongoRoundTripTracker.OperationStats>> getMongoRoundTrips() {
+        return ResponseEntity.ok(mongoRoundTripTracker.getStats());
+    }
+    
+    // Progreso de las cascadas de perfil de usuario hacia los servicios
+    
+    @GetMapping("/cascades")
+    public ResponseEntity<List<UserCascadeProgress>> getUserCascades() {
+        return ResponseEntity.ok(userCascadeService.getCascades());
+    }
+    
+    // Aciertos, fallos y expulsiones de la caché de usuarios
+    
+    @GetMapping("/metrics/user-cache")
+    public ResponseEntity<CachedUserUseCases.CacheStats> getUserCacheStats() {
+        return ResponseEntity.ok(cachedUserUseCases.getStats());
+    }
+    
+    // Mensajes en curso, procesados y throughput del consumidor de notificaciones
+    
+    @GetMapping("/metrics/notification-consumer")
+    public ResponseEntity<NotificationConsumerMetrics.ConsumerStats> getNotificationConsumerStats() {
+        return ResponseEntity.ok(notificationConsumerMetrics.getStats());
+    }
+    
+    // Conexiones SMTP abiertas, reutilizadas y emails enviados por el pool
+    
+    @GetMapping("/metrics/smtp-pool")
+    public ResponseEntity<SmtpTransportPool.PoolStats> getSmtpPoolStats() {
+        return ResponseEntity.ok(smtpTransportPool.getStats());
+    }
+}
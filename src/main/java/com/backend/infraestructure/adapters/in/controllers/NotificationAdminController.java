@@ -0,0 +1,66 @@
+package com.backend.infraestructure.adapters.in.controllers;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.backend.infraestructure.adapters.in.controllers.dto.SystemOperationResponse;
+import com.backend.infraestructure.services.DeadLetterService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/admin/notifications")
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationAdminController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final DeadLetterService deadLetterService;
+
+    // Notificaciones que agotaron los reintentos, sin retirarlas de la DLQ
+    @GetMapping("/dead-letters")
+    public ResponseEntity<List<DeadLetterService.DeadLetter>> getDeadLetters(
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(deadLetterService.inspect(Math.min(limit, MAX_LIMIT)));
+    }
+
+    // Devuelve notificaciones de la DLQ a la cola principal con los intentos a cero
+    @PostMapping("/dead-letters/replay")
+    public ResponseEntity<SystemOperationResponse> replayDeadLetters(
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            int replayed = deadLetterService.replay(Math.min(limit, MAX_LIMIT));
+
+            SystemOperationResponse response = new SystemOperationResponse();
+            response.setOperation("replayDeadLetters");
+            response.setStatus("SUCCESS");
+            response.setMessage("Notificaciones reenviadas a la cola principal");
+            response.setCounts(Map.of("replayed", (long) replayed));
+            response.setElapsedMillis(System.currentTimeMillis() - start);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("❌ Error reenviando notificaciones de la DLQ: {}", e.getMessage());
+
+            SystemOperationResponse response = new SystemOperationResponse();
+            response.setOperation("replayDeadLetters");
+            response.setStatus("ERROR");
+            response.setMessage("Error al reenviar notificaciones: " + e.getMessage());
+
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+}
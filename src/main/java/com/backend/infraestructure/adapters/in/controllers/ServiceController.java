@@ -3,10 +3,12 @@ package com.backend.infraestructure.adapters.in.controllers;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.backend.application.IServiceService;
+import com.backend.domain.model.CursorPage;
 import com.backend.domain.model.ServiceModel;
 
 import lombok.RequiredArgsConstructor;
@@ -16,6 +18,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ServiceController {
     
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     private final IServiceService serviceService;
     
     // Endpoint simplificado para crear servicio con asignaciones
@@ -36,10 +40,24 @@ public class ServiceController {
         }
     }
     
+    // Paginación por cursor: el cursor de la siguiente página va en la cabecera X-Next-Cursor
     @GetMapping
-    public ResponseEntity<List<ServiceModel>> getAllServices() {
-        List<ServiceModel> services = serviceService.getAllServices();
-        return ResponseEntity.ok(services);
+    public ResponseEntity<List<ServiceModel>> getAllServices(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<ServiceModel> page = serviceService.getServicesPage(from, to, location, cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     
@@ -3,9 +3,7 @@ package com.backend.infraestructure.adapters.in.controllers;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import com.backend.application.IServiceService;
 import com.backend.infraestructure.adapters.in.controllers.dto.SystemHealthResponse;
-import com.backend.infraestructure.adapters.in.controllers.dto.SystemOperationResponse;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,31 +15,6 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class SystemController {
     
-    private final IServiceService serviceService;
-    
-    // Operaciones de mantenimiento del sistema
-    
-    @DeleteMapping("/services/expired")
-    public ResponseEntity<SystemOperationResponse> deleteExpiredServices() {
-        try {
-            serviceService.deleteExpiredServices();
-            
-            SystemOperationResponse response = new SystemOperationResponse();
-            response.setOperation("deleteExpiredServices");
-            response.setStatus("SUCCESS");
-            response.setMessage("Servicios expirados eliminados correctamente");
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            SystemOperationResponse response = new SystemOperationResponse();
-            response.setOperation("deleteExpiredServices");
-            response.setStatus("ERROR");
-            response.setMessage("Error al eliminar servicios expirados: " + e.getMessage());
-            
-            return ResponseEntity.internalServerError().body(response);
-        }
-    }
-    
     // Health check del sistema
     
     @GetMapping("/health")
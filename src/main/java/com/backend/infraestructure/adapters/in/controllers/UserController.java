@@ -8,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.backend.application.IUserService;
+import com.backend.domain.model.CursorPage;
 import com.backend.domain.model.ServiceModel;
 import com.backend.domain.model.UserModel;
 
@@ -81,10 +82,22 @@ public class UserController {
         }
     }
     
+    // Paginación por cursor: el cursor de la siguiente página va en la cabecera X-Next-Cursor
     @GetMapping
-    public ResponseEntity<List<UserModel>> getAllUsers() {
-        List<UserModel> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserModel>> getAllUsers(
+            @RequestParam(required = false) UserModel.Role role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<UserModel> page = userService.getUsersPage(role, cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(ServiceController.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
    // @GetMapping("/phone/{phoneNumber}")
@@ -142,14 +155,14 @@ public class UserController {
     
     
     
-    //@GetMapping("/{userId}/services/upcoming")
-    //public ResponseEntity<List<ServiceModel>> getUpcomingServicesForUser(@PathVariable String userId) {
-    //    try {
-    //        List<ServiceModel> services = userService.getUpcomingServicesForUser(userId);
-    //        return ResponseEntity.ok(services);
-    //    } catch (IllegalArgumentException e) {
-    //        return ResponseEntity.badRequest().build();
-    //    }
-    //} 
+    @GetMapping("/{userId}/services/upcoming")
+    public ResponseEntity<List<ServiceModel>> getUpcomingServicesForUser(@PathVariable String userId) {
+        try {
+            List<ServiceModel> services = userService.getUpcomingServicesForUser(userId);
+            return ResponseEntity.ok(services);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
    
 } 
\ No newline at end of file
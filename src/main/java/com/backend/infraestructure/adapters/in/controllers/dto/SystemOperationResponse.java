@@ -1,5 +1,7 @@
 package com.backend.infraestructure.adapters.in.controllers.dto;
 
+import java.util.Map;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,4 +13,6 @@ public  class SystemOperationResponse {
     private String operation;
     private String status;
     private String message;
+    private Map<String, Long> counts;
+    private Long elapsedMillis;
 }
\ No newline at end of file
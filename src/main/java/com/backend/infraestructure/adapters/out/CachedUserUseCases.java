@@ -0,0 +1,309 @@
+package com.backend.infraestructure.adapters.out;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import com.backend.domain.model.CursorPage;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.model.UserUpsertResult;
+import com.backend.domain.port.UserUseCases;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Caché en memoria delante de UserUseCasesImpl: LRU acotada por tamaño y con TTL,
+ * con claves secundarias por email y teléfono. Las escrituras de este proceso invalidan o
+ * reescriben la entrada; los cambios hechos desde otra instancia se ven como mucho tras el TTL.
+ * Siempre se devuelven copias para que los llamadores no modifiquen el estado cacheado.
+ */
+@Repository
+@Primary
+public class CachedUserUseCases implements UserUseCases {
+
+    private final UserUseCasesImpl delegate;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    // Orden de acceso: el primero es el menos usado recientemente
+    private final LinkedHashMap<String, CacheEntry> byId = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> idByEmail = new HashMap<>();
+    private final Map<String, String> idByPhone = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CachedUserUseCases(UserUseCasesImpl delegate,
+                              @Value("${app.users.cache.max-size:1000}") int maxSize,
+                              @Value("${app.users.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    @Override
+    public UserModel createUser(UserModel user) {
+        UserModel created = delegate.createUser(user);
+        put(created);
+        return copy(created);
+    }
+
+    @Override
+    public UserModel getUserByEmail(String email) {
+        String id;
+        synchronized (this) {
+            id = idByEmail.get(email);
+        }
+        UserModel cached = id != null ? lookup(id) : null;
+        if (cached != null && email.equals(cached.getEmail())) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        UserModel user = delegate.getUserByEmail(email);
+        put(user);
+        return copy(user);
+    }
+
+    @Override
+    public UserUpsertResult upsertByEmail(UserModel newUser) {
+        UserUpsertResult result = delegate.upsertByEmail(newUser);
+        put(result.getUser());
+        return new UserUpsertResult(copy(result.getUser()), result.isCreated());
+    }
+
+    @Override
+    public UserModel getUserById(String id) {
+        UserModel cached = lookup(id);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        UserModel user = delegate.getUserById(id);
+        put(user);
+        return copy(user);
+    }
+
+    /**
+     * Sirve los aciertos desde memoria y pide todos los fallos en una sola consulta
+     */
+    @Override
+    public List<UserModel> getUsersByIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<UserModel> users = new ArrayList<>();
+        Set<String> missingIds = new LinkedHashSet<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            UserModel cached = lookup(id);
+            if (cached != null) {
+                users.add(cached);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        hits.addAndGet(users.size());
+        misses.addAndGet(missingIds.size());
+
+        if (!missingIds.isEmpty()) {
+            for (UserModel user : delegate.getUsersByIds(missingIds)) {
+                put(user);
+                users.add(copy(user));
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public UserModel updateUser(UserModel user) {
+        try {
+            UserModel updated = delegate.updateUser(user);
+            put(updated);
+            return copy(updated);
+        } catch (OptimisticLockingFailureException e) {
+            // La copia cacheada está obsoleta: el reintento debe releer de MongoDB
+            invalidate(user.getId());
+            throw e;
+        }
+    }
+
+    @Override
+    public List<String> ensureRole(Collection<String> userIds, UserModel.Role role) {
+        // Solo se invalidan los usuarios que MongoDB cambió
+        List<String> changedIds = delegate.ensureRole(userIds, role);
+        changedIds.forEach(this::invalidate);
+        return changedIds;
+    }
+
+    // Sin caché aquí: UserTokenVersionRegistry guarda su propia copia con un TTL corto
+    @Override
+    public Long getTokenVersion(String userId) {
+        return delegate.getTokenVersion(userId);
+    }
+
+    @Override
+    public void deleteUser(String id) {
+        try {
+            delegate.deleteUser(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public List<UserModel> getAllUsers() {
+        return delegate.getAllUsers();
+    }
+
+    @Override
+    public CursorPage<UserModel> getUsersPage(UserModel.Role role, String cursor, int limit) {
+        return delegate.getUsersPage(role, cursor, limit);
+    }
+
+    @Override
+    public UserModel getUserByPhoneNumber(String phoneNumber) {
+        String id;
+        synchronized (this) {
+            id = idByPhone.get(phoneNumber);
+        }
+        UserModel cached = id != null ? lookup(id) : null;
+        if (cached != null && phoneNumber.equals(cached.getPhoneNumber())) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        UserModel user = delegate.getUserByPhoneNumber(phoneNumber);
+        put(user);
+        return copy(user);
+    }
+
+    public synchronized CacheStats getStats() {
+        long total = hits.get() + misses.get();
+        return new CacheStats(byId.size(), maxSize, hits.get(), misses.get(), evictions.get(),
+            total == 0 ? 0.0 : (double) hits.get() / total);
+    }
+
+    /**
+     * Copia de la entrada vigente, o null si no existe o expiró (la expirada se elimina)
+     */
+    private synchronized UserModel lookup(String id) {
+        CacheEntry entry = byId.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.getExpiresAt() < System.currentTimeMillis()) {
+            remove(id);
+            evictions.incrementAndGet();
+            return null;
+        }
+        return copy(entry.getUser());
+    }
+
+    /**
+     * Guarda la copia salvo que la cacheada sea igual o más reciente: una lectura lenta que termina
+     * después de una escritura no debe pisar la versión nueva
+     */
+    private synchronized void put(UserModel user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        CacheEntry existing = byId.get(user.getId());
+        if (existing != null && isSameOrNewer(existing.getUser(), user)) {
+            return;
+        }
+        remove(user.getId());
+
+        UserModel cached = copy(user);
+        byId.put(cached.getId(), new CacheEntry(cached, System.currentTimeMillis() + ttlMillis));
+        if (cached.getEmail() != null) {
+            idByEmail.put(cached.getEmail(), cached.getId());
+        }
+        if (cached.getPhoneNumber() != null) {
+            idByPhone.put(cached.getPhoneNumber(), cached.getId());
+        }
+
+        Iterator<CacheEntry> eldest = byId.values().iterator();
+        while (byId.size() > maxSize && eldest.hasNext()) {
+            CacheEntry evicted = eldest.next();
+            eldest.remove();
+            removeSecondaryKeys(evicted.getUser());
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static boolean isSameOrNewer(UserModel cached, UserModel user) {
+        return cached.getVersion() != null && user.getVersion() != null
+            && cached.getVersion() >= user.getVersion();
+    }
+
+    private synchronized void invalidate(String id) {
+        if (id != null) {
+            remove(id);
+        }
+    }
+
+    private void remove(String id) {
+        CacheEntry entry = byId.remove(id);
+        if (entry != null) {
+            removeSecondaryKeys(entry.getUser());
+        }
+    }
+
+    // Solo se quitan si siguen apuntando a este usuario (el email pudo pasar a otro)
+    private void removeSecondaryKeys(UserModel user) {
+        if (user.getEmail() != null) {
+            idByEmail.remove(user.getEmail(), user.getId());
+        }
+        if (user.getPhoneNumber() != null) {
+            idByPhone.remove(user.getPhoneNumber(), user.getId());
+        }
+    }
+
+    private static UserModel copy(UserModel user) {
+        if (user == null) {
+            return null;
+        }
+        return new UserModel(user.getId(), user.getName(), user.getEmail(), user.getPhoneNumber(),
+            user.getRoles() != null ? new ArrayList<>(user.getRoles()) : null,
+            user.getCreatedAt(), user.getVersion(), user.getTokenVersion());
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class CacheEntry {
+        private UserModel user;
+        private long expiresAt;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class CacheStats {
+        private int size;
+        private int maxSize;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private double hitRate;
+    }
+}
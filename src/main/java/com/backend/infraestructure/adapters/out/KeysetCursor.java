@@ -0,0 +1,66 @@
+package com.backend.infraestructure.adapters.out;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Cursor opaco para paginación keyset: el valor de la clave de orden y el _id del último elemento.
+ * El valor puede ser null (por ejemplo usuarios sin nombre), que MongoDB ordena primero.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetCursor {
+    
+    private static final String NULL_VALUE = "n";
+    private static final String PRESENT_VALUE = "v";
+    
+    private String value;
+    private String id;
+    
+    public String encode() {
+        String sortValue = value == null ? NULL_VALUE : PRESENT_VALUE + value;
+        String raw = sortValue + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Criterio "después de este cursor" para un orden ascendente por (field, _id)
+     */
+    public Criteria after(String field, Object typedValue) {
+        if (typedValue == null) {
+            return new Criteria().orOperator(
+                    new Criteria().andOperator(Criteria.where(field).is(null), Criteria.where("_id").gt(id)),
+                    Criteria.where(field).ne(null));
+        }
+        return new Criteria().orOperator(
+                Criteria.where(field).gt(typedValue),
+                new Criteria().andOperator(Criteria.where(field).is(typedValue), Criteria.where("_id").gt(id)));
+    }
+    
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            String sortValue = raw.substring(0, separator);
+            String id = raw.substring(separator + 1);
+            
+            if (id.isEmpty() || sortValue.isEmpty()) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            if (sortValue.equals(NULL_VALUE)) {
+                return new KeysetCursor(null, id);
+            }
+            if (!sortValue.startsWith(PRESENT_VALUE)) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new KeysetCursor(sortValue.substring(1), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+}
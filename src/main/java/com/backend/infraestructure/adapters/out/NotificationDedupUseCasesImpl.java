@@ -0,0 +1,74 @@
+package com.backend.infraestructure.adapters.out;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.backend.domain.model.NotificationClaim;
+import com.backend.domain.port.NotificationDedupUseCases;
+import com.backend.infraestructure.adapters.out.entities.NotificationDedupEntity;
+import com.backend.infraestructure.adapters.out.entities.NotificationDedupEntity.DedupStatus;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class NotificationDedupUseCasesImpl implements NotificationDedupUseCases {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Reserva la clave con un único upsert condicionado a que no exista un documento vigente.
+     * Si existe, el upsert intenta insertar el mismo _id y falla con DuplicateKeyException.
+     * Los documentos caducados que el monitor TTL aún no borró se reutilizan. La reserva guarda
+     * el token del consumidor para que solo él pueda liberarla.
+     */
+    @Override
+    public NotificationClaim claim(String notificationKey, String owner, Duration lease) {
+        Instant now = Instant.now();
+        Query query = new Query(Criteria.where("id").is(notificationKey).and("expiresAt").lt(now));
+        Update update = new Update()
+                .set("status", DedupStatus.SENDING)
+                .set("owner", owner)
+                .set("expiresAt", now.plus(lease));
+
+        try {
+            mongoTemplate.upsert(query, update, NotificationDedupEntity.class);
+            return NotificationClaim.CLAIMED;
+        } catch (DuplicateKeyException e) {
+            NotificationDedupEntity existing = mongoTemplate.findById(notificationKey, NotificationDedupEntity.class);
+            if (existing == null) {
+                // Se liberó entre el upsert y la lectura
+                return claim(notificationKey, owner, lease);
+            }
+            return existing.getStatus() == DedupStatus.SENT ? NotificationClaim.ALREADY_SENT : NotificationClaim.IN_PROGRESS;
+        }
+    }
+
+    @Override
+    public void markSent(String notificationKey, Duration ttl) {
+        mongoTemplate.upsert(new Query(Criteria.where("id").is(notificationKey)),
+                new Update()
+                        .set("status", DedupStatus.SENT)
+                        .unset("owner")
+                        .set("expiresAt", Instant.now().plus(ttl)),
+                NotificationDedupEntity.class);
+    }
+
+    /**
+     * Solo borra la reserva si sigue en SENDING y es de este consumidor: si la suya caducó y otro
+     * la tomó, o si ya se marcó como enviada, no se toca
+     */
+    @Override
+    public void release(String notificationKey, String owner) {
+        mongoTemplate.remove(new Query(Criteria.where("id").is(notificationKey)
+                .and("status").is(DedupStatus.SENDING)
+                .and("owner").is(owner)), NotificationDedupEntity.class);
+    }
+}
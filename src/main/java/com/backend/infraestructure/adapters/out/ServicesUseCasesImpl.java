@@ -1,30 +1,74 @@
 package com.backend.infraestructure.adapters.out;
 
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
+import com.backend.domain.model.CursorPage;
+import com.backend.domain.model.ServiceArchiveResult;
+import com.backend.domain.model.ServiceMigrationResult;
 import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.SongsModel;
+import com.backend.domain.model.UserModel;
 import com.backend.domain.port.ServicesUseCases;
 import com.backend.infraestructure.adapters.out.entities.ServiceEntity;
+import com.backend.infraestructure.adapters.out.entities.SongsEntity;
+import com.backend.infraestructure.adapters.out.entities.UserEntity;
 import com.backend.infraestructure.adapters.out.repositories.ServiceRepository;
 
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+
 import lombok.RequiredArgsConstructor;
 
 @Repository
 @RequiredArgsConstructor
 public class ServicesUseCasesImpl implements ServicesUseCases {
     
+    public static final String ARCHIVE_COLLECTION = "services_archive";
+    
     private final ServiceRepository serviceRepository;
+    private final MongoTemplate mongoTemplate;
+    
+    // embedded: copias completas de usuarios; reference: solo id + nombre, hidratados al leer
+    @Value("${app.services.user-storage:embedded}")
+    private String userStorage;
     
     
     @Override
     public ServiceModel createService(ServiceModel service) {
-        ServiceEntity serviceEntity = ServiceEntity.fromDomain(service);
+        ServiceEntity serviceEntity = toEntity(service);
+        serviceEntity.setVersion(0L);
         ServiceEntity savedEntity = serviceRepository.save(serviceEntity);
         return savedEntity.toDomain();
     }
@@ -35,22 +79,96 @@ public class ServicesUseCasesImpl implements ServicesUseCases {
         return serviceEntity.map(ServiceEntity::toDomain).orElse(null);
     }
     
+    @Override
+    public List<ServiceModel> getServicesByIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        Query query = new Query(Criteria.where("id").in(ids)).with(Sort.by("serviceDate"));
+        return mongoTemplate.find(query, ServiceEntity.class).stream()
+                .map(ServiceEntity::toDomain)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     public ServiceModel updateService(ServiceModel service) {
         if (service.getId() == null) {
             throw new IllegalArgumentException("ID de servicio es requerido para actualizar");
         }
         
-        // Verificar que el servicio existe
-        if (!serviceRepository.existsById(service.getId())) {
-            throw new IllegalArgumentException("Servicio no encontrado con ID: " + service.getId());
-        }
+        // Reemplazo condicionado a _id y versión leída: un solo round trip en el caso normal
+        ServiceEntity serviceEntity = toEntity(service);
+        serviceEntity.setVersion(nextVersion(service.getVersion()));
+        ServiceEntity savedEntity = mongoTemplate.findAndReplace(
+                new Query(Criteria.where("_id").is(service.getId()).and("version").is(service.getVersion())),
+                serviceEntity,
+                FindAndReplaceOptions.options().returnNew());
         
-        ServiceEntity serviceEntity = ServiceEntity.fromDomain(service);
-        ServiceEntity savedEntity = serviceRepository.save(serviceEntity);
+        if (savedEntity == null) {
+            // Solo en el camino de fallo se distingue "no existe" de "versión obsoleta"
+            if (!serviceRepository.existsById(service.getId())) {
+                throw new IllegalArgumentException("Servicio no encontrado con ID: " + service.getId());
+            }
+            throw new OptimisticLockingFailureException(
+                "El servicio " + service.getId() + " fue modificado por otra operación (versión " + service.getVersion() + ")");
+        }
         return savedEntity.toDomain();
     }
     
+    @Override
+    public ServiceModel setClothesColor(String serviceId, String clothesColor) {
+        return applyPartialUpdate(serviceId, new Update().set("clothesColor", clothesColor));
+    }
+    
+    @Override
+    public ServiceModel replaceSongs(String serviceId, List<SongsModel> songs) {
+        List<SongsEntity> songEntities = songs.stream()
+                .map(SongsEntity::fromDomain)
+                .collect(Collectors.toList());
+        return applyPartialUpdate(serviceId, new Update().set("songsList", songEntities));
+    }
+    
+    /**
+     * Aplica un $set sobre campos concretos sin reescribir el documento (ni los usuarios embebidos).
+     * Incrementa la versión para que un reemplazo completo concurrente detecte el cambio.
+     * Devuelve el servicio actualizado, o null si no existe.
+     */
+    private ServiceModel applyPartialUpdate(String serviceId, Update update) {
+        ServiceEntity updatedEntity = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(serviceId)),
+                update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                ServiceEntity.class);
+        return updatedEntity != null ? updatedEntity.toDomain() : null;
+    }
+    
+    private ServiceEntity toEntity(ServiceModel service) {
+        ServiceEntity entity = ServiceEntity.fromDomain(service);
+        if (isReferenceStorage()) {
+            entity.useUserReferences();
+        }
+        return entity;
+    }
+    
+    /**
+     * true: los servicios guardan solo id + nombre de cada participante y hay que hidratarlos al leer
+     */
+    @Override
+    public boolean storesUserReferences() {
+        return isReferenceStorage();
+    }
+    
+    private boolean isReferenceStorage() {
+        return "reference".equalsIgnoreCase(userStorage);
+    }
+    
+    /**
+     * Los documentos anteriores a la versión no tienen el campo: se tratan como versión 0
+     */
+    private static long nextVersion(Long version) {
+        return version == null ? 1L : version + 1;
+    }
+    
     @Override
     public void deleteService(String id) {
         if (!serviceRepository.existsById(id)) {
@@ -59,6 +177,124 @@ public class ServicesUseCasesImpl implements ServicesUseCases {
         serviceRepository.deleteById(id);
     }
     
+    /**
+     * Mueve por lotes los servicios anteriores a la fecha de corte a services_archive.
+     * Cada lote se copia con upserts (idempotente si se reintenta) y se borra con un único deleteMany,
+     * así que en memoria nunca hay más de batchSize documentos.
+     */
+    @Override
+    public ServiceArchiveResult archiveServicesBefore(LocalDate cutoff, int batchSize) {
+        MongoCollection<Document> services = mongoTemplate.getCollection(mongoTemplate.getCollectionName(ServiceEntity.class));
+        MongoCollection<Document> archive = mongoTemplate.getCollection(ARCHIVE_COLLECTION);
+        Object cutoffValue = mongoTemplate.getConverter().convertToMongoType(cutoff);
+        
+        ServiceArchiveResult result = new ServiceArchiveResult();
+        while (true) {
+            List<Document> batch = services.find(Filters.lt("serviceDate", cutoffValue))
+                    .sort(Sorts.ascending("serviceDate"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>());
+            if (batch.isEmpty()) {
+                break;
+            }
+            
+            Date archivedAt = new Date();
+            List<Object> ids = new ArrayList<>();
+            List<ReplaceOneModel<Document>> archiveWrites = new ArrayList<>();
+            for (Document service : batch) {
+                ids.add(service.get("_id"));
+                archiveWrites.add(new ReplaceOneModel<>(
+                        Filters.eq("_id", service.get("_id")),
+                        service.append("archivedAt", archivedAt),
+                        new ReplaceOptions().upsert(true)));
+            }
+            
+            archive.bulkWrite(archiveWrites, new BulkWriteOptions().ordered(false));
+            long deleted = services.deleteMany(Filters.in("_id", ids)).getDeletedCount();
+            
+            result.setArchived(result.getArchived() + batch.size());
+            result.setDeleted(result.getDeleted() + deleted);
+            result.setBatches(result.getBatches() + 1);
+            
+            // Si otro proceso ya los borró, no insistir sobre el mismo lote
+            if (deleted == 0) {
+                break;
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Reescribe por lotes los servicios que aún embeben usuarios completos, dejando solo _id + name.
+     * Recorre por _id con un cursor keyset y aplica cada lote con un bulkWrite de $set,
+     * así que se puede interrumpir y relanzar sin repetir trabajo.
+     */
+    @Override
+    public ServiceMigrationResult migrateToUserReferences(int batchSize) {
+        if (!isReferenceStorage()) {
+            throw new IllegalArgumentException("La migración requiere app.services.user-storage=reference");
+        }
+        
+        MongoCollection<Document> services = mongoTemplate.getCollection(mongoTemplate.getCollectionName(ServiceEntity.class));
+        Bson pending = Filters.or(
+                Filters.exists("directors.email"),
+                Filters.exists("musiciansList.musician.email"));
+        
+        ServiceMigrationResult result = new ServiceMigrationResult();
+        Object lastId = null;
+        while (true) {
+            Bson filter = lastId == null ? pending : Filters.and(pending, Filters.gt("_id", lastId));
+            List<Document> batch = services.find(filter)
+                    .projection(Projections.include("directors", "musiciansList"))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>());
+            if (batch.isEmpty()) {
+                break;
+            }
+            
+            List<UpdateOneModel<Document>> writes = new ArrayList<>();
+            for (Document service : batch) {
+                List<Bson> updates = new ArrayList<>();
+                List<Document> directors = service.getList("directors", Document.class);
+                if (directors != null) {
+                    updates.add(Updates.set("directors", toUserReferences(directors)));
+                }
+                List<Document> musiciansList = service.getList("musiciansList", Document.class);
+                if (musiciansList != null) {
+                    List<Document> slimMusiciansList = new ArrayList<>();
+                    for (Document assignment : musiciansList) {
+                        List<Document> musicians = assignment.getList("musician", Document.class);
+                        slimMusiciansList.add(new Document(assignment)
+                                .append("musician", musicians != null ? toUserReferences(musicians) : null));
+                    }
+                    updates.add(Updates.set("musiciansList", slimMusiciansList));
+                }
+                // Invalida las lecturas en curso: su escritura condicionada fallará y se reintentará
+                updates.add(Updates.inc("version", 1));
+                writes.add(new UpdateOneModel<>(Filters.eq("_id", service.get("_id")), Updates.combine(updates)));
+            }
+            
+            long modified = services.bulkWrite(writes, new BulkWriteOptions().ordered(false)).getModifiedCount();
+            
+            result.setScanned(result.getScanned() + batch.size());
+            result.setMigrated(result.getMigrated() + modified);
+            result.setBatches(result.getBatches() + 1);
+            lastId = batch.get(batch.size() - 1).get("_id");
+        }
+        
+        return result;
+    }
+    
+    private List<Document> toUserReferences(List<Document> users) {
+        List<Document> references = new ArrayList<>();
+        for (Document user : users) {
+            references.add(new Document("_id", user.get("_id")).append("name", user.get("name")));
+        }
+        return references;
+    }
+    
     @Override
     public List<ServiceModel> getAllServices() {
         List<ServiceEntity> serviceEntities = serviceRepository.findAllByOrderByServiceDateAsc();
@@ -67,6 +303,59 @@ public class ServicesUseCasesImpl implements ServicesUseCases {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Paginación keyset por (serviceDate, _id): limit y orden se resuelven en MongoDB
+     */
+    @Override
+    public CursorPage<ServiceModel> getServicesPage(LocalDate from, LocalDate to, String location, String cursor, int limit) {
+        List<Criteria> filters = new ArrayList<>();
+        if (from != null || to != null) {
+            Criteria dateRange = Criteria.where("serviceDate");
+            if (from != null) {
+                dateRange = dateRange.gte(from);
+            }
+            if (to != null) {
+                dateRange = dateRange.lte(to);
+            }
+            filters.add(dateRange);
+        }
+        if (location != null && !location.trim().isEmpty()) {
+            filters.add(Criteria.where("location").is(location));
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            LocalDate serviceDate = position.getValue() != null ? LocalDate.parse(position.getValue()) : null;
+            filters.add(position.after("serviceDate", serviceDate));
+        }
+        
+        Query query = new Query(filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters))
+                .with(Sort.by(Sort.Direction.ASC, "serviceDate", "id"))
+                .limit(limit + 1);
+        List<ServiceEntity> serviceEntities = mongoTemplate.find(query, ServiceEntity.class);
+        
+        boolean hasMore = serviceEntities.size() > limit;
+        List<ServiceEntity> pageEntities = hasMore ? serviceEntities.subList(0, limit) : serviceEntities;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            ServiceEntity last = pageEntities.get(pageEntities.size() - 1);
+            String lastDate = last.getServiceDate() != null ? last.getServiceDate().toString() : null;
+            nextCursor = new KeysetCursor(lastDate, last.getId()).encode();
+        }
+        
+        return new CursorPage<>(pageEntities.stream()
+                .map(ServiceEntity::toDomain)
+                .collect(Collectors.toList()), nextCursor);
+    }
+    
+    @Override
+    public List<ServiceModel> getServicesByDateRange(LocalDate startDate, LocalDate endDate) {
+        List<ServiceEntity> serviceEntities = serviceRepository.findByServiceDateBetween(startDate, endDate);
+        return serviceEntities.stream()
+                .map(ServiceEntity::toDomain)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     public List<ServiceModel> getServicesByDirector(String directorId) {
         List<ServiceEntity> serviceEntities = serviceRepository.findByDirectorId(directorId);
@@ -82,4 +371,95 @@ public class ServicesUseCasesImpl implements ServicesUseCases {
                 .map(ServiceEntity::toDomain)
                 .collect(Collectors.toList());
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Solo los ids de los directores (proyección sobre directors._id); null si el servicio no existe
+     */
+    @Override
+    public Set<String> getDirectorIds(String serviceId) {
+        Query query = new Query(Criteria.where("id").is(serviceId));
+        query.fields().include("directors.id");
+        ServiceEntity service = mongoTemplate.findOne(query, ServiceEntity.class);
+        if (service == null) {
+            return null;
+        }
+        if (service.getDirectors() == null) {
+            return Set.of();
+        }
+        return service.getDirectors().stream()
+                .map(UserEntity::getId)
+                .collect(Collectors.toSet());
+    }
+    
+    /**
+     * Solo los _id de los servicios donde participa el usuario (proyección sobre los índices de participantes)
+     */
+    @Override
+    public List<String> getServiceIdsByParticipant(String userId) {
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("directors.id").is(userId),
+                Criteria.where("musiciansList.musician.id").is(userId)));
+        query.fields().include("id");
+        return mongoTemplate.find(query, ServiceEntity.class).stream()
+                .map(ServiceEntity::getId)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Copia nombre (y email/teléfono si los usuarios van embebidos completos) a las copias del usuario
+     * dentro de los servicios indicados. Los arrayFilters limitan el $set a los elementos de ese usuario.
+     * Devuelve el número de documentos modificados (un servicio cuenta dos veces si es director y músico).
+     */
+    @Override
+    public long propagateUserProfile(UserModel user, List<String> serviceIds) {
+        if (serviceIds.isEmpty()) {
+            return 0;
+        }
+        
+        MongoCollection<Document> services = mongoTemplate.getCollection(mongoTemplate.getCollectionName(ServiceEntity.class));
+        Object userId = toObjectId(user.getId());
+        List<Object> ids = serviceIds.stream().map(this::toObjectId).collect(Collectors.toList());
+        
+        long modified = services.updateMany(
+                Filters.and(Filters.in("_id", ids), Filters.eq("directors._id", userId)),
+                profileUpdate("directors.$[d]", user),
+                new UpdateOptions().arrayFilters(List.of(Filters.eq("d._id", userId)))).getModifiedCount();
+        
+        modified += services.updateMany(
+                Filters.and(Filters.in("_id", ids), Filters.eq("musiciansList.musician._id", userId)),
+                profileUpdate("musiciansList.$[a].musician.$[m]", user),
+                new UpdateOptions().arrayFilters(List.of(
+                        Filters.eq("a.musician._id", userId),
+                        Filters.eq("m._id", userId)))).getModifiedCount();
+        
+        return modified;
+    }
+    
+    private Bson profileUpdate(String path, UserModel user) {
+        List<Bson> updates = new ArrayList<>();
+        updates.add(Updates.set(path + ".name", user.getName()));
+        if (!isReferenceStorage()) {
+            updates.add(Updates.set(path + ".email", user.getEmail()));
+            updates.add(Updates.set(path + ".phoneNumber", user.getPhoneNumber()));
+        }
+        updates.add(Updates.inc("version", 1));
+        return Updates.combine(updates);
+    }
+    
+    /**
+     * Los ids se guardan como ObjectId: las consultas sobre el driver deben usar el mismo tipo
+     */
+    private Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+    
+    @Override
+    public List<ServiceModel> getServicesByParticipant(String userId, LocalDate from) {
+        List<ServiceEntity> serviceEntities = from != null ?
+                serviceRepository.findByParticipantIdFrom(userId, from) :
+                serviceRepository.findByParticipantId(userId);
+        return serviceEntities.stream()
+                .map(ServiceEntity::toDomain)
+                .collect(Collectors.toList());
+    }
+} 
@@ -0,0 +1,237 @@
+package com.backend.infraestructure.adapters.out;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import com.backend.domain.model.AssignmentIndexRebuildResult;
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserAssignment;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.port.UserAssignmentUseCases;
+import com.backend.infraestructure.adapters.out.entities.ServiceEntity;
+import com.backend.infraestructure.adapters.out.entities.UserAssignmentEntity;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class UserAssignmentUseCasesImpl implements UserAssignmentUseCases {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Sustituye las filas del servicio por sus asignaciones actuales, condicionado a su versión.
+     * Cada fila (y la fila de control del servicio) solo se escribe si la existente es de la misma
+     * versión o anterior, y solo se borran filas de versiones anteriores: dos actualizaciones
+     * concurrentes pueden terminar en cualquier orden y el índice queda en la más reciente.
+     */
+    @Override
+    public void replaceForService(ServiceModel service) {
+        long version = versionOf(service);
+        LocalDateTime indexedAt = LocalDateTime.now();
+        // Un mismo usuario repetido en la misma asignación genera una sola fila
+        List<UserAssignmentEntity> entities = new ArrayList<>(UserAssignment.fromService(service).stream()
+                .map(assignment -> UserAssignmentEntity.fromDomain(assignment, version, indexedAt))
+                .collect(Collectors.toMap(UserAssignmentEntity::getId, entity -> entity,
+                    (first, duplicate) -> first, LinkedHashMap::new))
+                .values());
+
+        // Ya hay indexada una versión posterior: esta escritura llegó tarde y no se aplica
+        String markerId = UserAssignmentEntity.markerIdOf(service.getId());
+        if (upsertUnlessNewer(List.of(UserAssignmentEntity.markerOf(service, version, indexedAt))) > 0) {
+            return;
+        }
+
+        upsertUnlessNewer(entities);
+
+        List<String> keptIds = new ArrayList<>(entities.stream().map(UserAssignmentEntity::getId).toList());
+        keptIds.add(markerId);
+        mongoTemplate.remove(new Query(Criteria.where("serviceId").is(service.getId())
+                .and("_id").nin(keptIds)
+                .orOperator(olderThan(version))), UserAssignmentEntity.class);
+
+        // Si una versión posterior marcó el servicio mientras se escribía, las filas de esta
+        // versión que no sobrescribió ya no son válidas
+        UserAssignmentEntity marker = mongoTemplate.findById(markerId, UserAssignmentEntity.class);
+        if (marker != null && marker.getServiceVersion() != null && marker.getServiceVersion() > version) {
+            mongoTemplate.remove(new Query(Criteria.where("serviceId").is(service.getId())
+                    .and("serviceVersion").is(version)), UserAssignmentEntity.class);
+        }
+    }
+
+    @Override
+    public long deleteBefore(LocalDate cutoff) {
+        return mongoTemplate.remove(new Query(Criteria.where("serviceDate").lt(cutoff)), UserAssignmentEntity.class)
+                .getDeletedCount();
+    }
+
+    /**
+     * Ids de servicio del usuario ordenados por fecha, usando el índice (userId, serviceDate)
+     */
+    @Override
+    public List<String> findServiceIdsForUser(String userId, LocalDate from) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (from != null) {
+            criteria = criteria.and("serviceDate").gte(from);
+        }
+        Query query = new Query(criteria).with(Sort.by("serviceDate"));
+        query.fields().include("serviceId");
+
+        return mongoTemplate.find(query, UserAssignmentEntity.class).stream()
+                .map(UserAssignmentEntity::getServiceId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Ids de los directores del servicio según el índice (serviceId_1), o null si el servicio
+     * no está indexado (sin fila de control): quien llama decide si consulta services
+     */
+    @Override
+    public Set<String> findDirectorIds(String serviceId) {
+        Query query = new Query(Criteria.where("serviceId").is(serviceId));
+        query.fields().include("userId", "role");
+
+        List<UserAssignmentEntity> rows = mongoTemplate.find(query, UserAssignmentEntity.class);
+        String markerId = UserAssignmentEntity.markerIdOf(serviceId);
+        if (rows.stream().noneMatch(row -> markerId.equals(row.getId()))) {
+            return null;
+        }
+        return rows.stream()
+                .filter(row -> row.getRole() == UserModel.Role.DIRECTOR && row.getUserId() != null)
+                .map(UserAssignmentEntity::getUserId)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Participaciones en servicios entre ambas fechas, sin filas de control, por fecha. Los extremos
+     * quedan excluidos, igual que en ServiceRepository.findByServiceDateBetween
+     */
+    @Override
+    public List<UserAssignment> findAssignmentsBetween(LocalDate startDate, LocalDate endDate) {
+        Query query = new Query(Criteria.where("serviceDate").gt(startDate).lt(endDate)
+                .and("userId").ne(null))
+                .with(Sort.by("serviceDate"));
+
+        return mongoTemplate.find(query, UserAssignmentEntity.class).stream()
+                .map(UserAssignmentEntity::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Regenera el índice recorriendo services con un cursor (solo fecha y participantes).
+     * Las filas se reescriben con upsert y al final se borran las que no se tocaron
+     * (indexedAt anterior al inicio), así que las lecturas nunca ven el índice vacío.
+     */
+    @Override
+    public AssignmentIndexRebuildResult rebuild(int batchSize) {
+        // MongoDB guarda milisegundos: se trunca para no borrar filas escritas en el mismo milisegundo
+        LocalDateTime startedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        AssignmentIndexRebuildResult result = new AssignmentIndexRebuildResult();
+
+        Query query = new Query();
+        query.fields().include("serviceDate", "directors", "musiciansList", "version");
+
+        try (Stream<ServiceEntity> services = mongoTemplate.stream(query, ServiceEntity.class)) {
+            Iterator<ServiceEntity> iterator = services.iterator();
+            List<UserAssignmentEntity> batch = new ArrayList<>();
+
+            while (iterator.hasNext()) {
+                ServiceModel service = iterator.next().toDomain();
+                long version = versionOf(service);
+                LocalDateTime indexedAt = LocalDateTime.now();
+                batch.add(UserAssignmentEntity.markerOf(service, version, indexedAt));
+                UserAssignment.fromService(service)
+                        .forEach(assignment -> batch.add(UserAssignmentEntity.fromDomain(assignment, version, indexedAt)));
+                result.setServices(result.getServices() + 1);
+
+                if (batch.size() >= batchSize) {
+                    upsertBatch(batch, result);
+                }
+            }
+            if (!batch.isEmpty()) {
+                upsertBatch(batch, result);
+            }
+        }
+
+        result.setRemoved(mongoTemplate.remove(
+                new Query(Criteria.where("indexedAt").lt(startedAt)), UserAssignmentEntity.class).getDeletedCount());
+        return result;
+    }
+
+    private void upsertBatch(List<UserAssignmentEntity> batch, AssignmentIndexRebuildResult result) {
+        upsertUnlessNewer(batch);
+
+        // Las filas de control no cuentan como asignaciones
+        result.setAssignments(result.getAssignments() + batch.stream().filter(entity -> entity.getUserId() != null).count());
+        result.setBatches(result.getBatches() + 1);
+        batch.clear();
+    }
+
+    /**
+     * Reemplaza (o inserta) cada fila salvo que la existente sea de una versión posterior del servicio.
+     * En ese caso el filtro no coincide, el upsert intenta insertar el mismo _id y falla con clave
+     * duplicada: esas filas se omiten. Devuelve cuántas se omitieron.
+     */
+    private int upsertUnlessNewer(List<UserAssignmentEntity> entities) {
+        if (entities.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserAssignmentEntity.class);
+        for (UserAssignmentEntity entity : entities) {
+            bulk.replaceOne(new Query(Criteria.where("_id").is(entity.getId())
+                    .orOperator(notNewerThan(entity.getServiceVersion()))), entity,
+                    FindAndReplaceOptions.options().upsert());
+        }
+
+        try {
+            bulk.execute();
+            return 0;
+        } catch (BulkOperationException e) {
+            boolean onlyNewerRows = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyNewerRows) {
+                throw e;
+            }
+            return e.getErrors().size();
+        }
+    }
+
+    // Las filas anteriores a versionar las asignaciones no tienen serviceVersion
+    private static Criteria[] notNewerThan(long version) {
+        return new Criteria[] {
+            Criteria.where("serviceVersion").lte(version),
+            Criteria.where("serviceVersion").exists(false)
+        };
+    }
+
+    private static Criteria[] olderThan(long version) {
+        return new Criteria[] {
+            Criteria.where("serviceVersion").lt(version),
+            Criteria.where("serviceVersion").exists(false)
+        };
+    }
+
+    private static long versionOf(ServiceModel service) {
+        return service.getVersion() != null ? service.getVersion() : 0L;
+    }
+}
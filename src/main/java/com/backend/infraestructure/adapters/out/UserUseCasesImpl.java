@@ -1,29 +1,49 @@
 package com.backend.infraestructure.adapters.out;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
+import com.backend.domain.model.CursorPage;
 import com.backend.domain.model.UserModel;
+import com.backend.domain.model.UserUpsertResult;
 import com.backend.domain.port.UserUseCases;
 import com.backend.infraestructure.adapters.out.entities.UserEntity;
 import com.backend.infraestructure.adapters.out.repositories.UserRepository;
 
+import com.mongodb.client.result.UpdateResult;
+
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Repository
 @RequiredArgsConstructor
+@Slf4j
 public class UserUseCasesImpl implements UserUseCases {
     
     private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
 
     
     @Override
     public UserModel createUser(UserModel user) {
         UserEntity userEntity = UserEntity.fromDomain(user);
+        userEntity.setVersion(0L);
         UserEntity savedEntity = userRepository.save(userEntity);
         return savedEntity.toDomain();
     }
@@ -34,28 +54,142 @@ public class UserUseCasesImpl implements UserUseCases {
         return userEntity.map(UserEntity::toDomain).orElse(null);
     }
     
+    /**
+     * Devuelve el usuario con ese email o lo crea con los datos recibidos, en un único findAndModify:
+     * $setOnInsert con un _id generado aquí y returnNew=false, así que null significa "insertado".
+     * Dos altas simultáneas del mismo email chocan con el índice único y la perdedora lee el existente.
+     */
+    @Override
+    public UserUpsertResult upsertByEmail(UserModel newUser) {
+        String id = new ObjectId().toHexString();
+        Update update = new Update()
+                .setOnInsert("id", id)
+                .setOnInsert("roles", newUser.getRoles())
+                .setOnInsert("createdAt", newUser.getCreatedAt())
+                .setOnInsert("version", 0L)
+                .setOnInsert("tokenVersion", 0L);
+        // Como en save(): los campos nulos no se escriben
+        if (newUser.getName() != null) {
+            update.setOnInsert("name", newUser.getName());
+        }
+        if (newUser.getPhoneNumber() != null) {
+            update.setOnInsert("phoneNumber", newUser.getPhoneNumber());
+        }
+        
+        UserEntity existing;
+        try {
+            existing = mongoTemplate.findAndModify(
+                    new Query(Criteria.where("email").is(newUser.getEmail())),
+                    update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(false),
+                    UserEntity.class);
+        } catch (DuplicateKeyException e) {
+            UserModel winner = getUserByEmail(newUser.getEmail());
+            if (winner == null) {
+                throw e;
+            }
+            return new UserUpsertResult(winner, false);
+        }
+        
+        if (existing != null) {
+            return new UserUpsertResult(existing.toDomain(), false);
+        }
+        
+        UserModel created = new UserModel(id, newUser.getName(), newUser.getEmail(), newUser.getPhoneNumber(),
+                newUser.getRoles(), newUser.getCreatedAt(), 0L, 0L);
+        return new UserUpsertResult(created, true);
+    }
+    
     @Override
     public UserModel getUserById(String id) {
         Optional<UserEntity> userEntity = userRepository.findById(id);
         return userEntity.map(UserEntity::toDomain).orElse(null);
     }
     
+    @Override
+    public List<UserModel> getUsersByIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findByIdIn(ids).stream()
+                .map(UserEntity::toDomain)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     public UserModel updateUser(UserModel user) {
         if (user.getId() == null) {
             throw new IllegalArgumentException("ID de usuario es requerido para actualizar");
         }
         
-        // Verificar que el usuario existe
-        if (!userRepository.existsById(user.getId())) {
-            throw new IllegalArgumentException("Usuario no encontrado con ID: " + user.getId());
-        }
-        
+        // Reemplazo condicionado a _id y versión leída: un solo round trip en el caso normal
         UserEntity userEntity = UserEntity.fromDomain(user);
-        UserEntity savedEntity = userRepository.save(userEntity);
+        userEntity.setVersion(user.getVersion() == null ? 1L : user.getVersion() + 1);
+        UserEntity savedEntity = mongoTemplate.findAndReplace(
+                new Query(Criteria.where("_id").is(user.getId()).and("version").is(user.getVersion())),
+                userEntity,
+                FindAndReplaceOptions.options().returnNew());
+        
+        if (savedEntity == null) {
+            // Solo en el camino de fallo se distingue "no existe" de "versión obsoleta"
+            if (!userRepository.existsById(user.getId())) {
+                throw new IllegalArgumentException("Usuario no encontrado con ID: " + user.getId());
+            }
+            throw new OptimisticLockingFailureException(
+                "El usuario " + user.getId() + " fue modificado por otra operación (versión " + user.getVersion() + ")");
+        }
         return savedEntity.toDomain();
     }
     
+    /**
+     * Añade un rol a los usuarios que no lo tengan con un único updateMany ($addToSet).
+     * Antes lee (solo _id) cuáles no lo tienen en MongoDB: esos son los ids que se escriben y
+     * se devuelven, sin depender de la copia que tenga quien llama.
+     */
+    @Override
+    public List<String> ensureRole(Collection<String> userIds, UserModel.Role role) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        
+        Query pending = new Query(Criteria.where("_id").in(userIds).and("roles").ne(role.name()));
+        pending.fields().include("_id");
+        List<String> changedIds = mongoTemplate.find(pending, UserEntity.class).stream()
+                .map(UserEntity::getId)
+                .toList();
+        if (changedIds.isEmpty()) {
+            return changedIds;
+        }
+        
+        Query query = new Query(Criteria.where("_id").in(changedIds).and("roles").ne(role.name()));
+        // tokenVersion sube con los roles: los JWT emitidos antes dejan de autenticar solo con sus claims
+        Update update = new Update().addToSet("roles", role.name()).inc("version", 1).inc("tokenVersion", 1);
+        UpdateResult result = mongoTemplate.updateMulti(query, update, UserEntity.class);
+        
+        if (result.getModifiedCount() != changedIds.size()) {
+            // Otro proceso añadió el rol entre la lectura y la escritura: invalidar esos ids de más es inocuo
+            log.debug("Rol {} añadido por otro proceso a {} de {} usuarios", role,
+                changedIds.size() - result.getModifiedCount(), changedIds.size());
+        }
+        
+        return changedIds;
+    }
+    
+    /**
+     * Solo lee tokenVersion (proyección); null si el usuario no existe.
+     * Los usuarios anteriores al campo cuentan como versión 0
+     */
+    @Override
+    public Long getTokenVersion(String userId) {
+        Query query = new Query(Criteria.where("_id").is(userId));
+        query.fields().include("tokenVersion");
+        UserEntity entity = mongoTemplate.findOne(query, UserEntity.class);
+        if (entity == null) {
+            return null;
+        }
+        return entity.getTokenVersion() != null ? entity.getTokenVersion() : 0L;
+    }
+    
     @Override
     public void deleteUser(String id) {
         if (!userRepository.existsById(id)) {
@@ -72,6 +206,39 @@ public class UserUseCasesImpl implements UserUseCases {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Paginación keyset por (name, _id): limit y orden se resuelven en MongoDB
+     */
+    @Override
+    public CursorPage<UserModel> getUsersPage(UserModel.Role role, String cursor, int limit) {
+        List<Criteria> filters = new ArrayList<>();
+        if (role != null) {
+            filters.add(Criteria.where("roles").is(role.name()));
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            filters.add(position.after("name", position.getValue()));
+        }
+        
+        Query query = new Query(filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters))
+                .with(Sort.by(Sort.Direction.ASC, "name", "id"))
+                .limit(limit + 1);
+        List<UserEntity> userEntities = mongoTemplate.find(query, UserEntity.class);
+        
+        boolean hasMore = userEntities.size() > limit;
+        List<UserEntity> pageEntities = hasMore ? userEntities.subList(0, limit) : userEntities;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            UserEntity last = pageEntities.get(pageEntities.size() - 1);
+            nextCursor = new KeysetCursor(last.getName(), last.getId()).encode();
+        }
+        
+        return new CursorPage<>(pageEntities.stream()
+                .map(UserEntity::toDomain)
+                .collect(Collectors.toList()), nextCursor);
+    }
+    
     @Override
     public UserModel getUserByPhoneNumber(String phoneNumber) {
         Optional<UserEntity> userEntity = userRepository.findByPhoneNumber(phoneNumber);
@@ -0,0 +1,28 @@
+package com.backend.infraestructure.adapters.out.entities;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Document(collection = "notification_dedup")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationDedupEntity {
+
+    @Id
+    private String id; // notificationKey
+    private DedupStatus status;
+    private String owner; // token del consumidor que tiene la reserva mientras está en SENDING
+    private Instant expiresAt; // índice TTL: MongoDB borra el documento al llegar a esta fecha (UTC)
+
+    public enum DedupStatus {
+        SENDING,
+        SENT
+    }
+}
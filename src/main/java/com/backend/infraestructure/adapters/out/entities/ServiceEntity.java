@@ -31,6 +31,8 @@ public class ServiceEntity {
     private String location;
     private LocalDateTime createdAt;
     private String clothesColor;
+    private Long version;
+    
     public static ServiceEntity fromDomain(ServiceModel serviceModel) {
         ServiceEntity entity = new ServiceEntity();
         entity.setId(serviceModel.getId());
@@ -39,6 +41,7 @@ public class ServiceEntity {
         entity.setLocation(serviceModel.getLocation());
         entity.setCreatedAt(serviceModel.getCreatedAt());
         entity.setClothesColor(serviceModel.getClothesColor());
+        entity.setVersion(serviceModel.getVersion());
         
         // Convertir directores
         if (serviceModel.getDirectors() != null) {
@@ -64,6 +67,26 @@ public class ServiceEntity {
         return entity;
     }
     
+    /**
+     * Sustituye las copias completas de usuarios por referencias (id + nombre)
+     */
+    public void useUserReferences() {
+        if (this.directors != null) {
+            this.directors = this.directors.stream()
+                    .map(UserEntity::toReference)
+                    .collect(Collectors.toList());
+        }
+        if (this.musiciansList != null) {
+            this.musiciansList.forEach(assignment -> {
+                if (assignment.getMusician() != null) {
+                    assignment.setMusician(assignment.getMusician().stream()
+                            .map(UserEntity::toReference)
+                            .collect(Collectors.toList()));
+                }
+            });
+        }
+    }
+    
     public ServiceModel toDomain() {
         ServiceModel serviceModel = new ServiceModel();
         serviceModel.setId(this.id);
@@ -72,6 +95,7 @@ public class ServiceEntity {
         serviceModel.setLocation(this.location);
         serviceModel.setCreatedAt(this.createdAt);
         serviceModel.setClothesColor(this.clothesColor);
+        serviceModel.setVersion(this.version);
         // Convertir directores
         if (this.directors != null) {
             serviceModel.setDirectors(this.directors.stream()
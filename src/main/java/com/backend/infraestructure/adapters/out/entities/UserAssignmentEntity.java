@@ -0,0 +1,68 @@
+package com.backend.infraestructure.adapters.out.entities;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserAssignment;
+import com.backend.domain.model.UserModel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Document(collection = "user_assignments")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserAssignmentEntity {
+
+    @Id
+    private String id; // serviceId:userId:role:instrument
+    private String userId;
+    private String serviceId;
+    private UserModel.Role role;
+    private String instrument;
+    private LocalDate serviceDate;
+    private Long serviceVersion; // Versión del servicio que escribió la fila
+    private LocalDateTime indexedAt;
+
+    public static String idOf(String serviceId, String userId, UserModel.Role role, String instrument) {
+        return serviceId + ":" + userId + ":" + role + ":" + (instrument != null ? instrument : "");
+    }
+
+    // Fila de control del servicio (sin usuario): guarda la última versión indexada
+    public static String markerIdOf(String serviceId) {
+        return serviceId + ":#";
+    }
+
+    public static UserAssignmentEntity markerOf(ServiceModel service, long serviceVersion, LocalDateTime indexedAt) {
+        UserAssignmentEntity entity = new UserAssignmentEntity();
+        entity.setId(markerIdOf(service.getId()));
+        entity.setServiceId(service.getId());
+        entity.setServiceDate(service.getServiceDate());
+        entity.setServiceVersion(serviceVersion);
+        entity.setIndexedAt(indexedAt);
+        return entity;
+    }
+
+    public static UserAssignmentEntity fromDomain(UserAssignment assignment, long serviceVersion, LocalDateTime indexedAt) {
+        UserAssignmentEntity entity = new UserAssignmentEntity();
+        entity.setId(idOf(assignment.getServiceId(), assignment.getUserId(), assignment.getRole(), assignment.getInstrument()));
+        entity.setUserId(assignment.getUserId());
+        entity.setServiceId(assignment.getServiceId());
+        entity.setRole(assignment.getRole());
+        entity.setInstrument(assignment.getInstrument());
+        entity.setServiceDate(assignment.getServiceDate());
+        entity.setServiceVersion(serviceVersion);
+        entity.setIndexedAt(indexedAt);
+        return entity;
+    }
+
+    public UserAssignment toDomain() {
+        return new UserAssignment(this.userId, this.serviceId, this.role, this.instrument, this.serviceDate);
+    }
+}
@@ -25,6 +25,8 @@ public class UserEntity {
     private String phoneNumber;
     private List<UserModel.Role> roles; // Cambiado de Role role a List<Role> roles
     private LocalDateTime createdAt;
+    private Long version;
+    private Long tokenVersion;
     
     public static UserEntity fromDomain(UserModel userModel) {
         UserEntity entity = new UserEntity();
@@ -34,9 +36,21 @@ public class UserEntity {
         entity.setPhoneNumber(userModel.getPhoneNumber());
         entity.setRoles(userModel.getRoles()); // Cambiado de setRole a setRoles
         entity.setCreatedAt(userModel.getCreatedAt());
+        entity.setVersion(userModel.getVersion());
+        entity.setTokenVersion(userModel.getTokenVersion());
         return entity;
     }
     
+    /**
+     * Referencia mínima para embeber en servicios: id más el nombre para mostrar
+     */
+    public UserEntity toReference() {
+        UserEntity reference = new UserEntity();
+        reference.setId(this.id);
+        reference.setName(this.name);
+        return reference;
+    }
+    
     public UserModel toDomain() {
         UserModel userModel = new UserModel();
         userModel.setId(this.id);
@@ -45,6 +59,8 @@ public class UserEntity {
         userModel.setPhoneNumber(this.phoneNumber);
         userModel.setRoles(this.roles); // Cambiado de setRole a setRoles
         userModel.setCreatedAt(this.createdAt);
+        userModel.setVersion(this.version);
+        userModel.setTokenVersion(this.tokenVersion);
         return userModel;
     }
 } 
\ No newline at end of file
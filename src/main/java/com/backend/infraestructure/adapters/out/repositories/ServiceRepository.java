@@ -18,11 +18,22 @@ public interface ServiceRepository extends MongoRepository<ServiceEntity, String
     @Query("{'serviceDate': ?0}")
     List<ServiceEntity> findByServiceDate(LocalDate serviceDate);
 
+    // Rango inclusivo sobre el índice de serviceDate
+    @Query(value = "{'serviceDate': {'$gte': ?0, '$lte': ?1}}", sort = "{'serviceDate': 1}")
+    List<ServiceEntity> findByServiceDateBetween(LocalDate startDate, LocalDate endDate);
+
     @Query(value = "{'directors.id': ?0}", sort = "{'serviceDate': 1}")
     List<ServiceEntity> findByDirectorId(String directorId);
     
     @Query(value = "{'musiciansList.musician.id': ?0}", sort = "{'serviceDate': 1}")
     List<ServiceEntity> findByMusicianId(String musicianId);
     
+    // Servicios donde el usuario es director o músico, en una sola consulta
+    @Query(value = "{'$or': [{'directors.id': ?0}, {'musiciansList.musician.id': ?0}]}", sort = "{'serviceDate': 1}")
+    List<ServiceEntity> findByParticipantId(String userId);
+    
+    @Query(value = "{'$or': [{'directors.id': ?0}, {'musiciansList.musician.id': ?0}], 'serviceDate': {'$gte': ?1}}", sort = "{'serviceDate': 1}")
+    List<ServiceEntity> findByParticipantIdFrom(String userId, LocalDate from);
+    
 
 } 
\ No newline at end of file
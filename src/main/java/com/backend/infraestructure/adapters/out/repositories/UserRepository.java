@@ -1,5 +1,6 @@
 package com.backend.infraestructure.adapters.out.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,9 @@ public interface UserRepository extends MongoRepository<UserEntity, String> {
     
     Optional<UserEntity> findByPhoneNumber(String phoneNumber);
     
+    // Consulta por lote: un único $in sobre _id
+    List<UserEntity> findByIdIn(Collection<String> ids);
+    
     // Consultas para múltiples roles
     @Query("{'roles': ?0}")
     List<UserEntity> findByRole(UserModel.Role role);
@@ -0,0 +1,53 @@
+package com.backend.infraestructure.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+/**
+ * Decodificador de ID tokens de Google: la firma se verifica en local con las claves JWKS,
+ * que Nimbus cachea y vuelve a descargar cuando aparece un kid desconocido.
+ * Para pruebas basta con apuntar google.oauth.jwks-uri a un servidor de claves local
+ * o sustituir el bean googleIdTokenDecoder.
+ */
+@Configuration
+public class GoogleIdTokenConfig {
+
+    public static final List<String> GOOGLE_ISSUERS = List.of("accounts.google.com", "https://accounts.google.com");
+
+    @Bean
+    public JwtDecoder googleIdTokenDecoder(
+            RestTemplateBuilder restTemplateBuilder,
+            @Value("${google.oauth.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}") String jwksUri,
+            @Value("${google.oauth.client-id}") String clientId) {
+
+        // Solo se usa al refrescar las claves: timeouts cortos para no bloquear el login
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withJwkSetUri(jwksUri)
+                .jwsAlgorithm(SignatureAlgorithm.RS256)
+                .restOperations(restTemplateBuilder
+                        .connectTimeout(Duration.ofSeconds(3))
+                        .readTimeout(Duration.ofSeconds(3))
+                        .build())
+                .build();
+
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                new JwtTimestampValidator(),
+                new JwtClaimValidator<Object>(JwtClaimNames.ISS,
+                        issuer -> issuer != null && GOOGLE_ISSUERS.contains(issuer.toString())),
+                new JwtClaimValidator<Collection<String>>(JwtClaimNames.AUD,
+                        audience -> audience != null && audience.contains(clientId))));
+        return decoder;
+    }
+}
@@ -0,0 +1,14 @@
+package com.backend.infraestructure.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoConfig {
+    
+    @Bean
+    public MongoClientSettingsBuilderCustomizer roundTripTrackerCustomizer(MongoRoundTripTracker roundTripTracker) {
+        return builder -> builder.addCommandListener(roundTripTracker);
+    }
+}
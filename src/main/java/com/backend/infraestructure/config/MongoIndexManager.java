@@ -0,0 +1,281 @@
+package com.backend.infraestructure.config;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.backend.domain.model.UserModel;
+import com.backend.infraestructure.adapters.out.entities.NotificationDedupEntity;
+import com.backend.infraestructure.adapters.out.entities.ServiceEntity;
+import com.backend.infraestructure.adapters.out.entities.UserAssignmentEntity;
+import com.backend.infraestructure.adapters.out.entities.UserEntity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Declara, crea y verifica al arrancar los índices que necesitan las consultas de los repositorios.
+ * Después ejecuta explain() sobre cada forma de consulta y registra el plan ganador.
+ * En modo estricto la aplicación no arranca si falta un índice o alguna consulta haría COLLSCAN.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexManager {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.mongo.indexes.strict:false}")
+    private boolean strict;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void manageIndexes() {
+        List<String> problems = new ArrayList<>();
+
+        for (IndexDeclaration declaration : declaredIndexes()) {
+            createIndex(declaration, problems);
+        }
+        for (IndexDeclaration declaration : declaredIndexes()) {
+            verifyIndex(declaration, problems);
+        }
+        for (QueryProbe probe : queryProbes()) {
+            explainQuery(probe, problems);
+        }
+
+        if (problems.isEmpty()) {
+            log.info("✅ Índices de MongoDB verificados: ninguna consulta hace COLLSCAN");
+            return;
+        }
+
+        problems.forEach(problem -> log.warn("⚠️ {}", problem));
+        if (strict) {
+            throw new IllegalStateException("Verificación de índices fallida: " + String.join("; ", problems));
+        }
+    }
+
+    /**
+     * Índices necesarios para las consultas de ServiceRepository, UserRepository y user_assignments,
+     * más el TTL de notification_dedup
+     */
+    private List<IndexDeclaration> declaredIndexes() {
+        return List.of(
+            new IndexDeclaration(ServiceEntity.class, new Index()
+                .on("serviceDate", Sort.Direction.ASC)
+                .on("id", Sort.Direction.ASC)
+                .named("serviceDate_id")),
+            new IndexDeclaration(ServiceEntity.class, new Index()
+                .on("directors.id", Sort.Direction.ASC)
+                .on("serviceDate", Sort.Direction.ASC)
+                .named("directors_serviceDate")),
+            new IndexDeclaration(ServiceEntity.class, new Index()
+                .on("musiciansList.musician.id", Sort.Direction.ASC)
+                .on("serviceDate", Sort.Direction.ASC)
+                .named("musicians_serviceDate")),
+            new IndexDeclaration(UserEntity.class, new Index()
+                .on("email", Sort.Direction.ASC)
+                .named("email_unique")
+                .unique()
+                .sparse()),
+            new IndexDeclaration(UserEntity.class, new Index()
+                .on("phoneNumber", Sort.Direction.ASC)
+                .named("phoneNumber_1")
+                .sparse()),
+            new IndexDeclaration(UserEntity.class, new Index()
+                .on("name", Sort.Direction.ASC)
+                .on("id", Sort.Direction.ASC)
+                .named("name_id")),
+            new IndexDeclaration(UserEntity.class, new Index()
+                .on("roles", Sort.Direction.ASC)
+                .on("name", Sort.Direction.ASC)
+                .on("id", Sort.Direction.ASC)
+                .named("roles_name_id")),
+            new IndexDeclaration(UserAssignmentEntity.class, new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("serviceDate", Sort.Direction.ASC)
+                .named("userId_serviceDate")),
+            new IndexDeclaration(UserAssignmentEntity.class, new Index()
+                .on("serviceId", Sort.Direction.ASC)
+                .named("serviceId_1")),
+            new IndexDeclaration(UserAssignmentEntity.class, new Index()
+                .on("serviceDate", Sort.Direction.ASC)
+                .named("serviceDate_1")),
+            // TTL: MongoDB borra cada reserva/envío al llegar a expiresAt
+            new IndexDeclaration(NotificationDedupEntity.class, new Index()
+                .on("expiresAt", Sort.Direction.ASC)
+                .named("expiresAt_ttl")
+                .expire(Duration.ZERO))
+        );
+    }
+
+    /**
+     * Una muestra de cada forma de consulta de los repositorios, con valores representativos
+     */
+    private List<QueryProbe> queryProbes() {
+        String sampleId = new ObjectId().toHexString();
+        LocalDate today = LocalDate.now();
+
+        return List.of(
+            new QueryProbe("ServiceRepository.findAllByOrderByServiceDateAsc", ServiceEntity.class,
+                new Query().with(Sort.by("serviceDate"))),
+            new QueryProbe("ServiceRepository.findByServiceDate", ServiceEntity.class,
+                new Query(Criteria.where("serviceDate").is(today))),
+            new QueryProbe("ServiceRepository.findByServiceDateBetween", ServiceEntity.class,
+                new Query(Criteria.where("serviceDate").gte(today).lte(today.plusDays(10))).with(Sort.by("serviceDate"))),
+            new QueryProbe("ServiceRepository.findByDirectorId", ServiceEntity.class,
+                new Query(Criteria.where("directors.id").is(sampleId)).with(Sort.by("serviceDate"))),
+            new QueryProbe("ServiceRepository.findByMusicianId", ServiceEntity.class,
+                new Query(Criteria.where("musiciansList.musician.id").is(sampleId)).with(Sort.by("serviceDate"))),
+            new QueryProbe("ServiceRepository.findByParticipantIdFrom", ServiceEntity.class,
+                new Query(new Criteria().andOperator(
+                    new Criteria().orOperator(
+                        Criteria.where("directors.id").is(sampleId),
+                        Criteria.where("musiciansList.musician.id").is(sampleId)),
+                    Criteria.where("serviceDate").gte(today)))
+                    .with(Sort.by("serviceDate"))),
+            new QueryProbe("ServicesUseCases.getServicesPage", ServiceEntity.class,
+                new Query(new Criteria().andOperator(
+                    Criteria.where("serviceDate").gte(today),
+                    new Criteria().orOperator(
+                        Criteria.where("serviceDate").gt(today),
+                        new Criteria().andOperator(Criteria.where("serviceDate").is(today), Criteria.where("id").gt(sampleId)))))
+                    .with(Sort.by(Sort.Direction.ASC, "serviceDate", "id")).limit(50)),
+            new QueryProbe("UserUseCases.getUsersPage", UserEntity.class,
+                new Query(Criteria.where("roles").is(UserModel.Role.MUSICIAN.name()))
+                    .with(Sort.by(Sort.Direction.ASC, "name", "id")).limit(50)),
+            new QueryProbe("UserAssignmentUseCases.findServiceIdsForUser", UserAssignmentEntity.class,
+                new Query(Criteria.where("userId").is(sampleId).and("serviceDate").gte(today)).with(Sort.by("serviceDate"))),
+            new QueryProbe("UserAssignmentUseCases.replaceForService", UserAssignmentEntity.class,
+                new Query(Criteria.where("serviceId").is(sampleId))),
+            new QueryProbe("UserAssignmentUseCases.findAssignmentsBetween", UserAssignmentEntity.class,
+                new Query(Criteria.where("serviceDate").gt(today).lt(today.plusDays(10)).and("userId").ne(null))
+                    .with(Sort.by("serviceDate"))),
+            new QueryProbe("UserAssignmentUseCases.deleteBefore", UserAssignmentEntity.class,
+                new Query(Criteria.where("serviceDate").lt(today))),
+            new QueryProbe("UserRepository.findAllByOrderByNameAsc", UserEntity.class,
+                new Query().with(Sort.by("name"))),
+            new QueryProbe("UserRepository.findByEmail", UserEntity.class,
+                new Query(Criteria.where("email").is("probe@example.com"))),
+            new QueryProbe("UserRepository.findByPhoneNumber", UserEntity.class,
+                new Query(Criteria.where("phoneNumber").is("0000000000"))),
+            new QueryProbe("UserRepository.findByRole", UserEntity.class,
+                new Query(Criteria.where("roles").is(UserModel.Role.DIRECTOR.name()))),
+            new QueryProbe("UserRepository.findByRolesIn", UserEntity.class,
+                new Query(Criteria.where("roles").in(UserModel.Role.DIRECTOR.name(), UserModel.Role.MUSICIAN.name())))
+        );
+    }
+
+    private void createIndex(IndexDeclaration declaration, List<String> problems) {
+        try {
+            mongoTemplate.indexOps(declaration.getEntityClass()).createIndex(declaration.getIndex());
+        } catch (Exception e) {
+            problems.add("No se pudo crear el índice " + declaration.describe() + ": " + e.getMessage());
+        }
+    }
+
+    private void verifyIndex(IndexDeclaration declaration, List<String> problems) {
+        List<String> expectedKeys = new ArrayList<>(mapped(declaration.getEntityClass(),
+            declaration.getIndex().getIndexKeys()).keySet());
+        boolean unique = Boolean.TRUE.equals(declaration.getIndex().getIndexOptions().get("unique"));
+
+        List<IndexInfo> existing = mongoTemplate.indexOps(declaration.getEntityClass()).getIndexInfo();
+        boolean present = existing.stream().anyMatch(info ->
+            info.getIndexFields().stream().map(IndexField::getKey).toList().equals(expectedKeys)
+                && (!unique || info.isUnique()));
+
+        if (!present) {
+            problems.add("Índice ausente en " + collectionName(declaration.getEntityClass()) + ": " + declaration.describe());
+        }
+    }
+
+    private void explainQuery(QueryProbe probe, List<String> problems) {
+        try {
+            MongoPersistentEntity<?> entity = persistentEntity(probe.getEntityClass());
+            QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+            Document filter = queryMapper.getMappedObject(probe.getQuery().getQueryObject(), entity);
+            Document sort = queryMapper.getMappedSort(probe.getQuery().getSortObject(), entity);
+
+            Document explain = mongoTemplate.getCollection(collectionName(probe.getEntityClass()))
+                .find(filter)
+                .sort(sort)
+                .explain();
+
+            Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+            Set<String> stages = new TreeSet<>();
+            collectStages(winningPlan, stages);
+
+            log.debug("🔎 explain {} filter={} sort={} stages={}", probe.getName(), filter.toJson(), sort.toJson(), stages);
+            if (stages.contains("COLLSCAN")) {
+                problems.add("La consulta " + probe.getName() + " hace COLLSCAN");
+            }
+        } catch (Exception e) {
+            problems.add("No se pudo ejecutar explain() para " + probe.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recorre el plan (clásico o SBE) acumulando el nombre de cada etapa
+     */
+    private void collectStages(Object node, Set<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String stageName) {
+                stages.add(stageName);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+    private Document mapped(Class<?> entityClass, Document keys) {
+        return new QueryMapper(mongoTemplate.getConverter()).getMappedSort(keys, persistentEntity(entityClass));
+    }
+
+    private MongoPersistentEntity<?> persistentEntity(Class<?> entityClass) {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(entityClass);
+    }
+
+    private String collectionName(Class<?> entityClass) {
+        return mongoTemplate.getCollectionName(entityClass);
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class IndexDeclaration {
+        private Class<?> entityClass;
+        private Index index;
+
+        String describe() {
+            return index.getIndexKeys().toJson() + " " + index.getIndexOptions().toJson();
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class QueryProbe {
+        private String name;
+        private Class<?> entityClass;
+        private Query query;
+    }
+}
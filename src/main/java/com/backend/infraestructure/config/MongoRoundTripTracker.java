@@ -0,0 +1,97 @@
+package com.backend.infraestructure.config;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.bson.BsonValue;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cuenta los comandos enviados a MongoDB (round trips) dentro de una operación de aplicación.
+ * El driver síncrono notifica cada comando en el mismo hilo que lo ejecuta,
+ * por lo que basta con una pila de contadores por hilo.
+ */
+@Component
+public class MongoRoundTripTracker implements CommandListener {
+    
+    private final ThreadLocal<Deque<Map<String, Integer>>> currentOperations = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+    
+    /**
+     * Ejecuta la acción registrando cuántos round trips a MongoDB realiza.
+     * Una operación anidada (p. ej. una escritura secundaria) se registra con su propio nombre
+     * y además cuenta en todas las operaciones exteriores, que reflejan así el coste total.
+     */
+    public <T> T track(String operation, Supplier<T> action) {
+        Deque<Map<String, Integer>> operations = currentOperations.get();
+        Map<String, Integer> counter = new HashMap<>();
+        operations.push(counter);
+        try {
+            return action.get();
+        } finally {
+            operations.pop();
+            if (operations.isEmpty()) {
+                currentOperations.remove();
+            }
+            stats.computeIfAbsent(operation, key -> new OperationStats()).record(counter);
+        }
+    }
+    
+    public Map<String, OperationStats> getStats() {
+        Map<String, OperationStats> snapshot = new TreeMap<>();
+        stats.forEach((operation, operationStats) -> snapshot.put(operation, operationStats.copy()));
+        return snapshot;
+    }
+    
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Deque<Map<String, Integer>> operations = currentOperations.get();
+        if (operations.isEmpty()) {
+            currentOperations.remove();
+            return;
+        }
+        String collection = collectionOf(event);
+        operations.forEach(counter -> counter.merge(collection, 1, Integer::sum));
+    }
+    
+    private String collectionOf(CommandStartedEvent event) {
+        BsonValue target = event.getCommand().get(event.getCommandName());
+        return target != null && target.isString() ? target.asString().getValue() : event.getCommandName();
+    }
+    
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class OperationStats {
+        private long calls;
+        private long totalRoundTrips;
+        private int lastRoundTrips;
+        private int maxRoundTrips;
+        private Map<String, Integer> lastByCollection = new TreeMap<>();
+        
+        synchronized void record(Map<String, Integer> counter) {
+            int roundTrips = counter.values().stream().mapToInt(Integer::intValue).sum();
+            calls++;
+            totalRoundTrips += roundTrips;
+            lastRoundTrips = roundTrips;
+            maxRoundTrips = Math.max(maxRoundTrips, roundTrips);
+            lastByCollection = new TreeMap<>(counter);
+        }
+        
+        synchronized OperationStats copy() {
+            return new OperationStats(calls, totalRoundTrips, lastRoundTrips, maxRoundTrips, new TreeMap<>(lastByCollection));
+        }
+    }
+}
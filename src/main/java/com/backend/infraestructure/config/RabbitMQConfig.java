@@ -1,19 +1,44 @@
 package com.backend.infraestructure.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
     
     public static final String NOTIFICATION_QUEUE = "notification.queue";
     public static final String NOTIFICATION_EXCHANGE = "notification.exchange";
     public static final String NOTIFICATION_ROUTING_KEY = "notification.routingkey";
+    public static final String NOTIFICATION_BATCH_CONTAINER_FACTORY = "notificationBatchContainerFactory";
+    
+    // Reintentos: una cola con TTL por escalón de backoff que al expirar devuelve el mensaje al exchange principal
+    public static final String NOTIFICATION_RETRY_EXCHANGE = "notification.retry.exchange";
+    public static final List<Integer> NOTIFICATION_RETRY_DELAYS_SECONDS = List.of(10, 60, 300);
+    
+    // Mensajes que agotaron los reintentos
+    public static final String NOTIFICATION_DEAD_LETTER_EXCHANGE = "notification.dlx";
+    public static final String NOTIFICATION_DEAD_LETTER_QUEUE = "notification.dlq";
+    public static final String NOTIFICATION_DEAD_LETTER_ROUTING_KEY = "notification.dead";
+    
+    // Cabeceras de los mensajes reintentados o en la DLQ
+    public static final String NOTIFICATION_ATTEMPT_HEADER = "x-notification-attempt";
+    public static final String NOTIFICATION_ERROR_HEADER = "x-notification-error";
+    public static final String NOTIFICATION_FAILED_AT_HEADER = "x-notification-failed-at";
+    
+    public static String retryQueueName(int delaySeconds) {
+        return "notification.retry." + delaySeconds + "s";
+    }
     
     @Bean
     public Queue notificationQueue() {
@@ -32,6 +57,35 @@ public class RabbitMQConfig {
                 .with(NOTIFICATION_ROUTING_KEY);
     }
     
+    /**
+     * Exchange y colas de reintento y DLQ. La cola principal conserva sus argumentos (redeclararla
+     * con otros fallaría en un broker existente): el consumidor publica aquí explícitamente
+     */
+    @Bean
+    public Declarables notificationRetryDeclarables() {
+        List<Declarable> declarables = new ArrayList<>();
+        
+        DirectExchange retryExchange = new DirectExchange(NOTIFICATION_RETRY_EXCHANGE);
+        declarables.add(retryExchange);
+        for (int delaySeconds : NOTIFICATION_RETRY_DELAYS_SECONDS) {
+            Queue retryQueue = QueueBuilder.durable(retryQueueName(delaySeconds))
+                    .ttl(delaySeconds * 1000)
+                    .deadLetterExchange(NOTIFICATION_EXCHANGE)
+                    .deadLetterRoutingKey(NOTIFICATION_ROUTING_KEY)
+                    .build();
+            declarables.add(retryQueue);
+            declarables.add(BindingBuilder.bind(retryQueue).to(retryExchange).with(retryQueue.getName()));
+        }
+        
+        DirectExchange deadLetterExchange = new DirectExchange(NOTIFICATION_DEAD_LETTER_EXCHANGE);
+        Queue deadLetterQueue = QueueBuilder.durable(NOTIFICATION_DEAD_LETTER_QUEUE).build();
+        declarables.add(deadLetterExchange);
+        declarables.add(deadLetterQueue);
+        declarables.add(BindingBuilder.bind(deadLetterQueue).to(deadLetterExchange).with(NOTIFICATION_DEAD_LETTER_ROUTING_KEY));
+        
+        return new Declarables(declarables);
+    }
+    
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -41,6 +95,36 @@ public class RabbitMQConfig {
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        // Los mensajes sin cola destino vuelven al productor en lugar de descartarse en silencio
+        rabbitTemplate.setMandatory(true);
         return rabbitTemplate;
     }
+    
+    /**
+     * Contenedor del consumidor por lotes: parte de spring.rabbitmq.listener.simple.* y fija
+     * el tamaño de lote, el pool de consumidores, el prefetch y el ack manual por mensaje
+     */
+    @Bean(NOTIFICATION_BATCH_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory notificationBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.notifications.consumer.batch-size:20}") int batchSize,
+            @Value("${app.notifications.consumer.concurrency:2}") int concurrency,
+            @Value("${app.notifications.consumer.max-concurrency:4}") int maxConcurrency,
+            @Value("${app.notifications.consumer.prefetch:40}") int prefetch,
+            @Value("${app.notifications.consumer.receive-timeout-ms:1000}") long receiveTimeoutMillis) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        // Un lote incompleto se entrega tras este tiempo sin mensajes nuevos
+        factory.setReceiveTimeout(receiveTimeoutMillis);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        // Con prefetch menor que el lote el consumidor nunca llegaría a llenarlo
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
 }
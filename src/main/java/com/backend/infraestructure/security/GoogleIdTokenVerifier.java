@@ -0,0 +1,38 @@
+package com.backend.infraestructure.security;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verifica un ID token de Google en proceso: firma (JWKS cacheado), exp, iss y aud
+ */
+@Component
+public class GoogleIdTokenVerifier {
+
+    private final JwtDecoder googleIdTokenDecoder;
+
+    public GoogleIdTokenVerifier(@Qualifier("googleIdTokenDecoder") JwtDecoder googleIdTokenDecoder) {
+        this.googleIdTokenDecoder = googleIdTokenDecoder;
+    }
+
+    public Jwt verify(String idToken) {
+        Jwt jwt;
+        try {
+            jwt = googleIdTokenDecoder.decode(idToken);
+        } catch (JwtException e) {
+            throw new IllegalArgumentException("Token de Google inválido: " + e.getMessage());
+        }
+
+        if (jwt.getClaimAsString("email") == null) {
+            throw new IllegalArgumentException("El token de Google no contiene email");
+        }
+        // Sin el claim no hay garantía de que el email pertenezca a la cuenta: se exige true
+        if (!Boolean.TRUE.equals(jwt.getClaimAsBoolean("email_verified"))) {
+            throw new IllegalArgumentException("El email de la cuenta de Google no está verificado");
+        }
+        return jwt;
+    }
+}
@@ -1,10 +1,17 @@
 package com.backend.infraestructure.security;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -12,6 +19,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.backend.application.JwtService;
 
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +35,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
+    @Autowired
+    private UserTokenVersionRegistry tokenVersionRegistry;
+    
+    // true: autenticación desde los claims verificados, sin consultar el usuario en cada petición
+    @Value("${app.security.jwt.stateless:false}")
+    private boolean stateless;
+    
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -44,27 +60,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extraer el token JWT (remover "Bearer ")
             final String jwt = authHeader.substring(7);
             
-            // Extraer email del token
-            final String userEmail = jwtService.extractEmail(jwt);
-            
-            // Si hay email y no hay autenticación actual, validar el token
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Cargar detalles del usuario
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                
-                // Validar el token JWT
-                if (jwtService.validateToken(jwt, userEmail)) {
-                    // Crear token de autenticación
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities());
-                    
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    // Establecer la autenticación en el contexto de seguridad
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            if (stateless) {
+                authenticateFromClaims(jwt, request);
+            } else {
+                authenticateFromDatabase(jwt, request);
             }
         } catch (Exception e) {
             // Si hay error al procesar el token, continuar sin autenticación
@@ -75,4 +74,69 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Continuar con el filtro
         filterChain.doFilter(request, response);
     }
+    
+    /**
+     * Modo por defecto: carga el usuario (roles actuales) en cada petición
+     */
+    private void authenticateFromDatabase(String jwt, HttpServletRequest request) {
+        // Un único parseo: firma y expiración ya quedan verificadas
+        final Claims claims = jwtService.verify(jwt);
+        final String userEmail = claims.getSubject();
+        
+        // Si hay email y no hay autenticación actual, cargar el usuario
+        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Cargar detalles del usuario
+            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            
+            // Crear token de autenticación
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities());
+            
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            
+            // Establecer la autenticación en el contexto de seguridad
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        }
+    }
+    
+    /**
+     * Construye la autenticación con el email y los roles del token ya verificado (firma y expiración).
+     * Si el tokenVersion del token no coincide con el persistido (los roles cambiaron después de
+     * emitirlo), se cargan de la base de datos.
+     */
+    private void authenticateFromClaims(String jwt, HttpServletRequest request) {
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        
+        Claims claims = jwtService.verify(jwt);
+        String userEmail = claims.getSubject();
+        if (userEmail == null) {
+            return;
+        }
+        
+        UserDetails userDetails;
+        String userId = claims.get("userId", String.class);
+        if (userId == null || tokenVersionRegistry.isStale(userId, claims.get("tokenVersion", Long.class))) {
+            userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        } else {
+            Collection<GrantedAuthority> authorities = new ArrayList<>();
+            List<?> roles = claims.get("roles", List.class);
+            if (roles != null) {
+                for (Object role : roles) {
+                    authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+                }
+            }
+            userDetails = new User(userEmail, "", authorities);
+        }
+        
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 } 
\ No newline at end of file
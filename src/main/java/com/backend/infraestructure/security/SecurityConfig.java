@@ -33,7 +33,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/users/**").permitAll()
                 .requestMatchers("/api/services/**").permitAll()
                 .requestMatchers("/api/director/**").permitAll()
-                .requestMatchers("/api/system/**").permitAll()
+                .requestMatchers("/api/system/health", "/api/system/info").permitAll()
                 .requestMatchers("/api/test/public").permitAll()
                 .requestMatchers("/api/reminders/**").permitAll()
 
@@ -61,6 +61,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("https://www.gestor-alabanza.online"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("X-Next-Cursor"));
         configuration.setAllowCredentials(true); 
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
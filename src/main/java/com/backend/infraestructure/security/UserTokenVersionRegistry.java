@@ -0,0 +1,76 @@
+package com.backend.infraestructure.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.backend.domain.port.UserUseCases;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Caché en memoria del tokenVersion persistido de cada usuario. MongoDB es la fuente de verdad:
+ * ensureRole y updateUser lo incrementan al cambiar roles, así que un token con otra versión deja
+ * de autenticarse solo con sus claims en todas las instancias. Un cambio hecho en este proceso
+ * invalida la copia al momento; uno hecho desde otra instancia se ve como mucho tras el TTL.
+ */
+@Component
+public class UserTokenVersionRegistry {
+
+    private final Map<String, CachedVersion> tokenVersions = new ConcurrentHashMap<>();
+
+    @Autowired
+    private UserUseCases userUseCases;
+
+    @Value("${app.security.token-version.cache-ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${app.security.token-version.cache-max-size:10000}")
+    private int maxSize;
+
+    /**
+     * Los roles de este usuario cambiaron (o se borró): la próxima comprobación relee MongoDB
+     */
+    public void rolesChanged(String userId) {
+        tokenVersions.remove(userId);
+    }
+
+    /**
+     * Un token sin claim tokenVersion cuenta como versión 0; un usuario que ya no existe
+     * hace obsoleto cualquier token
+     */
+    public boolean isStale(String userId, Long tokenVersion) {
+        Long current = currentVersion(userId);
+        return current == null || !current.equals(tokenVersion != null ? tokenVersion : 0L);
+    }
+
+    private Long currentVersion(String userId) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = tokenVersions.get(userId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.version;
+        }
+
+        Long version = userUseCases.getTokenVersion(userId);
+        if (version == null) {
+            tokenVersions.remove(userId);
+            return null;
+        }
+        if (tokenVersions.size() >= maxSize) {
+            tokenVersions.values().removeIf(entry -> entry.expiresAt <= now);
+        }
+        if (tokenVersions.size() < maxSize) {
+            tokenVersions.put(userId, new CachedVersion(version, now + ttlSeconds * 1000));
+        }
+        return version;
+    }
+
+    @AllArgsConstructor
+    private static class CachedVersion {
+        private final Long version;
+        private final long expiresAt;
+    }
+}
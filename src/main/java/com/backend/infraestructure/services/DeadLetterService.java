@@ -0,0 +1,138 @@
+package com.backend.infraestructure.services;
+
+import com.backend.application.dto.NotificationMessage;
+import com.backend.infraestructure.config.RabbitMQConfig;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consulta y reenvío de las notificaciones que agotaron los reintentos (notification.dlq)
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DeadLetterService {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final DefaultMessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+
+    @Value("${app.notifications.publish.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMillis;
+
+    /**
+     * Lee hasta limit mensajes sin consumirlos: se obtienen sin ack y se devuelven todos a la cola al terminar
+     */
+    public List<DeadLetter> inspect(int limit) {
+        return rabbitTemplate.execute(channel -> {
+            List<DeadLetter> deadLetters = new ArrayList<>();
+            long lastDeliveryTag = -1;
+            try {
+                for (int i = 0; i < limit; i++) {
+                    GetResponse response = channel.basicGet(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_QUEUE, false);
+                    if (response == null) {
+                        break;
+                    }
+                    lastDeliveryTag = response.getEnvelope().getDeliveryTag();
+                    deadLetters.add(toDeadLetter(response));
+                }
+            } finally {
+                if (lastDeliveryTag >= 0) {
+                    channel.basicNack(lastDeliveryTag, true, true);
+                }
+            }
+            return deadLetters;
+        });
+    }
+
+    /**
+     * Devuelve hasta limit mensajes a la cola principal con el contador de intentos a cero.
+     * Solo se retiran de la DLQ cuando el broker confirma la nueva publicación.
+     */
+    public int replay(int limit) {
+        Integer replayed = rabbitTemplate.execute(channel -> {
+            int count = 0;
+            long lastDeliveryTag = -1;
+            try {
+                for (int i = 0; i < limit; i++) {
+                    GetResponse response = channel.basicGet(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_QUEUE, false);
+                    if (response == null) {
+                        break;
+                    }
+                    lastDeliveryTag = response.getEnvelope().getDeliveryTag();
+
+                    Map<String, Object> headers = response.getProps().getHeaders() != null ?
+                        new HashMap<>(response.getProps().getHeaders()) : new HashMap<>();
+                    headers.remove(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER);
+                    headers.remove(RabbitMQConfig.NOTIFICATION_ERROR_HEADER);
+                    headers.remove(RabbitMQConfig.NOTIFICATION_FAILED_AT_HEADER);
+                    AMQP.BasicProperties properties = response.getProps().builder().headers(headers).build();
+
+                    channel.basicPublish(RabbitMQConfig.NOTIFICATION_EXCHANGE, RabbitMQConfig.NOTIFICATION_ROUTING_KEY,
+                        properties, response.getBody());
+                    count++;
+                }
+
+                if (count > 0) {
+                    channel.waitForConfirmsOrDie(confirmTimeoutMillis);
+                    channel.basicAck(lastDeliveryTag, true);
+                }
+            } catch (Exception e) {
+                // Sin confirmación se dejan en la DLQ (pueden quedar duplicados en la cola principal)
+                if (lastDeliveryTag >= 0) {
+                    channel.basicNack(lastDeliveryTag, true, true);
+                }
+                throw e;
+            }
+            return count;
+        });
+
+        log.info("🔁 {} notificaciones reenviadas desde la DLQ", replayed);
+        return replayed != null ? replayed : 0;
+    }
+
+    private DeadLetter toDeadLetter(GetResponse response) {
+        Map<String, Object> headers = response.getProps().getHeaders() != null ?
+            response.getProps().getHeaders() : Map.of();
+
+        Message message = new Message(response.getBody(),
+            propertiesConverter.toMessageProperties(response.getProps(), response.getEnvelope(), "UTF-8"));
+        NotificationMessage notification = (NotificationMessage) rabbitTemplate.getMessageConverter().fromMessage(message);
+
+        Object attempts = headers.get(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER);
+        return new DeadLetter(
+            notification,
+            attempts instanceof Number number ? number.intValue() : 0,
+            headerAsString(headers.get(RabbitMQConfig.NOTIFICATION_ERROR_HEADER)),
+            headerAsString(headers.get(RabbitMQConfig.NOTIFICATION_FAILED_AT_HEADER)));
+    }
+
+    // Las cabeceras de texto llegan como LongString
+    private static String headerAsString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DeadLetter {
+        private NotificationMessage notification;
+        private int attempts;
+        private String error;
+        private String failedAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.backend.infraestructure.services;
+
+/**
+ * El servidor SMTP no aceptó el email; el consumidor lo reintenta con backoff o lo manda a la DLQ
+ */
+public class EmailDeliveryException extends RuntimeException {
+
+    public EmailDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
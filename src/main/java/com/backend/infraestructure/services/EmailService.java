@@ -1,8 +1,13 @@
 package com.backend.infraestructure.services;
 
 import com.backend.application.dto.NotificationMessage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -11,7 +16,8 @@ import org.thymeleaf.context.Context;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @Slf4j
@@ -20,28 +26,98 @@ public class EmailService {
     
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
+    private final SmtpTransportPool smtpTransportPool;
     
+    // Conexiones SMTP reutilizadas; con false cada email abre su propia sesión
+    @Value("${app.mail.pool.enabled:true}")
+    private boolean poolEnabled;
+    
+    /**
+     * Envía un email; si el servidor no lo acepta lanza EmailDeliveryException para que
+     * el consumidor decida si reintentar
+     */
     public void sendNotificationEmail(NotificationMessage notification) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setTo(notification.getUserEmail());
-            helper.setSubject(notification.getSubject());
+            MimeMessage message = buildMessage(notification);
             
-            // Usar template de Thymeleaf
-            String htmlContent = generateEmailContent(notification);
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
+            if (poolEnabled) {
+                smtpTransportPool.send(message);
+            } else {
+                mailSender.send(message);
+            }
             
             log.info("✅ Email enviado exitosamente a: {}", notification.getUserEmail());
             
-        } catch (MessagingException e) {
+        } catch (MessagingException | MailException e) {
             log.error("❌ Error enviando email a {}: {}", notification.getUserEmail(), e.getMessage());
+            throw new EmailDeliveryException("Error enviando email a " + notification.getUserEmail(), e);
         }
     }
     
+    /**
+     * Envía un lote de emails por una misma conexión SMTP del pool.
+     * Devuelve el resultado de cada notificación en el mismo orden de entrada; si no hay
+     * conexión libre lanza SmtpPoolExhaustedException sin enviar ninguno.
+     */
+    public List<DeliveryResult> sendNotificationEmails(List<NotificationMessage> notifications) {
+        DeliveryResult[] results = new DeliveryResult[notifications.size()];
+        List<MimeMessage> messages = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        
+        for (int i = 0; i < notifications.size(); i++) {
+            try {
+                messages.add(buildMessage(notifications.get(i)));
+                positions.add(i);
+            } catch (Exception e) {
+                results[i] = new DeliveryResult(notifications.get(i), false, e.getMessage());
+            }
+        }
+        
+        List<MessagingException> errors = poolEnabled ? smtpTransportPool.sendAll(messages) : sendEachWithMailSender(messages);
+        int sent = 0;
+        for (int i = 0; i < positions.size(); i++) {
+            NotificationMessage notification = notifications.get(positions.get(i));
+            MessagingException error = errors.get(i);
+            if (error == null) {
+                results[positions.get(i)] = new DeliveryResult(notification, true, null);
+                sent++;
+            } else {
+                log.error("❌ Error enviando email a {}: {}", notification.getUserEmail(), error.getMessage());
+                results[positions.get(i)] = new DeliveryResult(notification, false, error.getMessage());
+            }
+        }
+        
+        log.info("✅ {} de {} emails del lote enviados", sent, notifications.size());
+        return List.of(results);
+    }
+    
+    private List<MessagingException> sendEachWithMailSender(List<MimeMessage> messages) {
+        List<MessagingException> errors = new ArrayList<>(messages.size());
+        for (MimeMessage message : messages) {
+            try {
+                mailSender.send(message);
+                errors.add(null);
+            } catch (MailException e) {
+                errors.add(new MessagingException(e.getMessage(), e));
+            }
+        }
+        return errors;
+    }
+    
+    private MimeMessage buildMessage(NotificationMessage notification) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        
+        helper.setTo(notification.getUserEmail());
+        helper.setSubject(notification.getSubject());
+        
+        // Usar template de Thymeleaf
+        String htmlContent = generateEmailContent(notification);
+        helper.setText(htmlContent, true);
+        
+        return message;
+    }
+    
     private String generateEmailContent(NotificationMessage notification) {
         Context context = new Context();
         
@@ -94,4 +170,13 @@ public class EmailService {
             return "musician-assignment";
         }
     }
+    
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DeliveryResult {
+        private NotificationMessage notification;
+        private boolean sent;
+        private String error;
+    }
 }
@@ -1,32 +1,234 @@
 package com.backend.infraestructure.services;
 
 import com.backend.application.dto.NotificationMessage;
+import com.backend.domain.model.NotificationClaim;
 import com.backend.infraestructure.config.RabbitMQConfig;
+import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class NotificationConsumer {
     
     private final EmailService emailService;
+    private final NotificationConsumerMetrics metrics;
+    private final NotificationDeliveryFailureHandler failureHandler;
+    private final NotificationDeduplicator deduplicator;
+    
+    // Modo por defecto: un mensaje por entrega en el contenedor estándar
+    @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE,
+                    autoStartup = "#{!${app.notifications.consumer.batch:false}}")
+    public void processNotification(NotificationMessage notification,
+                                    @Header(name = RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, required = false) Integer previousAttempts) {
+        metrics.batchStarted(1);
+        long start = System.currentTimeMillis();
+        // La reserva queda a nombre de esta entrega: solo ella puede liberarla
+        String owner = UUID.randomUUID().toString();
+        try {
+            // Los duplicados se descartan antes de llegar a SMTP; solo con la reserva se envía
+            if (claim(notification, previousAttempts, owner)) {
+                deliver(notification, previousAttempts, owner);
+            }
+        } finally {
+            metrics.batchFinished(System.currentTimeMillis() - start);
+        }
+    }
     
-    @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE)
-    public void processNotification(NotificationMessage notification) {
+    /**
+     * Modo lote (app.notifications.consumer.batch=true): cada consumidor recibe hasta batch-size
+     * mensajes, los envía por una sola conexión SMTP y confirma cada uno por separado,
+     * así un fallo no obliga a reprocesar el resto del lote
+     */
+    @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE,
+                    containerFactory = RabbitMQConfig.NOTIFICATION_BATCH_CONTAINER_FACTORY,
+                    autoStartup = "${app.notifications.consumer.batch:false}")
+    public void processNotificationBatch(List<Message<NotificationMessage>> messages, Channel channel) throws IOException {
+        metrics.batchStarted(messages.size());
+        long start = System.currentTimeMillis();
+        try {
+            log.info("📥 Procesando lote de {} notificaciones", messages.size());
+            // Un token para todas las reservas de este lote
+            String owner = UUID.randomUUID().toString();
+            
+            // Los duplicados se confirman sin enviarse; solo los reservados van a SMTP
+            List<Message<NotificationMessage>> claimed = new ArrayList<>();
+            for (Message<NotificationMessage> message : messages) {
+                long deliveryTag = message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+                try {
+                    if (claim(message.getPayload(), attemptsHeader(message), owner)) {
+                        claimed.add(message);
+                    } else {
+                        channel.basicAck(deliveryTag, false);
+                    }
+                } catch (Exception e) {
+                    // Sin reserva propia: no se libera nada, solo se devuelve a la cola
+                    log.error("❌ Error reprogramando email para {}: {}", message.getPayload().getUserEmail(), e.getMessage());
+                    requeue(channel, message);
+                }
+            }
+            if (claimed.isEmpty()) {
+                return;
+            }
+            
+            // Todo el lote por una misma conexión SMTP del pool
+            List<EmailService.DeliveryResult> results = null;
+            int resolved = 0;
+            try {
+                try {
+                    results = emailService.sendNotificationEmails(claimed.stream().map(Message::getPayload).toList());
+                } catch (SmtpPoolExhaustedException e) {
+                    // Ningún email salió: el lote entero se reprograma sin gastar intentos
+                    log.warn("⚠️ {}: se reprograma el lote de {} notificaciones", e.getMessage(), claimed.size());
+                    for (; resolved < claimed.size(); resolved++) {
+                        deferBatchMessage(claimed.get(resolved), channel, e.getMessage(), owner);
+                    }
+                    return;
+                }
+                
+                for (; resolved < claimed.size(); resolved++) {
+                    Message<NotificationMessage> message = claimed.get(resolved);
+                    long deliveryTag = message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+                    EmailService.DeliveryResult result = results.get(resolved);
+                    if (result.isSent()) {
+                        deduplicator.delivered(message.getPayload());
+                        channel.basicAck(deliveryTag, false);
+                        metrics.messageSucceeded();
+                        continue;
+                    }
+                    
+                    metrics.messageFailed();
+                    deduplicator.release(message.getPayload(), owner);
+                    try {
+                        failureHandler.handleFailure(message.getPayload(), attemptsOf(attemptsHeader(message)) + 1, result.getError());
+                        channel.basicAck(deliveryTag, false);
+                    } catch (Exception e) {
+                        // Sin poder republicar se devuelve a la cola para no perderlo
+                        log.error("❌ Error reprogramando email para {}: {}", message.getPayload().getUserEmail(), e.getMessage());
+                        requeue(channel, message);
+                    }
+                }
+            } catch (Exception e) {
+                // Con ack manual nada se confirma solo: los mensajes pendientes vuelven a la cola
+                log.error("❌ Error procesando lote, {} notificaciones vuelven a la cola: {}",
+                    claimed.size() - resolved, e.getMessage());
+                for (int i = resolved; i < claimed.size(); i++) {
+                    requeueBatchMessage(claimed.get(i), results != null && results.get(i).isSent(), channel, owner);
+                }
+            }
+        } finally {
+            metrics.batchFinished(System.currentTimeMillis() - start);
+        }
+    }
+    
+    /**
+     * Envía una notificación ya reservada. Solo aquí se libera la reserva: si el envío falla
+     * el reintento podrá reservarla de nuevo
+     */
+    private void deliver(NotificationMessage notification, Integer previousAttempts, String owner) {
         try {
             log.info("📥 Procesando notificación de email: {}", notification.getUserEmail());
             
             // Enviar email
             emailService.sendNotificationEmail(notification);
-            
-            log.info("✅ Email procesado exitosamente: {}", notification.getUserEmail());
-            
+        } catch (SmtpPoolExhaustedException e) {
+            // No se llegó a enviar: se reprograma sin gastar un intento
+            log.warn("⚠️ {}: se reprograma el email para {}", e.getMessage(), notification.getUserEmail());
+            deduplicator.release(notification, owner);
+            metrics.messageDeferred();
+            failureHandler.defer(notification, attemptsOf(previousAttempts), e.getMessage());
+            return;
         } catch (Exception e) {
+            metrics.messageFailed();
             log.error("❌ Error procesando email: {}", e.getMessage());
-            // Aquí podrías implementar reintentos o dead letter queue
+            // Se republica en la cola de reintento (o DLQ) y la entrega actual se confirma;
+            // si la republicación falla la excepción devuelve el mensaje a la cola
+            deduplicator.release(notification, owner);
+            failureHandler.handleFailure(notification, attemptsOf(previousAttempts) + 1, e.getMessage());
+            return;
+        }
+        
+        deduplicator.delivered(notification);
+        metrics.messageSucceeded();
+        log.info("✅ Email procesado exitosamente: {}", notification.getUserEmail());
+    }
+    
+    /**
+     * true si este consumidor obtuvo la reserva y debe enviar la notificación. Un duplicado ya
+     * enviado se descarta; si otro consumidor la está enviando se reprograma sin gastar un intento,
+     * por si aquel falla. Cada mensaje no reservado sale del contador de en curso una sola vez
+     */
+    private boolean claim(NotificationMessage notification, Integer previousAttempts, String owner) {
+        NotificationClaim claim = deduplicator.tryClaim(notification, owner);
+        if (claim == NotificationClaim.CLAIMED) {
+            return true;
+        }
+        
+        if (claim == NotificationClaim.ALREADY_SENT) {
+            metrics.duplicateSkipped();
+            log.info("⏭️ Notificación duplicada descartada para {}", notification.getUserEmail());
+        } else {
+            try {
+                failureHandler.defer(notification, attemptsOf(previousAttempts), "Entrega en curso en otro consumidor");
+            } finally {
+                metrics.messageDeferred();
+            }
         }
+        return false;
+    }
+    
+    /**
+     * Devuelve a la cola un mensaje del lote que quedó sin confirmar. Si su email ya salió se marca
+     * como enviado para que la reentrega lo descarte; si no, se libera la reserva
+     */
+    private void requeueBatchMessage(Message<NotificationMessage> message, boolean sent, Channel channel, String owner) {
+        if (sent) {
+            deduplicator.delivered(message.getPayload());
+        } else {
+            deduplicator.release(message.getPayload(), owner);
+        }
+        metrics.messageFailed();
+        requeue(channel, message);
+    }
+    
+    // Con el canal cerrado el broker reentrega por sí mismo los mensajes sin confirmar
+    private void requeue(Channel channel, Message<NotificationMessage> message) {
+        try {
+            channel.basicNack(message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class), false, true);
+        } catch (Exception e) {
+            log.error("❌ No se pudo devolver a la cola el email para {}: {}", message.getPayload().getUserEmail(), e.getMessage());
+        }
+    }
+    
+    private void deferBatchMessage(Message<NotificationMessage> message, Channel channel, String reason, String owner) {
+        long deliveryTag = message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+        deduplicator.release(message.getPayload(), owner);
+        metrics.messageDeferred();
+        try {
+            failureHandler.defer(message.getPayload(), attemptsOf(attemptsHeader(message)), reason);
+            channel.basicAck(deliveryTag, false);
+        } catch (Exception e) {
+            log.error("❌ Error reprogramando email para {}: {}", message.getPayload().getUserEmail(), e.getMessage());
+            requeue(channel, message);
+        }
+    }
+    
+    private static Integer attemptsHeader(Message<NotificationMessage> message) {
+        return message.getHeaders().get(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, Integer.class);
+    }
+    
+    private static int attemptsOf(Integer previousAttempts) {
+        return previousAttempts != null ? previousAttempts : 0;
     }
 }
@@ -0,0 +1,116 @@
+package com.backend.infraestructure.services;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contadores del consumidor de notificaciones: mensajes en curso, procesados, fallidos,
+ * reintentados, enviados a la DLQ, duplicados descartados, reprogramados sin gastar intento
+ * y throughput del último minuto (ventana deslizante de 60 contadores de un segundo)
+ */
+@Component
+public class NotificationConsumerMetrics {
+
+    private static final int WINDOW_SECONDS = 60;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong duplicatesSkipped = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong lastBatchMillis = new AtomicLong();
+
+    private final long[] windowSeconds = new long[WINDOW_SECONDS];
+    private final long[] windowCounts = new long[WINDOW_SECONDS];
+
+    public void batchStarted(int size) {
+        inFlight.addAndGet(size);
+    }
+
+    public void messageSucceeded() {
+        inFlight.decrementAndGet();
+        processed.incrementAndGet();
+        recordCompletion();
+    }
+
+    public void messageFailed() {
+        inFlight.decrementAndGet();
+        failed.incrementAndGet();
+        recordCompletion();
+    }
+
+    public void duplicateSkipped() {
+        inFlight.decrementAndGet();
+        duplicatesSkipped.incrementAndGet();
+    }
+
+    // Reprogramado sin intentar el envío ni gastar un intento
+    public void messageDeferred() {
+        inFlight.decrementAndGet();
+        deferred.incrementAndGet();
+    }
+
+    public void messageRetried() {
+        retried.incrementAndGet();
+    }
+
+    public void messageDeadLettered() {
+        deadLettered.incrementAndGet();
+    }
+
+    public void batchFinished(long elapsedMillis) {
+        batches.incrementAndGet();
+        lastBatchMillis.set(elapsedMillis);
+    }
+
+    public ConsumerStats getStats() {
+        return new ConsumerStats(inFlight.get(), processed.get(), failed.get(), retried.get(), deadLettered.get(),
+            duplicatesSkipped.get(), deferred.get(), batches.get(), lastBatchMillis.get(), messagesPerSecond());
+    }
+
+    private synchronized void recordCompletion() {
+        long second = System.currentTimeMillis() / 1000;
+        int slot = (int) (second % WINDOW_SECONDS);
+        if (windowSeconds[slot] != second) {
+            windowSeconds[slot] = second;
+            windowCounts[slot] = 0;
+        }
+        windowCounts[slot]++;
+    }
+
+    private synchronized double messagesPerSecond() {
+        long now = System.currentTimeMillis() / 1000;
+        long total = 0;
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            if (now - windowSeconds[i] < WINDOW_SECONDS) {
+                total += windowCounts[i];
+            }
+        }
+        return (double) total / WINDOW_SECONDS;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ConsumerStats {
+        private int inFlight;
+        private long processed;
+        private long failed;
+        private long retried;
+        private long deadLettered;
+        private long duplicatesSkipped;
+        private long deferred;
+        private long batches;
+        private long lastBatchMillis;
+        private double messagesPerSecond;
+    }
+}
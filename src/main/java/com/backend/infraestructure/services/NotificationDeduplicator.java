@@ -0,0 +1,125 @@
+package com.backend.infraestructure.services;
+
+import com.backend.application.dto.NotificationMessage;
+import com.backend.domain.model.NotificationClaim;
+import com.backend.domain.port.NotificationDedupUseCases;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Evita enviar dos veces la misma notificación (reentregas, PUT de asignaciones repetidos).
+ * Las claves ya enviadas se recuerdan en una LRU acotada, así un duplicado se descarta sin salir
+ * del proceso; notification_dedup (con índice TTL) comparte las reservas entre nodos.
+ * Si MongoDB no responde se envía igualmente: es preferible un duplicado a perder el aviso.
+ */
+@Component
+@Slf4j
+public class NotificationDeduplicator {
+
+    private final NotificationDedupUseCases dedupUseCases;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration lease;
+
+    // Claves enviadas y su caducidad, en orden de acceso
+    private final Map<String, Long> sentKeys;
+
+    public NotificationDeduplicator(NotificationDedupUseCases dedupUseCases,
+                                    @Value("${app.notifications.dedup.enabled:true}") boolean enabled,
+                                    @Value("${app.notifications.dedup.ttl-seconds:3600}") long ttlSeconds,
+                                    @Value("${app.notifications.dedup.lease-seconds:120}") long leaseSeconds,
+                                    @Value("${app.notifications.dedup.max-entries:10000}") int maxEntries) {
+        this.dedupUseCases = dedupUseCases;
+        this.enabled = enabled;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.sentKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Reserva la notificación antes de enviarla. La reserva dura lease-seconds: si el consumidor
+     * cae sin confirmar, la reentrega podrá reservarla de nuevo al caducar
+     * @param owner token de esta entrega; el mismo debe usarse al liberar
+     */
+    public NotificationClaim tryClaim(NotificationMessage notification, String owner) {
+        if (!enabled) {
+            return NotificationClaim.CLAIMED;
+        }
+
+        String key = keyOf(notification);
+        if (isKnownSent(key)) {
+            return NotificationClaim.ALREADY_SENT;
+        }
+
+        try {
+            NotificationClaim claim = dedupUseCases.claim(key, owner, lease);
+            if (claim == NotificationClaim.ALREADY_SENT) {
+                remember(key);
+            }
+            return claim;
+        } catch (Exception e) {
+            log.warn("⚠️ No se pudo reservar la notificación {} en MongoDB, se envía sin deduplicar: {}", key, e.getMessage());
+            return NotificationClaim.CLAIMED;
+        }
+    }
+
+    public void delivered(NotificationMessage notification) {
+        if (!enabled) {
+            return;
+        }
+
+        String key = keyOf(notification);
+        remember(key);
+        try {
+            dedupUseCases.markSent(key, ttl);
+        } catch (Exception e) {
+            log.warn("⚠️ No se pudo marcar como enviada la notificación {}: {}", key, e.getMessage());
+        }
+    }
+
+    // Tras un fallo la reserva propia se libera para que el reintento pueda enviarla
+    public void release(NotificationMessage notification, String owner) {
+        if (!enabled) {
+            return;
+        }
+
+        String key = keyOf(notification);
+        try {
+            dedupUseCases.release(key, owner);
+        } catch (Exception e) {
+            log.warn("⚠️ No se pudo liberar la notificación {}: {}", key, e.getMessage());
+        }
+    }
+
+    // Los mensajes publicados antes de existir la clave la calculan al consumirse
+    private static String keyOf(NotificationMessage notification) {
+        return notification.getNotificationKey() != null ?
+            notification.getNotificationKey() : NotificationMessage.keyOf(notification);
+    }
+
+    private synchronized boolean isKnownSent(String key) {
+        Long expiresAt = sentKeys.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt < System.currentTimeMillis()) {
+            sentKeys.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    private synchronized void remember(String key) {
+        sentKeys.put(key, System.currentTimeMillis() + ttl.toMillis());
+    }
+}
@@ -0,0 +1,84 @@
+package com.backend.infraestructure.services;
+
+import com.backend.application.dto.NotificationMessage;
+import com.backend.infraestructure.config.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Decide el destino de una notificación cuyo email falló: la siguiente cola de reintento
+ * (10s, 60s, 300s) o la DLQ si ya agotó los intentos. La espera la hace el TTL de la cola,
+ * así que el hilo del consumidor queda libre de inmediato.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDeliveryFailureHandler {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final NotificationConsumerMetrics metrics;
+
+    /**
+     * @param failedAttempts intentos fallidos contando el actual (1 en el primer fallo)
+     */
+    public void handleFailure(NotificationMessage notification, int failedAttempts, String error) {
+        List<Integer> delays = RabbitMQConfig.NOTIFICATION_RETRY_DELAYS_SECONDS;
+        String reason = error != null ? error : "Error desconocido";
+
+        if (failedAttempts <= delays.size()) {
+            int delaySeconds = delays.get(failedAttempts - 1);
+            rabbitTemplate.convertAndSend(
+                RabbitMQConfig.NOTIFICATION_RETRY_EXCHANGE,
+                RabbitMQConfig.retryQueueName(delaySeconds),
+                notification,
+                message -> {
+                    message.getMessageProperties().setHeader(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, failedAttempts);
+                    message.getMessageProperties().setHeader(RabbitMQConfig.NOTIFICATION_ERROR_HEADER, reason);
+                    return message;
+                });
+            metrics.messageRetried();
+            log.warn("🔁 Email para {} reintentado en {} s (intento {} de {})",
+                notification.getUserEmail(), delaySeconds, failedAttempts + 1, delays.size() + 1);
+            return;
+        }
+
+        rabbitTemplate.convertAndSend(
+            RabbitMQConfig.NOTIFICATION_DEAD_LETTER_EXCHANGE,
+            RabbitMQConfig.NOTIFICATION_DEAD_LETTER_ROUTING_KEY,
+            notification,
+            message -> {
+                message.getMessageProperties().setHeader(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, failedAttempts);
+                message.getMessageProperties().setHeader(RabbitMQConfig.NOTIFICATION_ERROR_HEADER, reason);
+                message.getMessageProperties().setHeader(RabbitMQConfig.NOTIFICATION_FAILED_AT_HEADER, Instant.now().toString());
+                return message;
+            });
+        metrics.messageDeadLettered();
+        log.error("❌ Email para {} enviado a la DLQ tras {} intentos: {}",
+            notification.getUserEmail(), failedAttempts, reason);
+    }
+
+    /**
+     * Reprograma una notificación que no llegó a intentarse (p. ej. sin conexión SMTP libre):
+     * va a la primera cola de reintento con el mismo contador, así que no gasta un intento
+     * @param previousAttempts intentos fallidos hasta ahora (0 si nunca falló)
+     */
+    public void defer(NotificationMessage notification, int previousAttempts, String reason) {
+        int delaySeconds = RabbitMQConfig.NOTIFICATION_RETRY_DELAYS_SECONDS.get(0);
+        rabbitTemplate.convertAndSend(
+            RabbitMQConfig.NOTIFICATION_RETRY_EXCHANGE,
+            RabbitMQConfig.retryQueueName(delaySeconds),
+            notification,
+            message -> {
+                message.getMessageProperties().setHeader(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, previousAttempts);
+                message.getMessageProperties().setHeader(RabbitMQConfig.NOTIFICATION_ERROR_HEADER, reason);
+                return message;
+            });
+        log.info("⏳ Email para {} reprogramado en {} s sin contar intento: {}",
+            notification.getUserEmail(), delaySeconds, reason);
+    }
+}
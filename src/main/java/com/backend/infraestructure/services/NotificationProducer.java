@@ -1,42 +1,267 @@
 package com.backend.infraestructure.services;
 
 import com.backend.application.dto.NotificationMessage;
+import com.backend.application.dto.PublishResult;
 import com.backend.infraestructure.config.RabbitMQConfig;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Publica notificaciones con publisher confirms sin bloquear al llamador: cada mensaje queda
+ * pendiente hasta que llega su confirmación por el ConfirmCallback. Un nack, un mensaje devuelto
+ * por no tener cola destino o uno sin confirmar dentro del timeout se vuelve a publicar; si agota
+ * los intentos se guarda en la DLQ, desde donde se puede reenviar con DeadLetterService.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
-public class NotificationProducer {
-    
+public class NotificationProducer implements RabbitTemplate.ConfirmCallback {
+
     private final RabbitTemplate rabbitTemplate;
-    
+
+    // Publicaciones esperando confirmación, por id de correlación
+    private final Map<String, PendingPublish> pending = new ConcurrentHashMap<>();
+    // Fallos pendientes de reintento o de ir a la DLQ: se tratan fuera del hilo del callback
+    private final Queue<PendingPublish> failures = new ConcurrentLinkedQueue<>();
+
+    @Value("${app.notifications.publish.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMillis;
+
+    @Value("${app.notifications.publish.max-attempts:3}")
+    private int maxAttempts;
+
+    @PostConstruct
+    public void registerConfirmCallback() {
+        rabbitTemplate.setConfirmCallback(this);
+    }
+
     public void sendNotificationToQueue(NotificationMessage notification) {
+        publishBatch(List.of(notification)).thenAccept(result -> {
+            if (result.isAllConfirmed()) {
+                log.info("📤 Notificación enviada a la cola: {} - {}",
+                    notification.getType(), notification.getUserEmail());
+            }
+        });
+    }
+
+    public CompletableFuture<PublishResult> sendMultipleNotificationsToQueue(List<NotificationMessage> notifications) {
+        return publishBatch(notifications).thenApply(result -> {
+            log.info("📤 {} de {} notificaciones confirmadas por el broker ({} ms)",
+                result.getConfirmed(), result.getTotal(), result.getElapsedMillis());
+            return result;
+        });
+    }
+
+    /**
+     * Publica todo el lote en un único canal y vuelve sin esperar al broker. El futuro se completa
+     * cuando cada mensaje tiene su resultado final: confirmado (quizá tras algún reintento) o
+     * guardado en la DLQ con el motivo del último fallo.
+     */
+    public CompletableFuture<PublishResult> publishBatch(List<NotificationMessage> notifications) {
+        PendingBatch batch = new PendingBatch(notifications.size());
+        List<PendingPublish> publishes = new ArrayList<>();
+        for (NotificationMessage notification : notifications) {
+            if (notification.getNotificationKey() == null) {
+                notification.setNotificationKey(NotificationMessage.keyOf(notification));
+            }
+            publishes.add(new PendingPublish(notification, batch));
+        }
+        publish(publishes);
+        return batch.future;
+    }
+
+    /**
+     * Llega por el hilo de confirmaciones del canal: aquí no se usa el RabbitTemplate
+     */
+    @Override
+    public void confirm(CorrelationData correlation, boolean ack, String cause) {
+        // Los reintentos del consumidor y los envíos a la DLQ se publican sin correlación
+        if (correlation == null) {
+            return;
+        }
+        PendingPublish publish = pending.remove(correlation.getId());
+        if (publish == null) {
+            // Ya se dio por perdida al vencer el timeout
+            return;
+        }
+        if (correlation.getReturned() != null) {
+            failed(publish, "Devuelto por el broker: " + correlation.getReturned().getReplyText());
+        } else if (!ack) {
+            failed(publish, "Nack del broker: " + cause);
+        } else {
+            publish.batch.confirmed();
+        }
+    }
+
+    /**
+     * Da por fallidas las publicaciones sin confirmación dentro del timeout y vuelve a publicar
+     * o manda a la DLQ las que fallaron
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.publish.confirm-check-ms:1000}")
+    public void processPending() {
+        long now = System.currentTimeMillis();
+        pending.forEach((correlationId, publish) -> {
+            if (publish.deadline <= now && pending.remove(correlationId, publish)) {
+                failed(publish, "Sin confirmación en " + confirmTimeoutMillis + " ms");
+            }
+        });
+
+        List<PendingPublish> retries = new ArrayList<>();
+        PendingPublish publish;
+        while ((publish = failures.poll()) != null) {
+            if (publish.attempts < maxAttempts) {
+                log.warn("🔁 Notificación para {} republicada (intento {} de {}): {}",
+                    publish.notification.getUserEmail(), publish.attempts + 1, maxAttempts, publish.lastError);
+                retries.add(publish);
+            } else {
+                deadLetter(publish);
+            }
+        }
+        if (!retries.isEmpty()) {
+            publish(retries);
+        }
+    }
+
+    int pendingConfirms() {
+        return pending.size();
+    }
+
+    private void publish(List<PendingPublish> publishes) {
+        long deadline = System.currentTimeMillis() + confirmTimeoutMillis;
+        // Los no publicados por un fallo a mitad de lote también gastan el intento
+        for (PendingPublish publish : publishes) {
+            publish.attempts++;
+            publish.deadline = deadline;
+        }
+        AtomicInteger sent = new AtomicInteger();
+        try {
+            // invoke mantiene el mismo canal para todas las publicaciones del lote
+            rabbitTemplate.invoke(operations -> {
+                for (PendingPublish publish : publishes) {
+                    CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+                    // Se registra antes de enviar: la confirmación puede llegar antes de que vuelva el envío
+                    pending.put(correlation.getId(), publish);
+                    try {
+                        operations.convertAndSend(
+                            RabbitMQConfig.NOTIFICATION_EXCHANGE,
+                            RabbitMQConfig.NOTIFICATION_ROUTING_KEY,
+                            publish.notification,
+                            correlation
+                        );
+                    } catch (RuntimeException e) {
+                        pending.remove(correlation.getId());
+                        throw e;
+                    }
+                    sent.incrementAndGet();
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("❌ Error publicando lote de notificaciones: {}", e.getMessage());
+            for (int i = sent.get(); i < publishes.size(); i++) {
+                failed(publishes.get(i), "No publicado: " + e.getMessage());
+            }
+        }
+    }
+
+    private void failed(PendingPublish publish, String reason) {
+        publish.lastError = reason;
+        failures.add(publish);
+    }
+
+    private void deadLetter(PendingPublish publish) {
+        NotificationMessage notification = publish.notification;
         try {
             rabbitTemplate.convertAndSend(
-                RabbitMQConfig.NOTIFICATION_EXCHANGE,
-                RabbitMQConfig.NOTIFICATION_ROUTING_KEY,
-                notification
-            );
-            
-            log.info("📤 Notificación enviada a la cola: {} - {}", 
-                notification.getType(), notification.getUserEmail());
-                
+                RabbitMQConfig.NOTIFICATION_DEAD_LETTER_EXCHANGE,
+                RabbitMQConfig.NOTIFICATION_DEAD_LETTER_ROUTING_KEY,
+                notification,
+                message -> {
+                    message.getMessageProperties().setHeader(RabbitMQConfig.NOTIFICATION_ERROR_HEADER, publish.lastError);
+                    message.getMessageProperties().setHeader(RabbitMQConfig.NOTIFICATION_FAILED_AT_HEADER, Instant.now().toString());
+                    return message;
+                });
+            log.error("❌ Notificación para {} enviada a la DLQ tras {} publicaciones fallidas: {}",
+                notification.getUserEmail(), publish.attempts, publish.lastError);
         } catch (Exception e) {
-            log.error("❌ Error enviando notificación a la cola: {}", e.getMessage());
+            log.error("❌ Notificación para {} perdida, tampoco se pudo guardar en la DLQ: {} ({})",
+                notification.getUserEmail(), publish.lastError, e.getMessage());
         }
+        publish.batch.failed(notification, publish.lastError);
     }
-    
-    public void sendMultipleNotificationsToQueue(List<NotificationMessage> notifications) {
-        for (NotificationMessage notification : notifications) {
-            sendNotificationToQueue(notification);
+
+    private static class PendingPublish {
+        private final NotificationMessage notification;
+        private final PendingBatch batch;
+        private volatile int attempts;
+        private volatile long deadline;
+        private volatile String lastError;
+
+        PendingPublish(NotificationMessage notification, PendingBatch batch) {
+            this.notification = notification;
+            this.batch = batch;
+        }
+    }
+
+    /**
+     * Resultado de un lote que se completa con el último mensaje resuelto
+     */
+    private static class PendingBatch {
+        private final long start = System.currentTimeMillis();
+        private final int total;
+        private final AtomicInteger confirmed = new AtomicInteger();
+        private final List<PublishResult.FailedPublish> failed = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger remaining;
+        private final CompletableFuture<PublishResult> future = new CompletableFuture<>();
+
+        PendingBatch(int total) {
+            this.total = total;
+            this.remaining = new AtomicInteger(total);
+            if (total == 0) {
+                complete();
+            }
+        }
+
+        void confirmed() {
+            confirmed.incrementAndGet();
+            resolved();
+        }
+
+        void failed(NotificationMessage notification, String reason) {
+            failed.add(new PublishResult.FailedPublish(notification, reason));
+            resolved();
+        }
+
+        private void resolved() {
+            if (remaining.decrementAndGet() == 0) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            List<PublishResult.FailedPublish> failedCopy;
+            synchronized (failed) {
+                failedCopy = new ArrayList<>(failed);
+            }
+            future.complete(new PublishResult(total, confirmed.get(), failedCopy, System.currentTimeMillis() - start));
         }
-        
-        log.info("📤 {} notificaciones enviadas a la cola", notifications.size());
     }
 }
@@ -0,0 +1,12 @@
+package com.backend.infraestructure.services;
+
+/**
+ * No quedó ninguna conexión SMTP libre a tiempo. No se intentó enviar nada: el consumidor
+ * reprograma el lote sin gastar un intento de entrega
+ */
+public class SmtpPoolExhaustedException extends RuntimeException {
+
+    public SmtpPoolExhaustedException(String message) {
+        super(message);
+    }
+}
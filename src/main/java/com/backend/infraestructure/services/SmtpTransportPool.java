@@ -0,0 +1,260 @@
+package com.backend.infraestructure.services;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de conexiones SMTP autenticadas (TCP + STARTTLS + AUTH una sola vez por conexión).
+ * Cada conexión envía varios mensajes; se recicla al fallar, al superar el máximo de mensajes
+ * o tras quedar inactiva más del tiempo configurado (los servidores cortan las sesiones ociosas).
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+
+    // LIFO: se reutiliza primero la conexión usada más recientemente
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final int maxConnections;
+
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong connectionsClosed = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong messagesFailed = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${app.mail.pool.max-connections:4}") int maxConnections,
+                             @Value("${app.notifications.consumer.max-concurrency:4}") int consumerConcurrency,
+                             @Value("${app.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                             @Value("${app.mail.pool.idle-timeout-ms:60000}") long idleTimeoutMillis,
+                             @Value("${app.mail.pool.borrow-timeout-ms:10000}") long borrowTimeoutMillis) {
+        this.mailSender = mailSender;
+        // Cada consumidor envía su lote por una conexión: con menos conexiones que consumidores siempre habría espera
+        if (maxConnections < consumerConcurrency) {
+            log.warn("⚠️ app.mail.pool.max-connections={} menor que la concurrencia del consumidor ({}), se usa {}",
+                maxConnections, consumerConcurrency, consumerConcurrency);
+        }
+        this.maxConnections = Math.max(maxConnections, consumerConcurrency);
+        this.permits = new Semaphore(this.maxConnections, true);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    /**
+     * @throws SmtpPoolExhaustedException si no hay una conexión libre en borrow-timeout-ms
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        MessagingException error = sendAll(List.of(message)).get(0);
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Envía los mensajes reutilizando una misma conexión del pool. Devuelve una lista alineada
+     * con la entrada: null si el mensaje se envió o la excepción con la que falló.
+     * El hueco del pool se reserva una sola vez para todo el lote: si no llega a tiempo se lanza
+     * SmtpPoolExhaustedException sin enviar nada. Un rechazo del servidor (p. ej. destinatario
+     * inválido) no invalida la conexión; cualquier otro error la descarta y el mensaje se reintenta
+     * una vez con una conexión nueva.
+     */
+    public List<MessagingException> sendAll(List<MimeMessage> messages) {
+        acquirePermit();
+
+        List<MessagingException> results = new ArrayList<>(messages.size());
+        PooledTransport pooled = null;
+        try {
+            for (MimeMessage message : messages) {
+                MessagingException error = null;
+                for (int attempt = 1; attempt <= 2; attempt++) {
+                    try {
+                        if (pooled == null) {
+                            pooled = obtainConnection();
+                        }
+                        sendWith(pooled, message);
+                        error = null;
+                        break;
+                    } catch (SendFailedException e) {
+                        // Rechazo del servidor tras aceptar la conexión: no se reintenta para no duplicar el email
+                        error = e;
+                        if (!pooled.getTransport().isConnected()) {
+                            close(pooled);
+                            pooled = null;
+                        }
+                        break;
+                    } catch (MessagingException e) {
+                        error = e;
+                        if (pooled != null) {
+                            close(pooled);
+                            pooled = null;
+                        }
+                    }
+                }
+
+                if (error == null) {
+                    messagesSent.incrementAndGet();
+                } else {
+                    messagesFailed.incrementAndGet();
+                }
+                results.add(error);
+
+                // Al alcanzar el máximo de mensajes la conexión se cierra y la siguiente se abre de nuevo
+                if (pooled != null && pooled.getMessagesSent() >= maxMessagesPerConnection) {
+                    close(pooled);
+                    pooled = null;
+                }
+            }
+        } finally {
+            if (pooled != null) {
+                returnToIdle(pooled);
+            }
+            permits.release();
+        }
+        return results;
+    }
+
+    public PoolStats getStats() {
+        return new PoolStats(maxConnections, maxConnections - permits.availablePermits(), idle.size(),
+            connectionsOpened.get(), connectionsClosed.get(), messagesSent.get(), messagesFailed.get(), exhausted.get());
+    }
+
+    /**
+     * Cierra las conexiones ociosas antes de que el servidor las corte
+     */
+    @Scheduled(fixedDelayString = "${app.mail.pool.idle-check-ms:30000}")
+    public void evictIdle() {
+        Iterator<PooledTransport> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            PooledTransport pooled = iterator.next();
+            if (isExpired(pooled) && idle.remove(pooled)) {
+                close(pooled);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            close(pooled);
+        }
+    }
+
+    private void sendWith(PooledTransport pooled, MimeMessage message) throws MessagingException {
+        // Lo mismo que hace JavaMailSenderImpl antes de enviar
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+
+        pooled.getTransport().sendMessage(message, message.getAllRecipients());
+        pooled.setMessagesSent(pooled.getMessagesSent() + 1);
+        pooled.setLastUsedAt(System.currentTimeMillis());
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                exhausted.incrementAndGet();
+                throw new SmtpPoolExhaustedException("No hay conexiones SMTP libres tras " + borrowTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SmtpPoolExhaustedException("Interrumpido esperando una conexión SMTP");
+        }
+    }
+
+    // Con el hueco ya reservado: la conexión ociosa más reciente que siga viva, o una nueva
+    private PooledTransport obtainConnection() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (!isExpired(pooled) && pooled.getTransport().isConnected()) {
+                return pooled;
+            }
+            close(pooled);
+        }
+        return connect();
+    }
+
+    private void returnToIdle(PooledTransport pooled) {
+        if (pooled.getMessagesSent() < maxMessagesPerConnection && pooled.getTransport().isConnected()) {
+            idle.offerFirst(pooled);
+        } else {
+            close(pooled);
+        }
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        // Igual que JavaMailSenderImpl: sin protocolo configurado se usa smtp
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+        Transport transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        connectionsOpened.incrementAndGet();
+
+        long now = System.currentTimeMillis();
+        return new PooledTransport(transport, 0, now);
+    }
+
+    private boolean isExpired(PooledTransport pooled) {
+        return System.currentTimeMillis() - pooled.getLastUsedAt() > idleTimeoutMillis;
+    }
+
+    private void close(PooledTransport pooled) {
+        connectionsClosed.incrementAndGet();
+        try {
+            pooled.getTransport().close();
+        } catch (MessagingException e) {
+            log.debug("Error cerrando conexión SMTP: {}", e.getMessage());
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class PooledTransport {
+        private Transport transport;
+        private int messagesSent;
+        private long lastUsedAt;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PoolStats {
+        private int maxConnections;
+        private int borrowedConnections;
+        private int idleConnections;
+        private long connectionsOpened;
+        private long connectionsClosed;
+        private long messagesSent;
+        private long messagesFailed;
+        private long exhausted; // Lotes reprogramados por no haber conexión libre
+    }
+}
@@ -0,0 +1,113 @@
+package com.backend.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.domain.model.UserModel;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+
+class JwtServiceTests {
+
+    private static final String SECRET = "clave-de-pruebas-con-al-menos-32-bytes!!";
+
+    @Test
+    void generatedTokenVerifiesWithItsClaims() {
+        JwtService jwtService = jwtService(60_000, 10);
+        String token = jwtService.generateToken(user("u1", "ana@example.com"));
+
+        Claims claims = jwtService.verify(token);
+
+        assertThat(claims.getSubject()).isEqualTo("ana@example.com");
+        assertThat(claims.get("userId", String.class)).isEqualTo("u1");
+        assertThat(claims.get("roles", List.class)).containsExactly("MUSICIAN");
+        assertThat(claims.get("tokenVersion", Long.class)).isEqualTo(2L);
+        assertThat(jwtService.extractUserId(token)).isEqualTo("u1");
+        assertThat(jwtService.validateToken(token, "ana@example.com")).isTrue();
+        assertThat(jwtService.validateToken(token, "otro@example.com")).isFalse();
+    }
+
+    @Test
+    void secondVerificationIsServedFromCache() {
+        JwtService jwtService = jwtService(60_000, 10);
+        String token = jwtService.generateToken(user("u1", "ana@example.com"));
+
+        Claims first = jwtService.verify(token);
+        Claims second = jwtService.verify(token);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void tamperedTokenIsRejectedAndNeverCached() {
+        JwtService jwtService = jwtService(60_000, 10);
+        String token = jwtService.generateToken(user("u1", "ana@example.com"));
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtService.verify(tampered)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtService.verify(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        JwtService other = jwtService(60_000, 10);
+        ReflectionTestUtils.setField(other, "secret", "otra-clave-de-pruebas-de-al-menos-32-bytes");
+        other.init();
+        String foreign = other.generateToken(user("u1", "ana@example.com"));
+
+        JwtService jwtService = jwtService(60_000, 10);
+        assertThatThrownBy(() -> jwtService.verify(foreign)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        JwtService jwtService = jwtService(-1_000, 10);
+        String token = jwtService.generateToken(user("u1", "ana@example.com"));
+
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void cachedClaimsAreNotServedAfterExpiration() throws InterruptedException {
+        JwtService jwtService = jwtService(1_000, 10);
+        String token = jwtService.generateToken(user("u1", "ana@example.com"));
+        jwtService.verify(token);
+
+        Thread.sleep(1_100);
+
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void evictsLeastRecentlyVerifiedTokenWhenFull() {
+        JwtService jwtService = jwtService(60_000, 1);
+        String first = jwtService.generateToken(user("u1", "ana@example.com"));
+        String second = jwtService.generateToken(user("u2", "luis@example.com"));
+
+        Claims firstClaims = jwtService.verify(first);
+        jwtService.verify(second);
+
+        assertThat(jwtService.verify(first)).isNotSameAs(firstClaims);
+    }
+
+    private static JwtService jwtService(long expiration, int cacheSize) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expiration", expiration);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheSize", cacheSize);
+        jwtService.init();
+        return jwtService;
+    }
+
+    private static UserModel user(String id, String email) {
+        return new UserModel(id, id, email, "600", List.of(UserModel.Role.MUSICIAN), null, 0L, 2L);
+    }
+}
@@ -0,0 +1,67 @@
+package com.backend.application.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.backend.application.dto.NotificationMessage.NotificationCategory;
+import com.backend.application.dto.NotificationMessage.NotificationType;
+
+class NotificationMessageTests {
+
+    @Test
+    void sameNotificationProducesSameKey() {
+        NotificationMessage first = assignment("u1", NotificationMessage.serviceEventId("s1", 3L));
+        NotificationMessage redelivered = assignment("u1", NotificationMessage.serviceEventId("s1", 3L));
+
+        assertThat(NotificationMessage.keyOf(redelivered)).isEqualTo(NotificationMessage.keyOf(first));
+        assertThat(NotificationMessage.keyOf(first)).hasSize(64);
+    }
+
+    @Test
+    void anotherEventProducesAnotherKeyWithSameContent() {
+        NotificationMessage assigned = assignment("u1", NotificationMessage.serviceEventId("s1", 3L));
+        NotificationMessage reassigned = assignment("u1", NotificationMessage.serviceEventId("s1", 5L));
+
+        assertThat(NotificationMessage.keyOf(reassigned)).isNotEqualTo(NotificationMessage.keyOf(assigned));
+    }
+
+    @Test
+    void recipientAndCategoryArePartOfTheKey() {
+        String eventId = NotificationMessage.serviceEventId("s1", 3L);
+        NotificationMessage assigned = assignment("u1", eventId);
+        NotificationMessage otherUser = assignment("u2", eventId);
+        NotificationMessage removed = assignment("u1", eventId);
+        removed.setCategory(NotificationCategory.REMOVAL);
+
+        assertThat(NotificationMessage.keyOf(otherUser)).isNotEqualTo(NotificationMessage.keyOf(assigned));
+        assertThat(NotificationMessage.keyOf(removed)).isNotEqualTo(NotificationMessage.keyOf(assigned));
+    }
+
+    @Test
+    void remindersAreKeyedByServiceAndRunDate() {
+        NotificationMessage today = assignment("u1", NotificationMessage.reminderEventId("s1", LocalDate.of(2025, 3, 1)));
+        NotificationMessage tomorrow = assignment("u1", NotificationMessage.reminderEventId("s1", LocalDate.of(2025, 3, 2)));
+        NotificationMessage otherService = assignment("u1", NotificationMessage.reminderEventId("s2", LocalDate.of(2025, 3, 1)));
+
+        assertThat(NotificationMessage.keyOf(tomorrow)).isNotEqualTo(NotificationMessage.keyOf(today));
+        assertThat(NotificationMessage.keyOf(otherService)).isNotEqualTo(NotificationMessage.keyOf(today));
+    }
+
+    @Test
+    void eventIdsAreStable() {
+        assertThat(NotificationMessage.serviceEventId("s1", 3L)).isEqualTo("service:s1:v3");
+        assertThat(NotificationMessage.serviceEventId("s1", null)).isEqualTo("service:s1:v0");
+        assertThat(NotificationMessage.reminderEventId("s1", LocalDate.of(2025, 3, 1))).isEqualTo("reminder:s1:2025-03-01");
+    }
+
+    private static NotificationMessage assignment(String userId, String eventId) {
+        NotificationMessage notification = new NotificationMessage(NotificationType.EMAIL, NotificationCategory.ASSIGNMENT,
+            userId, userId + "@example.com", "MUSICIAN", "GUITAR", "Asignación", "Cuerpo", "s1",
+            "2025-03-02", "Iglesia", "2025-03-01");
+        notification.setEventId(eventId);
+        return notification;
+    }
+}
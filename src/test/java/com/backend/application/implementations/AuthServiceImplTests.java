@@ -0,0 +1,74 @@
+package com.backend.application.implementations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import com.backend.application.JwtService;
+import com.backend.application.dto.GoogleLoginResult;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.model.UserUpsertResult;
+import com.backend.domain.port.UserUseCases;
+import com.backend.infraestructure.security.GoogleIdTokenVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceImplTests {
+
+    @Mock
+    private UserUseCases userUseCases;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private GoogleIdTokenVerifier googleIdTokenVerifier;
+
+    @InjectMocks
+    private AuthServiceImpl authService;
+
+    @Test
+    void googleLoginIsOneUpsertPlusTheJwt() {
+        when(googleIdTokenVerifier.verify("id-token")).thenReturn(Jwt.withTokenValue("id-token")
+            .header("alg", "RS256")
+            .subject("google-sub-1")
+            .claim("email", "ana@example.com")
+            .build());
+        UserModel stored = new UserModel();
+        stored.setId("u1");
+        stored.setEmail("ana@example.com");
+        when(userUseCases.upsertByEmail(any())).thenReturn(new UserUpsertResult(stored, true));
+        when(jwtService.generateToken(stored)).thenReturn("jwt");
+
+        GoogleLoginResult login = authService.loginWithGoogle("id-token");
+
+        assertThat(login.isNewUser()).isTrue();
+        assertThat(login.getToken()).isEqualTo("jwt");
+        ArgumentCaptor<UserModel> candidate = ArgumentCaptor.forClass(UserModel.class);
+        verify(userUseCases).upsertByEmail(candidate.capture());
+        assertThat(candidate.getValue().getEmail()).isEqualTo("ana@example.com");
+        assertThat(candidate.getValue().getRoles()).containsExactly(UserModel.Role.MUSICIAN);
+        verify(userUseCases, never()).getUserByEmail(any());
+    }
+
+    @Test
+    void invalidGoogleTokenNeverTouchesUsers() {
+        when(googleIdTokenVerifier.verify("forged")).thenThrow(new IllegalArgumentException("Token de Google inválido"));
+
+        assertThatThrownBy(() -> authService.loginWithGoogle("forged"))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(userUseCases, never()).upsertByEmail(any());
+        verify(jwtService, never()).generateToken(any());
+    }
+}
@@ -0,0 +1,135 @@
+package com.backend.application.implementations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserAssignmentUseCases;
+
+class DirectorAuthorizationServiceImplTests {
+
+    private final ServicesUseCases servicesUseCases = mock(ServicesUseCases.class);
+    private final UserAssignmentUseCases userAssignmentUseCases = mock(UserAssignmentUseCases.class);
+    private final DirectorAuthorizationServiceImpl authorization =
+        new DirectorAuthorizationServiceImpl(servicesUseCases, userAssignmentUseCases, false, 2, 300);
+
+    @Test
+    void missLoadsDirectorIdsOnceThenAnswersFromMemory() {
+        when(servicesUseCases.getDirectorIds("s1")).thenReturn(Set.of("d1"));
+
+        assertThat(authorization.isDirectorOf("d1", "s1")).isTrue();
+        assertThat(authorization.isDirectorOf("m1", "s1")).isFalse();
+        assertThat(authorization.isDirectorOf("d1", "s1")).isTrue();
+
+        verify(servicesUseCases, times(1)).getDirectorIds("s1");
+    }
+
+    @Test
+    void assignmentWriteReplacesTheCachedDirectors() {
+        when(servicesUseCases.getDirectorIds("s1")).thenReturn(Set.of("d1"));
+        authorization.isDirectorOf("d1", "s1");
+
+        authorization.directorsChanged(service("s1", "d2"));
+
+        assertThat(authorization.isDirectorOf("d1", "s1")).isFalse();
+        assertThat(authorization.isDirectorOf("d2", "s1")).isTrue();
+        verify(servicesUseCases, times(1)).getDirectorIds("s1");
+    }
+
+    @Test
+    void loadOverlappingAWriteDoesNotOverwriteIt() {
+        // Mientras se leen los directores antiguos, otra petición persiste d2 como director
+        when(servicesUseCases.getDirectorIds("s1")).thenAnswer(invocation -> {
+            authorization.directorsChanged(service("s1", "d2"));
+            return Set.of("d1");
+        });
+
+        assertThat(authorization.isDirectorOf("d1", "s1")).isTrue();
+        assertThat(authorization.isDirectorOf("d2", "s1")).isTrue();
+        assertThat(authorization.isDirectorOf("d1", "s1")).isFalse();
+    }
+
+    @Test
+    void missingServicesAreNotCached() {
+        when(servicesUseCases.getDirectorIds("ghost")).thenReturn(null);
+
+        assertThat(authorization.isDirectorOf("d1", "ghost")).isFalse();
+        assertThat(authorization.isDirectorOf("d1", "ghost")).isFalse();
+
+        verify(servicesUseCases, times(2)).getDirectorIds("ghost");
+    }
+
+    @Test
+    void leastRecentlyUsedServiceIsEvictedAndInvalidateAllClears() {
+        authorization.directorsChanged(service("s1", "d1"));
+        authorization.directorsChanged(service("s2", "d1"));
+        authorization.isDirectorOf("d1", "s1");
+        authorization.directorsChanged(service("s3", "d1"));
+        when(servicesUseCases.getDirectorIds("s2")).thenReturn(Set.of());
+
+        // s2 era el menos usado: s1 sigue en memoria y s2 se vuelve a leer
+        assertThat(authorization.isDirectorOf("d1", "s1")).isTrue();
+        assertThat(authorization.isDirectorOf("d1", "s2")).isFalse();
+        verify(servicesUseCases, never()).getDirectorIds("s1");
+
+        authorization.invalidateAll();
+        when(servicesUseCases.getDirectorIds("s1")).thenReturn(Set.of());
+        assertThat(authorization.isDirectorOf("d1", "s1")).isFalse();
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        DirectorAuthorizationServiceImpl noTtl = new DirectorAuthorizationServiceImpl(servicesUseCases, userAssignmentUseCases, false, 10, -1);
+        when(servicesUseCases.getDirectorIds("s1")).thenReturn(Set.of("d1"));
+
+        noTtl.isDirectorOf("d1", "s1");
+        noTtl.isDirectorOf("d1", "s1");
+
+        verify(servicesUseCases, times(2)).getDirectorIds("s1");
+    }
+
+    @Test
+    void enabledIndexAnswersFromUserAssignments() {
+        DirectorAuthorizationServiceImpl indexed =
+            new DirectorAuthorizationServiceImpl(servicesUseCases, userAssignmentUseCases, true, 10, 300);
+        when(userAssignmentUseCases.findDirectorIds("s1")).thenReturn(Set.of("d1"));
+
+        assertThat(indexed.isDirectorOf("d1", "s1")).isTrue();
+        assertThat(indexed.isDirectorOf("m1", "s1")).isFalse();
+
+        verify(userAssignmentUseCases, times(1)).findDirectorIds("s1");
+        verifyNoInteractions(servicesUseCases);
+    }
+
+    @Test
+    void serviceMissingFromTheIndexFallsBackToServices() {
+        DirectorAuthorizationServiceImpl indexed =
+            new DirectorAuthorizationServiceImpl(servicesUseCases, userAssignmentUseCases, true, 10, 300);
+        when(userAssignmentUseCases.findDirectorIds("s1")).thenReturn(null);
+        when(servicesUseCases.getDirectorIds("s1")).thenReturn(Set.of("d1"));
+
+        assertThat(indexed.isDirectorOf("d1", "s1")).isTrue();
+        verify(servicesUseCases).getDirectorIds("s1");
+    }
+
+    private static ServiceModel service(String id, String directorId) {
+        UserModel director = new UserModel();
+        director.setId(directorId);
+        ServiceModel service = new ServiceModel();
+        service.setId(id);
+        service.setDirectors(List.of(director));
+        return service;
+    }
+}
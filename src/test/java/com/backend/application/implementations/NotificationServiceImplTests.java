@@ -0,0 +1,110 @@
+package com.backend.application.implementations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.backend.application.INotificationService.EmailNotificationBody;
+import com.backend.application.dto.NotificationMessage;
+import com.backend.domain.model.AssignmentDiff;
+import com.backend.domain.model.AssignmentDiff.AssignmentChange;
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserModel;
+import com.backend.infraestructure.services.NotificationProducer;
+
+class NotificationServiceImplTests {
+
+    private NotificationProducer notificationProducer;
+    private NotificationServiceImpl notificationService;
+    private ServiceModel service;
+
+    @BeforeEach
+    void setUp() {
+        notificationProducer = mock(NotificationProducer.class);
+        notificationService = new NotificationServiceImpl(notificationProducer);
+        service = new ServiceModel();
+        service.setId("s1");
+        service.setServiceDate(LocalDate.of(2025, 3, 2));
+        service.setLocation("Templo");
+    }
+
+    @Test
+    void addedAssignmentsBecomeOneQueuedBatch() {
+        AssignmentDiff diff = new AssignmentDiff(List.of(
+            new AssignmentChange(person("ana"), UserModel.Role.DIRECTOR, null),
+            new AssignmentChange(person("luis"), UserModel.Role.MUSICIAN, "BASS")), List.of());
+
+        List<EmailNotificationBody> emails = notificationService.generateAssignmentNotifications(service, diff);
+
+        assertThat(emails).extracting(EmailNotificationBody::getUserEmail)
+            .containsExactly("ana@example.com", "luis@example.com");
+        assertThat(emails.get(1).getInstrument()).isEqualTo("BASS");
+        assertThat(emails.get(0).getSubject()).contains("02/03/2025");
+
+        List<NotificationMessage> queued = queuedBatch();
+        assertThat(queued).hasSize(2);
+        assertThat(queued).allMatch(message -> message.getCategory() == NotificationMessage.NotificationCategory.ASSIGNMENT);
+        assertThat(queued.get(0).getServiceId()).isEqualTo("s1");
+    }
+
+    @Test
+    void removalsUseTheRemovedSnapshot() {
+        AssignmentDiff diff = new AssignmentDiff(List.of(),
+            List.of(new AssignmentChange(person("marta"), UserModel.Role.MUSICIAN, "PIANO")));
+
+        List<EmailNotificationBody> emails = notificationService.generateRemovalNotifications(service, diff);
+
+        assertThat(emails).singleElement()
+            .satisfies(email -> {
+                assertThat(email.getUserEmail()).isEqualTo("marta@example.com");
+                assertThat(email.getUserRole()).isEqualTo("MUSICIAN");
+            });
+        assertThat(queuedBatch()).singleElement()
+            .extracting(NotificationMessage::getCategory).isEqualTo(NotificationMessage.NotificationCategory.REMOVAL);
+    }
+
+    @Test
+    void everyServiceWriteIsItsOwnNotificationEvent() {
+        service.setVersion(4L);
+        AssignmentDiff diff = new AssignmentDiff(List.of(
+            new AssignmentChange(person("ana"), UserModel.Role.DIRECTOR, null)), List.of());
+
+        notificationService.generateAssignmentNotifications(service, diff);
+
+        assertThat(queuedBatch()).singleElement()
+            .extracting(NotificationMessage::getEventId).isEqualTo("service:s1:v4");
+    }
+
+    @Test
+    void emptyDiffPublishesNothing() {
+        AssignmentDiff diff = new AssignmentDiff(List.of(), List.of());
+
+        assertThat(notificationService.generateAssignmentNotifications(service, diff)).isEmpty();
+        assertThat(notificationService.generateRemovalNotifications(service, diff)).isEmpty();
+        verify(notificationProducer, never()).sendMultipleNotificationsToQueue(any());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<NotificationMessage> queuedBatch() {
+        ArgumentCaptor<List<NotificationMessage>> batch = (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+        verify(notificationProducer).sendMultipleNotificationsToQueue(batch.capture());
+        return batch.getValue();
+    }
+
+    private static UserModel person(String name) {
+        UserModel user = new UserModel();
+        user.setId(name + "-id");
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        return user;
+    }
+}
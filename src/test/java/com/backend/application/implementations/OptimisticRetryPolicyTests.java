@@ -0,0 +1,75 @@
+package com.backend.application.implementations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class OptimisticRetryPolicyTests {
+
+    private OptimisticRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        retryPolicy = new OptimisticRetryPolicy();
+        ReflectionTestUtils.setField(retryPolicy, "maxRetries", 3);
+    }
+
+    @Test
+    void returnsFirstSuccessfulAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retryPolicy.execute("op", () -> {
+            attempts.incrementAndGet();
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void retriesVersionConflictsUntilAttemptSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retryPolicy.execute("op", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflicto");
+            }
+            return "merged";
+        });
+
+        assertThat(result).isEqualTo("merged");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void propagatesConflictAfterMaxRetries() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryPolicy.execute("op", () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("conflicto");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        // Intento inicial + 3 reintentos
+        assertThat(attempts).hasValue(4);
+    }
+
+    @Test
+    void otherExceptionsAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryPolicy.execute("op", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("Servicio no encontrado");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(attempts).hasValue(1);
+    }
+}
@@ -0,0 +1,141 @@
+package com.backend.application.implementations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.application.INotificationService;
+import com.backend.application.dto.NotificationMessage;
+import com.backend.application.dto.PublishResult;
+import com.backend.domain.model.MusiciansList;
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserAssignment;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserAssignmentUseCases;
+import com.backend.domain.port.UserUseCases;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReminderServiceImplTests {
+
+    @Mock
+    private ServicesUseCases servicesUseCases;
+
+    @Mock
+    private UserUseCases userUseCases;
+
+    @Mock
+    private INotificationService notificationService;
+
+    @Mock
+    private UserAssignmentUseCases userAssignmentUseCases;
+
+    @InjectMocks
+    private ReminderServiceImpl reminderService;
+
+    @BeforeEach
+    void useRealHydrator() {
+        // El hidratador real sólo consulta cuando los servicios guardan referencias (id + nombre)
+        ReflectionTestUtils.setField(reminderService, "userHydrator", new ServiceUserHydrator(userUseCases, servicesUseCases));
+    }
+
+    @Test
+    void upcomingWindowIsQueriedInMongo() {
+        LocalDate from = LocalDate.now().plusDays(2);
+        ServiceModel upcoming = new ServiceModel();
+        upcoming.setServiceDate(from.plusDays(1));
+        when(servicesUseCases.getServicesByDateRange(from, from.plusDays(10))).thenReturn(List.of(upcoming));
+
+        assertThat(reminderService.findUpcomingServices()).containsExactly(upcoming);
+        verify(servicesUseCases, never()).getAllServices();
+    }
+
+    @Test
+    void remindsEveryDirectorAndMusicianOfUpcomingServices() {
+        ServiceModel service = new ServiceModel();
+        service.setId("s1");
+        service.setServiceDate(LocalDate.now().plusDays(3));
+        service.setDirectors(List.of(person("ana")));
+        service.setMusiciansList(List.of(new MusiciansList(List.of(person("luis"), person("marta")), "GUITAR")));
+        when(servicesUseCases.getServicesByDateRange(any(), any())).thenReturn(List.of(service));
+        when(notificationService.sendReminderNotifications(any())).thenReturn(CompletableFuture.completedFuture(new PublishResult()));
+
+        reminderService.sendReminderNotifications();
+
+        // Un único lote publicado para toda la ejecución
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationMessage>> batch = ArgumentCaptor.forClass(List.class);
+        verify(notificationService, times(1)).sendReminderNotifications(batch.capture());
+        assertThat(batch.getValue()).extracting(NotificationMessage::getUserEmail)
+            .containsExactly("ana@example.com", "luis@example.com", "marta@example.com");
+        // Cada recordatorio se identifica por servicio y día, no solo por su texto
+        assertThat(batch.getValue()).extracting(NotificationMessage::getServiceId).containsOnly("s1");
+        assertThat(batch.getValue()).extracting(NotificationMessage::getEventId)
+            .containsOnly(NotificationMessage.reminderEventId("s1", LocalDate.now()));
+        verify(notificationService, never()).generateReminderNotification(any());
+    }
+
+    @Test
+    void noUpcomingServicesSendsNothing() {
+        when(servicesUseCases.getServicesByDateRange(any(), any())).thenReturn(List.of());
+
+        reminderService.sendReminderNotifications();
+
+        verify(notificationService, never()).sendReminderNotifications(any());
+    }
+
+    @Test
+    void enabledIndexFansOutFromUserAssignments() {
+        ReflectionTestUtils.setField(reminderService, "assignmentIndexEnabled", true);
+        LocalDate from = LocalDate.now().plusDays(2);
+        LocalDate serviceDate = from.plusDays(1);
+        when(userAssignmentUseCases.findAssignmentsBetween(from, from.plusDays(10))).thenReturn(List.of(
+            new UserAssignment("ana", "s1", UserModel.Role.DIRECTOR, null, serviceDate),
+            new UserAssignment("luis", "s1", UserModel.Role.MUSICIAN, "GUITAR", serviceDate),
+            new UserAssignment("borrado", "s1", UserModel.Role.MUSICIAN, "BASS", serviceDate)));
+        ServiceModel service = new ServiceModel();
+        service.setId("s1");
+        service.setServiceDate(serviceDate);
+        when(servicesUseCases.getServicesByIds(Set.of("s1"))).thenReturn(List.of(service));
+        when(userUseCases.getUsersByIds(Set.of("ana", "luis", "borrado"))).thenReturn(List.of(person("ana"), person("luis")));
+        when(notificationService.sendReminderNotifications(any())).thenReturn(CompletableFuture.completedFuture(new PublishResult()));
+
+        reminderService.sendReminderNotifications();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationMessage>> batch = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).sendReminderNotifications(batch.capture());
+        assertThat(batch.getValue()).extracting(NotificationMessage::getUserEmail, NotificationMessage::getUserRole)
+            .containsExactly(tuple("ana@example.com", "DIRECTOR"), tuple("luis@example.com", "MUSICIAN"));
+        verify(servicesUseCases, never()).getServicesByDateRange(any(), any());
+    }
+
+    private static UserModel person(String name) {
+        UserModel user = new UserModel();
+        user.setId(name);
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        return user;
+    }
+}
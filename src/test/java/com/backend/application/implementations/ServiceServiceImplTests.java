@@ -0,0 +1,484 @@
+package com.backend.application.implementations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.application.IDirectorAuthorizationService;
+import com.backend.application.INotificationService;
+import com.backend.application.dto.CreateSongListRequest;
+import com.backend.application.dto.MusicianAssignment;
+import com.backend.application.dto.UpdateAssingmentRequest;
+import com.backend.domain.model.AssignmentDiff;
+import com.backend.domain.model.CursorPage;
+import com.backend.domain.model.ServiceArchiveResult;
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.SongsModel;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserAssignmentUseCases;
+import com.backend.domain.port.UserUseCases;
+import com.backend.infraestructure.config.MongoRoundTripTracker;
+import com.backend.infraestructure.security.UserTokenVersionRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ServiceServiceImplTests {
+
+    @Mock
+    private ServicesUseCases servicesUseCases;
+
+    @Mock
+    private UserUseCases userUseCases;
+
+    @Mock
+    private INotificationService notificationService;
+
+    @Mock
+    private UserAssignmentUseCases userAssignmentUseCases;
+
+    @Mock
+    private UserTokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private IDirectorAuthorizationService directorAuthorization;
+
+    @Spy
+    private MongoRoundTripTracker roundTripTracker = new MongoRoundTripTracker();
+
+    @Spy
+    private OptimisticRetryPolicy retryPolicy = new OptimisticRetryPolicy();
+
+    @InjectMocks
+    private ServiceServiceImpl serviceService;
+
+    @BeforeEach
+    void useRealHydrator() {
+        // El hidratador real sólo consulta cuando encuentra referencias (id + nombre)
+        ReflectionTestUtils.setField(serviceService, "userHydrator", new ServiceUserHydrator(userUseCases, servicesUseCases));
+    }
+
+    @Test
+    void musiciansAcrossInstrumentsAreResolvedWithOneLookup() {
+        ServiceModel service = existingService("s1");
+        when(servicesUseCases.updateService(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(
+            user("m1", UserModel.Role.MUSICIAN), user("m2", UserModel.Role.MUSICIAN), user("m3", UserModel.Role.MUSICIAN)));
+
+        ServiceModel updated = serviceService.assignMusiciansToService(service.getId(), List.of(
+            new MusicianAssignment(List.of("m1", "m2"), "GUITAR"),
+            new MusicianAssignment(List.of("m2", "m3"), "PIANO")));
+
+        ArgumentCaptor<Collection<String>> ids = idsCaptor();
+        verify(userUseCases, times(1)).getUsersByIds(ids.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder("m1", "m2", "m3");
+        verify(userUseCases, never()).getUserById(anyString());
+        assertThat(updated.getMusiciansList()).hasSize(2);
+        assertThat(updated.getMusiciansList().get(1).getMusician())
+            .extracting(UserModel::getId).containsExactly("m2", "m3");
+    }
+
+    @Test
+    void allMissingUsersAreReportedTogether() {
+        existingService("s1");
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(user("m1", UserModel.Role.MUSICIAN)));
+
+        assertThatThrownBy(() -> serviceService.assignMusiciansToService("s1", List.of(
+                new MusicianAssignment(List.of("m1", "ghost-1", "ghost-2"), "BASS"))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("ghost-1")
+            .hasMessageContaining("ghost-2");
+        verify(servicesUseCases, never()).updateService(any());
+    }
+
+    @Test
+    void creationResolvesDirectorsAndMusiciansInOneLookup() {
+        when(servicesUseCases.createService(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(
+            user("d1", UserModel.Role.DIRECTOR), user("m1", UserModel.Role.MUSICIAN)));
+
+        ServiceModel created = serviceService.createServiceWithAssignments(LocalDate.now().plusDays(7), null, "Templo",
+            List.of("d1"), List.of(new MusicianAssignment(List.of("m1", "d1"), "DRUMS")));
+
+        ArgumentCaptor<Collection<String>> ids = idsCaptor();
+        verify(userUseCases, times(1)).getUsersByIds(ids.capture());
+        assertThat(Set.copyOf(ids.getValue())).containsExactlyInAnyOrder("d1", "m1");
+        assertThat(created.getDirectors()).extracting(UserModel::getId).containsExactly("d1");
+    }
+
+    @Test
+    void directorsArePromotedWithOneBulkWrite() {
+        existingService("s1");
+        when(servicesUseCases.updateService(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        UserModel director = user("d1", UserModel.Role.DIRECTOR);
+        UserModel musician = user("m1", UserModel.Role.MUSICIAN);
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(director, musician));
+        when(userUseCases.ensureRole(any(), any())).thenReturn(List.of("m1"));
+
+        serviceService.assignDirectorsToService("s1", List.of("d1", "m1"));
+
+        verify(userUseCases, times(1)).ensureRole(List.of("d1", "m1"), UserModel.Role.DIRECTOR);
+        verify(userUseCases, never()).updateUser(any());
+        // Solo el promovido deja de autenticarse con los roles de su token
+        verify(tokenVersionRegistry).rolesChanged("m1");
+        verify(tokenVersionRegistry, never()).rolesChanged("d1");
+    }
+
+    @Test
+    void embeddedDirectorCopiesCarryTheRoleBeforeTheWrite() {
+        existingService("s1");
+        UserModel musician = user("m1", UserModel.Role.MUSICIAN);
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(musician));
+        ArgumentCaptor<ServiceModel> written = ArgumentCaptor.forClass(ServiceModel.class);
+        when(servicesUseCases.updateService(written.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userUseCases.ensureRole(any(), any())).thenReturn(List.of("m1"));
+
+        ServiceModel updated = serviceService.assignDirectorsToService("s1", List.of("m1"));
+
+        assertThat(written.getValue().getDirectors()).singleElement()
+            .satisfies(director -> assertThat(director.getRoles())
+                .containsExactly(UserModel.Role.MUSICIAN, UserModel.Role.DIRECTOR));
+        assertThat(updated.getDirectors().get(0).getRoles()).contains(UserModel.Role.DIRECTOR);
+        // El usuario resuelto no se modifica: solo la copia que se guarda en el servicio
+        assertThat(musician.getRoles()).containsExactly(UserModel.Role.MUSICIAN);
+    }
+
+    @Test
+    void assignmentUpdateReadsAndWritesTheServiceOnce() {
+        existingService("s1");
+        when(servicesUseCases.updateService(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(
+            user("d1", UserModel.Role.DIRECTOR), user("m1", UserModel.Role.MUSICIAN)));
+        UpdateAssingmentRequest request = new UpdateAssingmentRequest(
+            new UpdateAssingmentRequest.Assignments(List.of(), List.of()),
+            new UpdateAssingmentRequest.Assignments(List.of("d1"),
+                List.of(new MusicianAssignment(List.of("m1"), "GUITAR"))));
+
+        ServiceModel updated = serviceService.updateServiceAssignments("s1", request);
+
+        verify(servicesUseCases, times(1)).getServiceById("s1");
+        verify(servicesUseCases, times(1)).updateService(any());
+        verify(userUseCases, times(1)).getUsersByIds(any());
+        assertThat(updated.getDirectors()).extracting(UserModel::getId).containsExactly("d1");
+        assertThat(updated.getMusiciansList()).hasSize(1);
+        assertThat(roundTripTracker.getStats())
+            .containsKeys("updateServiceAssignments", "syncAssignmentIndex", "promoteDirectors");
+    }
+
+    @Test
+    void emptyDirectorListKeepsCurrentDirectors() {
+        ServiceModel service = existingService("s1");
+        UserModel current = user("d0", UserModel.Role.DIRECTOR);
+        service.setDirectors(new ArrayList<>(List.of(current)));
+        when(servicesUseCases.updateService(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(user("m1", UserModel.Role.MUSICIAN)));
+        UpdateAssingmentRequest request = new UpdateAssingmentRequest(
+            new UpdateAssingmentRequest.Assignments(List.of("d0"), List.of()),
+            new UpdateAssingmentRequest.Assignments(List.of(),
+                List.of(new MusicianAssignment(List.of("m1"), "GUITAR"))));
+
+        ServiceModel updated = serviceService.updateServiceAssignments("s1", request);
+
+        assertThat(updated.getDirectors()).containsExactly(current);
+    }
+
+    @Test
+    void notificationsUseTheDiffAgainstThePersistedService() {
+        ServiceModel service = existingService("s1");
+        service.setDirectors(new ArrayList<>(List.of(user("d0", UserModel.Role.DIRECTOR))));
+        when(servicesUseCases.updateService(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(user("d1", UserModel.Role.DIRECTOR)));
+        // El cliente envía un estado anterior falso: no debe influir en las notificaciones
+        UpdateAssingmentRequest request = new UpdateAssingmentRequest(
+            new UpdateAssingmentRequest.Assignments(List.of("d1"), List.of()),
+            new UpdateAssingmentRequest.Assignments(List.of("d1"), List.of()));
+
+        serviceService.updateServiceAssignments("s1", request);
+
+        ArgumentCaptor<AssignmentDiff> diff = ArgumentCaptor.forClass(AssignmentDiff.class);
+        verify(notificationService).generateAssignmentNotifications(any(), diff.capture());
+        assertThat(diff.getValue().getAdded()).extracting(change -> change.getUser().getId()).containsExactly("d1");
+        assertThat(diff.getValue().getRemoved()).extracting(change -> change.getUser().getId()).containsExactly("d0");
+        verify(notificationService).generateRemovalNotifications(any(), any());
+    }
+
+    @Test
+    void expiredServicesAreArchivedInMongoBatches() {
+        ReflectionTestUtils.setField(serviceService, "archiveBatchSize", 200);
+        when(servicesUseCases.archiveServicesBefore(LocalDate.now(), 200)).thenReturn(new ServiceArchiveResult(450, 450, 3, 0));
+
+        ServiceArchiveResult result = serviceService.deleteExpiredServices();
+
+        assertThat(result.getArchived()).isEqualTo(450);
+        assertThat(result.getBatches()).isEqualTo(3);
+        verify(servicesUseCases, never()).getAllServices();
+        verify(servicesUseCases, never()).deleteService(anyString());
+    }
+
+    @Test
+    void versionConflictReReadsAndRecomputesTheDiff() {
+        ReflectionTestUtils.setField(retryPolicy, "maxRetries", 1);
+        UserModel d1 = user("d1", UserModel.Role.DIRECTOR);
+        UserModel d2 = user("d2", UserModel.Role.DIRECTOR);
+        ServiceModel stale = service("s1", 1L);
+        ServiceModel fresh = service("s1", 2L);
+        fresh.getDirectors().add(d2);
+        when(servicesUseCases.getServiceById("s1")).thenReturn(stale, fresh);
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(d1));
+        when(servicesUseCases.updateService(any()))
+            .thenThrow(new OptimisticLockingFailureException("versión 1"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        serviceService.updateServiceAssignments("s1", new UpdateAssingmentRequest(null,
+            new UpdateAssingmentRequest.Assignments(List.of("d1"), List.of())));
+
+        verify(servicesUseCases, times(2)).getServiceById("s1");
+        ArgumentCaptor<AssignmentDiff> diff = ArgumentCaptor.forClass(AssignmentDiff.class);
+        verify(notificationService).generateRemovalNotifications(any(), diff.capture());
+        // El director retirado es el del estado más reciente, no el de la primera lectura
+        assertThat(diff.getValue().getRemoved()).extracting(change -> change.getUser().getId()).containsExactly("d2");
+    }
+
+    @Test
+    void exhaustedRetriesSurfaceTheConflict() {
+        existingService("s1");
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(user("d1", UserModel.Role.DIRECTOR)));
+        when(servicesUseCases.updateService(any())).thenThrow(new OptimisticLockingFailureException("versión 0"));
+
+        assertThatThrownBy(() -> serviceService.assignDirectorsToService("s1", List.of("d1")))
+            .isInstanceOf(OptimisticLockingFailureException.class);
+        verify(servicesUseCases, times(1)).updateService(any());
+    }
+
+    @Test
+    void rejectedServiceWriteLeavesNobodyPromoted() {
+        existingService("s1");
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(user("m1", UserModel.Role.MUSICIAN)));
+        when(servicesUseCases.updateService(any())).thenThrow(new OptimisticLockingFailureException("versión 0"));
+
+        assertThatThrownBy(() -> serviceService.assignDirectorsToService("s1", List.of("m1")))
+            .isInstanceOf(OptimisticLockingFailureException.class);
+        verify(userUseCases, never()).ensureRole(any(), any());
+        verify(tokenVersionRegistry, never()).rolesChanged(anyString());
+    }
+
+    @Test
+    void retriedWritePromotesOnlyOnceAfterItSucceeds() {
+        ReflectionTestUtils.setField(retryPolicy, "maxRetries", 2);
+        existingService("s1");
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(user("m1", UserModel.Role.MUSICIAN)));
+        when(servicesUseCases.updateService(any()))
+            .thenThrow(new OptimisticLockingFailureException("versión 0"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        when(userUseCases.ensureRole(any(), any())).thenReturn(List.of("m1"));
+
+        serviceService.assignDirectorsToService("s1", List.of("m1"));
+
+        verify(servicesUseCases, times(2)).updateService(any());
+        verify(userUseCases, times(1)).ensureRole(any(), any());
+    }
+
+    @Test
+    void directorCheckGoesThroughTheAuthorizationCache() {
+        when(directorAuthorization.isDirectorOf("d1", "s1")).thenReturn(true);
+
+        assertThat(serviceService.isUserDirectorOfService("d1", "s1")).isTrue();
+        verify(servicesUseCases, never()).getServiceById(anyString());
+    }
+
+    @Test
+    void assignmentWritesRefreshTheCachedDirectorsAndArchivingClearsThem() {
+        existingService("s1");
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(user("d1", UserModel.Role.DIRECTOR)));
+        when(servicesUseCases.updateService(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(servicesUseCases.archiveServicesBefore(any(), org.mockito.ArgumentMatchers.anyInt()))
+            .thenReturn(new ServiceArchiveResult(0, 0, 0, 0));
+
+        ServiceModel updated = serviceService.assignDirectorsToService("s1", List.of("d1"));
+        serviceService.deleteExpiredServices();
+
+        verify(directorAuthorization).directorsChanged(updated);
+        verify(directorAuthorization).invalidateAll();
+    }
+
+    @Test
+    void assignmentIndexFailureIsReconciledFromThePersistedService() {
+        ServiceModel persisted = existingService("s1");
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(user("d1", UserModel.Role.DIRECTOR)));
+        when(servicesUseCases.updateService(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new IllegalStateException("mongo caído")).doNothing()
+            .when(userAssignmentUseCases).replaceForService(any());
+
+        ServiceModel updated = serviceService.assignDirectorsToService("s1", List.of("d1"));
+
+        assertThat(updated.getDirectors()).extracting(UserModel::getId).containsExactly("d1");
+        ArgumentCaptor<ServiceModel> indexed = ArgumentCaptor.forClass(ServiceModel.class);
+        verify(userAssignmentUseCases, times(2)).replaceForService(indexed.capture());
+        assertThat(indexed.getAllValues()).containsExactly(updated, persisted);
+    }
+
+    @Test
+    void failedReconciliationIsLeftForTheRebuild() {
+        existingService("s1");
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(user("d1", UserModel.Role.DIRECTOR)));
+        when(servicesUseCases.updateService(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new IllegalStateException("mongo caído")).when(userAssignmentUseCases).replaceForService(any());
+
+        assertThat(serviceService.assignDirectorsToService("s1", List.of("d1"))).isNotNull();
+        verify(userAssignmentUseCases, times(2)).replaceForService(any());
+    }
+
+    @Test
+    void pageLimitIsDefaultedAndCapped() {
+        ReflectionTestUtils.setField(serviceService, "defaultPageLimit", 50);
+        ReflectionTestUtils.setField(serviceService, "maxPageLimit", 200);
+        when(servicesUseCases.getServicesPage(any(), any(), any(), any(), anyInt()))
+            .thenReturn(new CursorPage<>(List.of(), null));
+
+        serviceService.getServicesPage(null, null, null, null, null);
+        serviceService.getServicesPage(null, null, null, null, 1000);
+
+        verify(servicesUseCases).getServicesPage(null, null, null, null, 50);
+        verify(servicesUseCases).getServicesPage(null, null, null, null, 200);
+        assertThatThrownBy(() -> serviceService.getServicesPage(null, null, null, null, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> serviceService.getServicesPage(LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 1), null, null, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void songListIsReplacedWithoutRewritingTheService() {
+        ServiceModel service = existingService("s1");
+        when(directorAuthorization.isDirectorOf("d1", "s1")).thenReturn(true);
+        when(servicesUseCases.replaceSongs(any(), any())).thenReturn(service);
+
+        serviceService.updateSongListForService("s1", "d1",
+            List.of(new CreateSongListRequest("Cantad", "Anónimo", null, "Re")));
+
+        ArgumentCaptor<List<SongsModel>> songs = songsCaptor();
+        verify(servicesUseCases).replaceSongs(org.mockito.ArgumentMatchers.eq("s1"), songs.capture());
+        assertThat(songs.getValue()).extracting(SongsModel::getName).containsExactly("Cantad");
+        verify(servicesUseCases, never()).updateService(any());
+    }
+
+    @Test
+    void songListForServiceDeletedMeanwhileFails() {
+        when(directorAuthorization.isDirectorOf("d1", "s1")).thenReturn(true);
+
+        assertThatThrownBy(() -> serviceService.createSongListForService("s1", "d1",
+                List.of(new CreateSongListRequest("Cantad", null, null, null))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("s1");
+    }
+
+    private static ServiceModel service(String id, Long version) {
+        ServiceModel service = new ServiceModel();
+        service.setId(id);
+        service.setVersion(version);
+        service.setServiceDate(LocalDate.now().plusDays(7));
+        service.setDirectors(new ArrayList<>());
+        service.setMusiciansList(new ArrayList<>());
+        return service;
+    }
+
+    @Test
+    void servicePageIsHydratedWithOneUserLookup() {
+        ReflectionTestUtils.setField(serviceService, "maxPageLimit", 200);
+        when(servicesUseCases.storesUserReferences()).thenReturn(true);
+        ServiceModel first = new ServiceModel();
+        first.setDirectors(new ArrayList<>(List.of(reference("d1"))));
+        ServiceModel second = new ServiceModel();
+        second.setDirectors(new ArrayList<>(List.of(reference("d1"), reference("d2"))));
+        when(servicesUseCases.getServicesPage(null, null, null, null, 20))
+            .thenReturn(new CursorPage<>(List.of(first, second), "next"));
+        when(userUseCases.getUsersByIds(any()))
+            .thenReturn(List.of(user("d1", UserModel.Role.DIRECTOR), user("d2", UserModel.Role.DIRECTOR)));
+
+        CursorPage<ServiceModel> page = serviceService.getServicesPage(null, null, null, null, 20);
+
+        ArgumentCaptor<Collection<String>> ids = idsCaptor();
+        verify(userUseCases, times(1)).getUsersByIds(ids.capture());
+        assertThat(ids.getValue()).containsExactly("d1", "d2");
+        assertThat(page.getItems().get(1).getDirectors()).extracting(UserModel::getEmail)
+            .containsExactly("d1@example.com", "d2@example.com");
+        assertThat(page.getNextCursor()).isEqualTo("next");
+    }
+
+    @Test
+    void allServicesAreHydratedOnlyInReferenceStorage() {
+        ServiceModel service = new ServiceModel();
+        service.setDirectors(new ArrayList<>(List.of(reference("d1"))));
+        when(servicesUseCases.getAllServices()).thenReturn(List.of(service));
+
+        serviceService.getAllServices();
+        verify(userUseCases, never()).getUsersByIds(any());
+
+        when(servicesUseCases.storesUserReferences()).thenReturn(true);
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(user("d1", UserModel.Role.DIRECTOR)));
+
+        assertThat(serviceService.getAllServices().get(0).getDirectors().get(0).getEmail()).isEqualTo("d1@example.com");
+    }
+
+    private static UserModel reference(String id) {
+        UserModel user = new UserModel();
+        user.setId(id);
+        user.setName("Usuario " + id);
+        return user;
+    }
+
+    private ServiceModel existingService(String id) {
+        ServiceModel service = new ServiceModel();
+        service.setId(id);
+        service.setServiceDate(LocalDate.now().plusDays(7));
+        service.setLocation("Templo");
+        service.setDirectors(new ArrayList<>());
+        service.setMusiciansList(new ArrayList<>());
+        when(servicesUseCases.getServiceById(id)).thenReturn(service);
+        return service;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<Collection<String>> idsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<SongsModel>> songsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+
+    private static UserModel user(String id, UserModel.Role role) {
+        UserModel user = new UserModel();
+        user.setId(id);
+        user.setName("Usuario " + id);
+        user.setEmail(id + "@example.com");
+        user.setRoles(new ArrayList<>(List.of(role)));
+        return user;
+    }
+}
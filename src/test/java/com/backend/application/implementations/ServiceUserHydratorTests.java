@@ -0,0 +1,122 @@
+package com.backend.application.implementations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.backend.domain.model.MusiciansList;
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserUseCases;
+
+class ServiceUserHydratorTests {
+
+    private final UserUseCases userUseCases = mock(UserUseCases.class);
+    private final ServicesUseCases servicesUseCases = mock(ServicesUseCases.class);
+    private final ServiceUserHydrator hydrator = new ServiceUserHydrator(userUseCases, servicesUseCases);
+
+    @BeforeEach
+    void referenceStorage() {
+        when(servicesUseCases.storesUserReferences()).thenReturn(true);
+    }
+
+    @Test
+    void referencesAcrossServicesAreResolvedWithOneLookup() {
+        ServiceModel first = service(List.of(reference("ana")), List.of(reference("luis")));
+        ServiceModel second = service(List.of(reference("ana")), List.of(reference("eva")));
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(full("ana"), full("luis"), full("eva")));
+
+        hydrator.hydrate(List.of(first, second));
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArgumentCaptor<Collection<String>> ids = (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+        verify(userUseCases, times(1)).getUsersByIds(ids.capture());
+        assertThat(ids.getValue()).containsExactly("ana", "luis", "eva");
+        assertThat(second.getDirectors().get(0).getEmail()).isEqualTo("ana@example.com");
+        assertThat(second.getMusiciansList().get(0).getMusician().get(0).getEmail()).isEqualTo("eva@example.com");
+    }
+
+    @Test
+    void knownUsersNeedNoLookup() {
+        ServiceModel service = service(List.of(reference("ana")), List.of(reference("luis")));
+
+        hydrator.hydrate(service, Map.of("ana", full("ana"), "luis", full("luis")));
+
+        verifyNoInteractions(userUseCases);
+        assertThat(service.getMusiciansList().get(0).getMusician().get(0).getEmail()).isEqualTo("luis@example.com");
+        assertThat(hydrator.participantsById(service)).containsOnlyKeys("ana", "luis");
+    }
+
+    @Test
+    void referenceWithoutNameIsStillResolved() {
+        // Una referencia sin nombre ni email ya no se confunde con un usuario completo
+        UserModel partial = new UserModel();
+        partial.setId("ana");
+        partial.setRoles(List.of(UserModel.Role.DIRECTOR));
+        ServiceModel service = service(List.of(partial), List.of());
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(full("ana")));
+
+        hydrator.hydrate(service);
+
+        assertThat(service.getDirectors().get(0).getEmail()).isEqualTo("ana@example.com");
+    }
+
+    @Test
+    void embeddedStorageIsReturnedAsIs() {
+        when(servicesUseCases.storesUserReferences()).thenReturn(false);
+        ServiceModel service = service(List.of(reference("ana")), List.of(reference("luis")));
+
+        hydrator.hydrate(service);
+
+        verifyNoInteractions(userUseCases);
+        assertThat(service.getDirectors().get(0).getEmail()).isNull();
+    }
+
+    @Test
+    void deletedUserKeepsItsReference() {
+        ServiceModel service = service(List.of(reference("ghost")), List.of());
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of());
+
+        hydrator.hydrate(service);
+
+        assertThat(service.getDirectors()).extracting(UserModel::getName).containsExactly("Nombre ghost");
+    }
+
+    private static ServiceModel service(List<UserModel> directors, List<UserModel> musicians) {
+        ServiceModel service = new ServiceModel();
+        service.setDirectors(new ArrayList<>(directors));
+        MusiciansList assignment = new MusiciansList();
+        assignment.setInstrument("GUITAR");
+        assignment.setMusician(new ArrayList<>(musicians));
+        service.setMusiciansList(new ArrayList<>(List.of(assignment)));
+        return service;
+    }
+
+    private static UserModel reference(String id) {
+        UserModel user = new UserModel();
+        user.setId(id);
+        user.setName("Nombre " + id);
+        return user;
+    }
+
+    private static UserModel full(String id) {
+        UserModel user = reference(id);
+        user.setEmail(id + "@example.com");
+        user.setRoles(List.of(UserModel.Role.MUSICIAN));
+        return user;
+    }
+}
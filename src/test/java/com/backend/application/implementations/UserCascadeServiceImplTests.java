@@ -0,0 +1,85 @@
+package com.backend.application.implementations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.application.dto.UserCascadeProgress;
+import com.backend.application.dto.UserCascadeProgress.CascadeStatus;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserUseCases;
+
+class UserCascadeServiceImplTests {
+
+    private final ServicesUseCases servicesUseCases = mock(ServicesUseCases.class);
+    private final UserUseCases userUseCases = mock(UserUseCases.class);
+    private UserCascadeServiceImpl cascadeService;
+
+    @BeforeEach
+    void setUp() {
+        cascadeService = new UserCascadeServiceImpl(servicesUseCases, userUseCases);
+        ReflectionTestUtils.setField(cascadeService, "batchSize", 2);
+        ReflectionTestUtils.setField(cascadeService, "throttleMillis", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cascadeService.shutdown();
+    }
+
+    @Test
+    void latestProfileIsPropagatedInBatches() throws InterruptedException {
+        UserModel user = new UserModel();
+        user.setId("u1");
+        user.setName("Ana María");
+        when(userUseCases.getUserById("u1")).thenReturn(user);
+        when(servicesUseCases.getServiceIdsByParticipant("u1")).thenReturn(List.of("s1", "s2", "s3"));
+        when(servicesUseCases.propagateUserProfile(any(), anyList())).thenReturn(2L, 1L);
+
+        UserCascadeProgress queued = cascadeService.propagateProfileChange("u1");
+        assertThat(queued.getRequestedAt()).isNotNull();
+
+        UserCascadeProgress done = awaitFinished(queued.getCascadeId());
+        assertThat(done.getStatus()).isEqualTo(CascadeStatus.COMPLETED);
+        assertThat(done.getTotalServices()).isEqualTo(3);
+        assertThat(done.getProcessedServices()).isEqualTo(3);
+        assertThat(done.getModifiedDocuments()).isEqualTo(3);
+        assertThat(done.getBatches()).isEqualTo(2);
+        verify(servicesUseCases).propagateUserProfile(user, List.of("s1", "s2"));
+        verify(servicesUseCases).propagateUserProfile(user, List.of("s3"));
+    }
+
+    @Test
+    void deletedUserFailsTheCascade() throws InterruptedException {
+        UserCascadeProgress done = awaitFinished(cascadeService.propagateProfileChange("ghost").getCascadeId());
+
+        assertThat(done.getStatus()).isEqualTo(CascadeStatus.FAILED);
+        assertThat(done.getError()).contains("ghost");
+        verify(servicesUseCases, never()).propagateUserProfile(any(), anyList());
+    }
+
+    private UserCascadeProgress awaitFinished(String cascadeId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            UserCascadeProgress progress = cascadeService.getCascades().stream()
+                .filter(cascade -> cascade.getCascadeId().equals(cascadeId))
+                .findFirst().orElseThrow();
+            if (progress.getFinishedAt() != null) {
+                return progress;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("La cascada " + cascadeId + " no terminó");
+    }
+}
@@ -0,0 +1,175 @@
+package com.backend.application.implementations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.application.IUserCascadeService;
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.port.ServicesUseCases;
+import com.backend.domain.port.UserAssignmentUseCases;
+import com.backend.domain.port.UserUseCases;
+import com.backend.infraestructure.security.UserTokenVersionRegistry;
+
+class UserServiceImplTests {
+
+    private ServicesUseCases servicesUseCases;
+    private UserUseCases userUseCases;
+    private IUserCascadeService userCascadeService;
+    private UserAssignmentUseCases userAssignmentUseCases;
+    private UserTokenVersionRegistry tokenVersionRegistry;
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        servicesUseCases = mock(ServicesUseCases.class);
+        userUseCases = mock(UserUseCases.class);
+        userCascadeService = mock(IUserCascadeService.class);
+        userAssignmentUseCases = mock(UserAssignmentUseCases.class);
+        tokenVersionRegistry = mock(UserTokenVersionRegistry.class);
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "servicesUseCases", servicesUseCases);
+        ReflectionTestUtils.setField(userService, "userUseCases", userUseCases);
+        ReflectionTestUtils.setField(userService, "userCascadeService", userCascadeService);
+        ReflectionTestUtils.setField(userService, "userAssignmentUseCases", userAssignmentUseCases);
+        ReflectionTestUtils.setField(userService, "tokenVersionRegistry", tokenVersionRegistry);
+        ReflectionTestUtils.setField(userService, "retryPolicy", new OptimisticRetryPolicy());
+        ReflectionTestUtils.setField(userService, "userHydrator", new ServiceUserHydrator(userUseCases, servicesUseCases));
+    }
+
+    @Test
+    void servicesForUserAreOneParticipantQuery() {
+        ServiceModel service = new ServiceModel();
+        service.setId("s1");
+        when(servicesUseCases.getServicesByParticipant("u1", null)).thenReturn(List.of(service));
+
+        assertThat(userService.getServicesForUser("u1")).containsExactly(service);
+
+        verify(servicesUseCases, never()).getServicesByDirector(anyString());
+        verify(servicesUseCases, never()).getServicesByMusician(anyString());
+        // Ya no se lee el usuario sólo para validar que existe
+        verifyNoInteractions(userUseCases);
+    }
+
+    @Test
+    void referencedParticipantsOfEveryServiceAreHydratedInOneLookup() {
+        when(servicesUseCases.storesUserReferences()).thenReturn(true);
+        ServiceModel first = new ServiceModel();
+        first.setDirectors(List.of(reference("u1")));
+        ServiceModel second = new ServiceModel();
+        second.setDirectors(List.of(reference("u1"), reference("u2")));
+        when(servicesUseCases.getServicesByParticipant("u1", null)).thenReturn(List.of(first, second));
+        when(userUseCases.getUsersByIds(any())).thenReturn(List.of(stored("u1", "Ana"), stored("u2", "Luis")));
+
+        List<ServiceModel> services = userService.getServicesForUser("u1");
+
+        verify(userUseCases).getUsersByIds(Set.of("u1", "u2"));
+        assertThat(services.get(1).getDirectors()).extracting(UserModel::getEmail)
+            .containsExactly("u1@example.com", "u2@example.com");
+    }
+
+    @Test
+    void upcomingServicesStartToday() {
+        userService.getUpcomingServicesForUser("u1");
+
+        verify(servicesUseCases).getServicesByParticipant(eq("u1"), eq(LocalDate.now()));
+    }
+
+    @Test
+    void enabledIndexResolvesIdsThenFetchesById() {
+        ReflectionTestUtils.setField(userService, "assignmentIndexEnabled", true);
+        when(userAssignmentUseCases.findServiceIdsForUser("u1", LocalDate.now())).thenReturn(List.of("s2", "s1"));
+
+        userService.getUpcomingServicesForUser("u1");
+
+        verify(servicesUseCases).getServicesByIds(List.of("s2", "s1"));
+        verify(servicesUseCases, never()).getServicesByParticipant(anyString(), any());
+    }
+
+    @Test
+    void blankUserIdIsRejectedBeforeQuerying() {
+        assertThatThrownBy(() -> userService.getUpcomingServicesForUser(" "))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(servicesUseCases);
+    }
+
+    @Test
+    void renameQueuesACascadeWithoutWaitingForIt() {
+        when(userUseCases.getUserById("u1")).thenReturn(stored("u1", "Ana"));
+        when(userUseCases.updateUser(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserModel change = new UserModel();
+        change.setId("u1");
+        change.setName("Ana María");
+        assertThat(userService.updateUser(change).getName()).isEqualTo("Ana María");
+
+        verify(userCascadeService).propagateProfileChange("u1");
+        verifyNoInteractions(tokenVersionRegistry);
+    }
+
+    @Test
+    void roleOnlyChangeDoesNotTouchServices() {
+        when(userUseCases.getUserById("u1")).thenReturn(stored("u1", "Ana"));
+        when(userUseCases.updateUser(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserModel change = new UserModel();
+        change.setId("u1");
+        change.setRoles(List.of(UserModel.Role.DIRECTOR));
+        userService.updateUser(change);
+
+        verifyNoInteractions(userCascadeService);
+        verify(tokenVersionRegistry).rolesChanged("u1");
+        ArgumentCaptor<UserModel> written = ArgumentCaptor.forClass(UserModel.class);
+        verify(userUseCases).updateUser(written.capture());
+        assertThat(written.getValue().getTokenVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void sameRolesKeepTheTokenVersion() {
+        UserModel stored = stored("u1", "Ana");
+        stored.setTokenVersion(3L);
+        when(userUseCases.getUserById("u1")).thenReturn(stored);
+        when(userUseCases.updateUser(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserModel change = new UserModel();
+        change.setId("u1");
+        change.setRoles(List.of(UserModel.Role.MUSICIAN));
+
+        assertThat(userService.updateUser(change).getTokenVersion()).isEqualTo(3L);
+        verifyNoInteractions(tokenVersionRegistry);
+    }
+
+    private static UserModel stored(String id, String name) {
+        UserModel user = new UserModel();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(id + "@example.com");
+        user.setRoles(List.of(UserModel.Role.MUSICIAN));
+        user.setVersion(1L);
+        return user;
+    }
+
+    private static UserModel reference(String id) {
+        UserModel user = new UserModel();
+        user.setId(id);
+        user.setName(id);
+        return user;
+    }
+}
@@ -0,0 +1,104 @@
+package com.backend.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AssignmentDiffTests {
+
+    @Test
+    void creationReportsEveryAssignmentAsAdded() {
+        ServiceModel service = service(List.of(user("d1")), List.of(musicians("Piano", user("m1"), user("m2"))));
+
+        AssignmentDiff diff = AssignmentDiff.between(null, service);
+
+        assertThat(diff.getAdded()).extracting(change -> change.getUser().getId()).containsExactly("d1", "m1", "m2");
+        assertThat(diff.getRemoved()).isEmpty();
+    }
+
+    @Test
+    void unchangedAssignmentsProduceEmptyDiff() {
+        ServiceModel before = service(List.of(user("d1")), List.of(musicians("Bajo", user("m1"))));
+        ServiceModel after = service(List.of(user("d1")), List.of(musicians("Bajo", user("m1"))));
+
+        assertThat(AssignmentDiff.between(before, after).isEmpty()).isTrue();
+    }
+
+    @Test
+    void reportsAddedAndRemovedUsers() {
+        ServiceModel before = service(List.of(user("d1")), List.of(musicians("Bajo", user("m1"))));
+        ServiceModel after = service(List.of(user("d2")), List.of(musicians("Bajo", user("m1"), user("m2"))));
+
+        AssignmentDiff diff = AssignmentDiff.between(before, after);
+
+        assertThat(diff.getAdded()).extracting(change -> change.getUser().getId()).containsExactly("d2", "m2");
+        assertThat(diff.getRemoved()).extracting(change -> change.getUser().getId()).containsExactly("d1");
+    }
+
+    @Test
+    void instrumentChangeIsRemovalPlusAddition() {
+        ServiceModel before = service(List.of(), List.of(musicians("Bajo", user("m1"))));
+        ServiceModel after = service(List.of(), List.of(musicians("Guitarra", user("m1"))));
+
+        AssignmentDiff diff = AssignmentDiff.between(before, after);
+
+        assertThat(diff.getAdded()).singleElement().satisfies(change -> {
+            assertThat(change.getRole()).isEqualTo(UserModel.Role.MUSICIAN);
+            assertThat(change.getInstrument()).isEqualTo("Guitarra");
+        });
+        assertThat(diff.getRemoved()).singleElement()
+            .extracting(AssignmentDiff.AssignmentChange::getInstrument).isEqualTo("Bajo");
+    }
+
+    @Test
+    void sameUserAsDirectorAndMusicianAreSeparateAssignments() {
+        ServiceModel before = service(List.of(user("u1")), List.of());
+        ServiceModel after = service(List.of(user("u1")), List.of(musicians("Piano", user("u1"))));
+
+        AssignmentDiff diff = AssignmentDiff.between(before, after);
+
+        assertThat(diff.getAdded()).singleElement()
+            .extracting(AssignmentDiff.AssignmentChange::getRole).isEqualTo(UserModel.Role.MUSICIAN);
+        assertThat(diff.getRemoved()).isEmpty();
+    }
+
+    @Test
+    void duplicatedUserInSameAssignmentCountsOnce() {
+        ServiceModel after = service(List.of(user("d1"), user("d1")), List.of());
+
+        assertThat(AssignmentDiff.between(null, after).getAdded()).hasSize(1);
+    }
+
+    @Test
+    void nullListsAndMusiciansAreTreatedAsEmpty() {
+        ServiceModel before = new ServiceModel();
+        MusiciansList withoutMusicians = new MusiciansList();
+        withoutMusicians.setInstrument("Piano");
+        ServiceModel after = service(null, List.of(withoutMusicians));
+
+        assertThat(AssignmentDiff.between(before, after).isEmpty()).isTrue();
+    }
+
+    private static ServiceModel service(List<UserModel> directors, List<MusiciansList> musiciansList) {
+        ServiceModel service = new ServiceModel();
+        service.setDirectors(directors != null ? new ArrayList<>(directors) : null);
+        service.setMusiciansList(new ArrayList<>(musiciansList));
+        return service;
+    }
+
+    private static MusiciansList musicians(String instrument, UserModel... users) {
+        MusiciansList list = new MusiciansList();
+        list.setInstrument(instrument);
+        list.setMusician(List.of(users));
+        return list;
+    }
+
+    private static UserModel user(String id) {
+        UserModel user = new UserModel();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,41 @@
+package com.backend.infraestructure.adapters.in.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.backend.infraestructure.adapters.in.controllers.dto.ErrorResponse;
+
+class GlobalExceptionHandlerTests {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void versionConflictMapsToConflict() {
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("PUT", "/api/admin/s1/assignments"));
+
+        ResponseEntity<ErrorResponse> response = handler.handleOptimisticLockingFailure(
+            new OptimisticLockingFailureException("El servicio s1 fue modificado por otra operación"), request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getStatus()).isEqualTo(409);
+        assertThat(response.getBody().getError()).isEqualTo("Conflict");
+        assertThat(response.getBody().getMessage()).contains("s1");
+        assertThat(response.getBody().getPath()).isEqualTo("uri=/api/admin/s1/assignments");
+    }
+
+    @Test
+    void illegalArgumentStillMapsToBadRequest() {
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("PUT", "/api/admin/s1"));
+
+        ResponseEntity<ErrorResponse> response = handler.handleIllegalArgumentException(
+            new IllegalArgumentException("Servicio no encontrado: s1"), request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
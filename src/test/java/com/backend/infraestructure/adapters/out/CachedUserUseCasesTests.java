@@ -0,0 +1,241 @@
+package com.backend.infraestructure.adapters.out;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import com.backend.domain.model.UserModel;
+
+class CachedUserUseCasesTests {
+
+    private UserUseCasesImpl delegate;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(UserUseCasesImpl.class);
+    }
+
+    @Test
+    void secondReadIsServedFromCache() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 10, 300);
+        when(delegate.getUserById("u1")).thenReturn(user("u1", "ana@example.com", "600"));
+
+        cache.getUserById("u1");
+        UserModel cached = cache.getUserById("u1");
+
+        assertThat(cached.getEmail()).isEqualTo("ana@example.com");
+        verify(delegate, times(1)).getUserById("u1");
+        assertThat(cache.getStats().getHits()).isEqualTo(1);
+        assertThat(cache.getStats().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void callersReceiveCopies() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 10, 300);
+        when(delegate.getUserById("u1")).thenReturn(user("u1", "ana@example.com", "600"));
+
+        cache.getUserById("u1").setName("modificado");
+        cache.getUserById("u1").getRoles().add(UserModel.Role.ADMIN);
+
+        UserModel cached = cache.getUserById("u1");
+        assertThat(cached.getName()).isEqualTo("u1");
+        assertThat(cached.getRoles()).containsExactly(UserModel.Role.MUSICIAN);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 2, 300);
+        when(delegate.getUserById(any())).thenAnswer(invocation -> {
+            String id = invocation.getArgument(0);
+            return user(id, id + "@example.com", null);
+        });
+
+        cache.getUserById("u1");
+        cache.getUserById("u2");
+        cache.getUserById("u1"); // u2 pasa a ser el menos usado
+        cache.getUserById("u3");
+
+        cache.getUserById("u1");
+        cache.getUserById("u2");
+
+        verify(delegate, times(1)).getUserById("u1");
+        verify(delegate, times(2)).getUserById("u2");
+        assertThat(cache.getStats().getSize()).isEqualTo(2);
+        assertThat(cache.getStats().getEvictions()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void evictedEntryAlsoDropsSecondaryKeys() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 1, 300);
+        when(delegate.getUserById("u1")).thenReturn(user("u1", "ana@example.com", "600"));
+        when(delegate.getUserById("u2")).thenReturn(user("u2", "luis@example.com", "601"));
+        when(delegate.getUserByEmail("ana@example.com")).thenReturn(user("u1", "ana@example.com", "600"));
+
+        cache.getUserById("u1");
+        cache.getUserById("u2");
+        cache.getUserByEmail("ana@example.com");
+
+        verify(delegate).getUserByEmail("ana@example.com");
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() throws InterruptedException {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 10, 0);
+        when(delegate.getUserById("u1")).thenReturn(user("u1", "ana@example.com", "600"));
+
+        cache.getUserById("u1");
+        Thread.sleep(5);
+        cache.getUserById("u1");
+
+        verify(delegate, times(2)).getUserById("u1");
+    }
+
+    @Test
+    void emailAndPhoneLookupsUseSecondaryKeys() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 10, 300);
+        when(delegate.getUserById("u1")).thenReturn(user("u1", "ana@example.com", "600"));
+
+        cache.getUserById("u1");
+
+        assertThat(cache.getUserByEmail("ana@example.com").getId()).isEqualTo("u1");
+        assertThat(cache.getUserByPhoneNumber("600").getId()).isEqualTo("u1");
+        verify(delegate, never()).getUserByEmail(any());
+        verify(delegate, never()).getUserByPhoneNumber(any());
+    }
+
+    @Test
+    void updateReplacesStaleSecondaryKeys() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 10, 300);
+        when(delegate.getUserById("u1")).thenReturn(user("u1", "ana@example.com", "600"));
+        UserModel changed = user("u1", "ana.nueva@example.com", "700");
+        when(delegate.updateUser(any())).thenReturn(changed);
+
+        cache.getUserById("u1");
+        cache.updateUser(changed);
+
+        assertThat(cache.getUserByEmail("ana.nueva@example.com").getId()).isEqualTo("u1");
+        assertThat(cache.getUserByPhoneNumber("700").getId()).isEqualTo("u1");
+        assertThat(cache.getUserByEmail("ana@example.com")).isNull();
+        assertThat(cache.getUserByPhoneNumber("600")).isNull();
+        verify(delegate).getUserByEmail("ana@example.com");
+        verify(delegate).getUserByPhoneNumber("600");
+    }
+
+    @Test
+    void emailTakenOverByAnotherUserIsNotDroppedWithTheOldOwner() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 10, 300);
+        when(delegate.getUserById("u1")).thenReturn(user("u1", "compartido@example.com", null));
+        when(delegate.getUserById("u2")).thenReturn(user("u2", "compartido@example.com", null));
+
+        cache.getUserById("u1");
+        cache.getUserById("u2");
+        cache.deleteUser("u1");
+
+        assertThat(cache.getUserByEmail("compartido@example.com").getId()).isEqualTo("u2");
+        verify(delegate, never()).getUserByEmail(any());
+    }
+
+    @Test
+    void versionConflictInvalidatesCachedCopy() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 10, 300);
+        when(delegate.getUserById("u1")).thenReturn(user("u1", "ana@example.com", "600"));
+        when(delegate.updateUser(any())).thenThrow(new OptimisticLockingFailureException("conflicto"));
+
+        cache.getUserById("u1");
+        assertThatThrownBy(() -> cache.updateUser(user("u1", "ana@example.com", "600")))
+            .isInstanceOf(OptimisticLockingFailureException.class);
+        cache.getUserById("u1");
+
+        verify(delegate, times(2)).getUserById("u1");
+    }
+
+    @Test
+    void slowReadDoesNotOverwriteANewerCachedVersion() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 10, 300);
+        UserModel updated = versioned(user("u1", "ana.nueva@example.com", "700"), 3L);
+        when(delegate.updateUser(any())).thenReturn(updated);
+        // La lectura empieza antes de la escritura y devuelve la versión 2 cuando la 3 ya está cacheada
+        when(delegate.getUserById("u1")).thenAnswer(invocation -> {
+            cache.updateUser(updated);
+            return versioned(user("u1", "ana@example.com", "600"), 2L);
+        });
+
+        cache.getUserById("u1");
+
+        UserModel cached = cache.getUserById("u1");
+        assertThat(cached.getVersion()).isEqualTo(3L);
+        assertThat(cached.getEmail()).isEqualTo("ana.nueva@example.com");
+        assertThat(cache.getUserByEmail("ana.nueva@example.com").getId()).isEqualTo("u1");
+        verify(delegate, times(1)).getUserById("u1");
+    }
+
+    @Test
+    void newerVersionReplacesTheCachedOne() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 10, 300);
+        when(delegate.getUserById("u1")).thenReturn(versioned(user("u1", "ana@example.com", "600"), 2L));
+        when(delegate.updateUser(any())).thenReturn(versioned(user("u1", "ana@example.com", "700"), 3L));
+
+        cache.getUserById("u1");
+        cache.updateUser(versioned(user("u1", "ana@example.com", "700"), 2L));
+
+        assertThat(cache.getUserById("u1").getPhoneNumber()).isEqualTo("700");
+    }
+
+    @Test
+    void ensureRoleInvalidatesOnlyTheUsersMongoChanged() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 10, 300);
+        when(delegate.getUserById("u1")).thenReturn(user("u1", "ana@example.com", "600"));
+        when(delegate.getUserById("u2")).thenReturn(user("u2", "luis@example.com", "601"));
+        when(delegate.ensureRole(any(), any())).thenReturn(List.of("u1"));
+
+        cache.getUserById("u1");
+        cache.getUserById("u2");
+        assertThat(cache.ensureRole(List.of("u1", "u2"), UserModel.Role.DIRECTOR)).containsExactly("u1");
+        cache.getUserById("u1");
+        cache.getUserById("u2");
+
+        verify(delegate, times(2)).getUserById("u1");
+        verify(delegate, times(1)).getUserById("u2");
+    }
+
+    @Test
+    void batchLookupOnlyQueriesMisses() {
+        CachedUserUseCases cache = new CachedUserUseCases(delegate, 10, 300);
+        when(delegate.getUserById("u1")).thenReturn(user("u1", "ana@example.com", null));
+        when(delegate.getUsersByIds(Set.of("u2"))).thenReturn(List.of(user("u2", "luis@example.com", null)));
+
+        cache.getUserById("u1");
+        List<UserModel> users = cache.getUsersByIds(List.of("u1", "u2", "u1"));
+
+        assertThat(users).extracting(UserModel::getId).containsExactlyInAnyOrder("u1", "u2");
+        verify(delegate).getUsersByIds(Set.of("u2"));
+    }
+
+    private static UserModel user(String id, String email, String phone) {
+        UserModel user = new UserModel();
+        user.setId(id);
+        user.setName(id);
+        user.setEmail(email);
+        user.setPhoneNumber(phone);
+        user.setRoles(new ArrayList<>(List.of(UserModel.Role.MUSICIAN)));
+        return user;
+    }
+
+    private static UserModel versioned(UserModel user, Long version) {
+        user.setVersion(version);
+        return user;
+    }
+}
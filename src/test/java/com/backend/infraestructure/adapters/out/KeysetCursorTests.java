@@ -0,0 +1,84 @@
+package com.backend.infraestructure.adapters.out;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class KeysetCursorTests {
+
+    @Test
+    void roundTripsValueAndId() {
+        KeysetCursor cursor = new KeysetCursor("2025-03-09", "65f1c0ffee");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsNullValue() {
+        KeysetCursor cursor = new KeysetCursor(null, "65f1c0ffee");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void nullAndLiteralNStringAreDistinct() {
+        KeysetCursor literal = KeysetCursor.decode(new KeysetCursor("n", "id1").encode());
+
+        assertThat(literal.getValue()).isEqualTo("n");
+    }
+
+    @Test
+    void roundTripsValuesWithSeparatorAndUnicode() {
+        KeysetCursor cursor = new KeysetCursor("José | Peña", "id1");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsEmptyValue() {
+        KeysetCursor cursor = new KeysetCursor("", "id1");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor("???>>>", "id1").encode();
+
+        assertThat(encoded).doesNotContain("+", "/", "=");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"%%%", "sin-separador", "|id", "v|", "x|id1"})
+    void rejectsMalformedCursors(String raw) {
+        String cursor = raw.equals("%%%") ? raw :
+            Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("Cursor inválido");
+    }
+
+    @Test
+    void afterPresentValueComparesValueThenId() {
+        Document criteria = new KeysetCursor("Ana", "id1").after("name", "Ana").getCriteriaObject();
+
+        assertThat(criteria.toJson()).isEqualTo(
+            "{\"$or\": [{\"name\": {\"$gt\": \"Ana\"}}, {\"$and\": [{\"name\": \"Ana\"}, {\"_id\": {\"$gt\": \"id1\"}}]}]}");
+    }
+
+    @Test
+    void afterNullValueContinuesWithNullsThenEveryValue() {
+        Document criteria = new KeysetCursor(null, "id1").after("name", null).getCriteriaObject();
+
+        assertThat(criteria.toJson()).isEqualTo(
+            "{\"$or\": [{\"$and\": [{\"name\": null}, {\"_id\": {\"$gt\": \"id1\"}}]}, {\"name\": {\"$ne\": null}}]}");
+    }
+}
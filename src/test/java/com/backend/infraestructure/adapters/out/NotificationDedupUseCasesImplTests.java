@@ -0,0 +1,96 @@
+package com.backend.infraestructure.adapters.out;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.backend.domain.model.NotificationClaim;
+import com.backend.infraestructure.adapters.out.entities.NotificationDedupEntity;
+import com.backend.infraestructure.adapters.out.entities.NotificationDedupEntity.DedupStatus;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDedupUseCasesImplTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private NotificationDedupUseCasesImpl dedupUseCases;
+
+    @Test
+    void freeKeyIsReservedWithOneConditionalUpsert() {
+        assertThat(dedupUseCases.claim("k1", "owner-1", Duration.ofSeconds(120))).isEqualTo(NotificationClaim.CLAIMED);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(NotificationDedupEntity.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("id", "k1");
+        assertThat(query.getValue().getQueryObject().get("expiresAt", Document.class).get("$lt")).isInstanceOf(Instant.class);
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set).containsEntry("status", DedupStatus.SENDING).containsEntry("owner", "owner-1");
+        assertThat(set.get("expiresAt")).isInstanceOf(Instant.class);
+    }
+
+    @Test
+    void liveReservationIsReportedAsItsStatus() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(NotificationDedupEntity.class)))
+            .thenThrow(new DuplicateKeyException("E11000"));
+        when(mongoTemplate.findById("k1", NotificationDedupEntity.class))
+            .thenReturn(new NotificationDedupEntity("k1", DedupStatus.SENT, null, null))
+            .thenReturn(new NotificationDedupEntity("k1", DedupStatus.SENDING, "owner-2", null));
+
+        assertThat(dedupUseCases.claim("k1", "owner-1", Duration.ofSeconds(120))).isEqualTo(NotificationClaim.ALREADY_SENT);
+        assertThat(dedupUseCases.claim("k1", "owner-1", Duration.ofSeconds(120))).isEqualTo(NotificationClaim.IN_PROGRESS);
+    }
+
+    @Test
+    void reservationReleasedBetweenUpsertAndReadIsClaimedAgain() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(NotificationDedupEntity.class)))
+            .thenThrow(new DuplicateKeyException("E11000"))
+            .thenReturn(null);
+
+        assertThat(dedupUseCases.claim("k1", "owner-1", Duration.ofSeconds(120))).isEqualTo(NotificationClaim.CLAIMED);
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), any(Update.class), eq(NotificationDedupEntity.class));
+    }
+
+    @Test
+    void releaseOnlyRemovesAReservationStillHeldByTheOwner() {
+        dedupUseCases.release("k1", "owner-1");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(query.capture(), eq(NotificationDedupEntity.class));
+        assertThat(query.getValue().getQueryObject())
+            .containsEntry("id", "k1")
+            .containsEntry("status", DedupStatus.SENDING)
+            .containsEntry("owner", "owner-1");
+    }
+
+    @Test
+    void sentKeyDropsTheOwnerAndExpiresInUtc() {
+        dedupUseCases.markSent("k1", Duration.ofHours(1));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(NotificationDedupEntity.class));
+        assertThat(update.getValue().getUpdateObject().get("$unset", Document.class)).containsKey("owner");
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class).get("expiresAt"))
+            .isInstanceOf(Instant.class);
+    }
+}
@@ -0,0 +1,434 @@
+package com.backend.infraestructure.adapters.out;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.domain.model.CursorPage;
+import com.backend.domain.model.ServiceArchiveResult;
+import com.backend.domain.model.ServiceMigrationResult;
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserModel;
+import com.backend.infraestructure.adapters.out.entities.ServiceEntity;
+import com.backend.infraestructure.adapters.out.repositories.ServiceRepository;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ServicesUseCasesImplTests {
+
+    @Mock
+    private ServiceRepository serviceRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private ServicesUseCasesImpl servicesUseCases;
+
+    @Test
+    void updateReplacesByIdInOneCommand() {
+        ServiceModel service = service("s1");
+        when(mongoTemplate.findAndReplace(any(Query.class), any(ServiceEntity.class), any(FindAndReplaceOptions.class)))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+
+        ServiceModel updated = servicesUseCases.updateService(service);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndReplace(query.capture(), any(ServiceEntity.class), any(FindAndReplaceOptions.class));
+        assertThat(query.getValue().getQueryObject().get("_id")).isEqualTo("s1");
+        assertThat(updated.getLocation()).isEqualTo("Templo");
+        verify(serviceRepository, never()).existsById(anyString());
+        verify(serviceRepository, never()).save(any());
+    }
+
+    @Test
+    void updateOfMissingServiceFails() {
+        assertThatThrownBy(() -> servicesUseCases.updateService(service("ghost")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("ghost");
+    }
+
+    @Test
+    void staleVersionIsAConflictNotANotFound() {
+        ServiceModel service = service("s1");
+        service.setVersion(4L);
+        when(serviceRepository.existsById("s1")).thenReturn(true);
+
+        assertThatThrownBy(() -> servicesUseCases.updateService(service))
+            .isInstanceOf(OptimisticLockingFailureException.class);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<ServiceEntity> replacement = ArgumentCaptor.forClass(ServiceEntity.class);
+        verify(mongoTemplate).findAndReplace(query.capture(), replacement.capture(), any(FindAndReplaceOptions.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("_id", "s1").containsEntry("version", 4L);
+        assertThat(replacement.getValue().getVersion()).isEqualTo(5L);
+    }
+
+    @Test
+    void clothesColorIsASingleFieldSet() {
+        ServiceEntity stored = ServiceEntity.fromDomain(service("s1"));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ServiceEntity.class)))
+            .thenReturn(stored);
+
+        assertThat(servicesUseCases.setClothesColor("s1", "Azul")).isNotNull();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), options.capture(), eq(ServiceEntity.class));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertThat(set).containsOnlyKeys("clothesColor").containsEntry("clothesColor", "Azul");
+        assertThat(options.getValue().isReturnNew()).isTrue();
+        verify(mongoTemplate, never()).findAndReplace(any(Query.class), any(ServiceEntity.class), any(FindAndReplaceOptions.class));
+    }
+
+    @Test
+    void partialUpdateOfMissingServiceReturnsNull() {
+        assertThat(servicesUseCases.replaceSongs("ghost", List.of())).isNull();
+    }
+
+    @Test
+    void directorIdsAreAProjectedRead() {
+        ServiceModel service = service("s1");
+        UserModel director = new UserModel();
+        director.setId("d1");
+        service.getDirectors().add(director);
+        when(mongoTemplate.findOne(any(Query.class), eq(ServiceEntity.class))).thenReturn(ServiceEntity.fromDomain(service));
+
+        assertThat(servicesUseCases.getDirectorIds("s1")).containsExactly("d1");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(ServiceEntity.class));
+        assertThat(query.getValue().getFieldsObject()).containsOnlyKeys("directors.id");
+    }
+
+    @Test
+    void directorIdsOfAMissingServiceAreNull() {
+        assertThat(servicesUseCases.getDirectorIds("ghost")).isNull();
+    }
+
+    @Test
+    void dateRangeIsAnInclusiveIndexedQuery() throws NoSuchMethodException {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = from.plusDays(10);
+        when(serviceRepository.findByServiceDateBetween(from, to)).thenReturn(List.of(ServiceEntity.fromDomain(service("s1"))));
+
+        assertThat(servicesUseCases.getServicesByDateRange(from, to)).extracting(ServiceModel::getId).containsExactly("s1");
+
+        org.springframework.data.mongodb.repository.Query query = ServiceRepository.class
+            .getMethod("findByServiceDateBetween", LocalDate.class, LocalDate.class)
+            .getAnnotation(org.springframework.data.mongodb.repository.Query.class);
+        assertThat(query.value()).contains("$gte").contains("$lte");
+        assertThat(query.sort()).contains("serviceDate");
+    }
+
+    @Test
+    void participantLookupIsOneOrQueryOptionallyBoundedByDate() throws NoSuchMethodException {
+        LocalDate today = LocalDate.of(2025, 3, 1);
+        when(serviceRepository.findByParticipantId("u1")).thenReturn(List.of(ServiceEntity.fromDomain(service("all"))));
+        when(serviceRepository.findByParticipantIdFrom("u1", today)).thenReturn(List.of(ServiceEntity.fromDomain(service("next"))));
+
+        assertThat(servicesUseCases.getServicesByParticipant("u1", null)).extracting(ServiceModel::getId).containsExactly("all");
+        assertThat(servicesUseCases.getServicesByParticipant("u1", today)).extracting(ServiceModel::getId).containsExactly("next");
+        verify(serviceRepository, never()).findByDirectorId(anyString());
+        verify(serviceRepository, never()).findByMusicianId(anyString());
+
+        org.springframework.data.mongodb.repository.Query upcoming = ServiceRepository.class
+            .getMethod("findByParticipantIdFrom", String.class, LocalDate.class)
+            .getAnnotation(org.springframework.data.mongodb.repository.Query.class);
+        assertThat(upcoming.value()).contains("$or").contains("directors.id").contains("musiciansList.musician.id").contains("$gte");
+        assertThat(upcoming.sort()).contains("serviceDate");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archiveCopiesEachBatchBeforeDeletingIt() {
+        MongoCollection<Document> services = mock(MongoCollection.class);
+        MongoCollection<Document> archive = mock(MongoCollection.class);
+        FindIterable<Document> cursor = mock(FindIterable.class);
+        MappingMongoConverter converter = mock(MappingMongoConverter.class);
+        when(mongoTemplate.getCollectionName(ServiceEntity.class)).thenReturn("services");
+        when(mongoTemplate.getCollection("services")).thenReturn(services);
+        when(mongoTemplate.getCollection(ServicesUseCasesImpl.ARCHIVE_COLLECTION)).thenReturn(archive);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(services.find(any(Bson.class))).thenReturn(cursor);
+        when(cursor.sort(any())).thenReturn(cursor);
+        when(cursor.limit(2)).thenReturn(cursor);
+        Deque<List<Document>> batches = new ArrayDeque<>(List.of(
+            List.of(new Document("_id", "a"), new Document("_id", "b")),
+            List.of(new Document("_id", "c")),
+            List.of()));
+        when(cursor.into(any())).thenAnswer(invocation -> {
+            List<Document> target = invocation.getArgument(0);
+            target.addAll(batches.pop());
+            return target;
+        });
+        when(services.deleteMany(any(Bson.class)))
+            .thenReturn(DeleteResult.acknowledged(2), DeleteResult.acknowledged(1));
+
+        ServiceArchiveResult result = servicesUseCases.archiveServicesBefore(LocalDate.of(2025, 3, 1), 2);
+
+        assertThat(result.getArchived()).isEqualTo(3);
+        assertThat(result.getDeleted()).isEqualTo(3);
+        assertThat(result.getBatches()).isEqualTo(2);
+
+        InOrder order = inOrder(archive, services);
+        ArgumentCaptor<List<ReplaceOneModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        order.verify(archive).bulkWrite(writes.capture(), any(BulkWriteOptions.class));
+        order.verify(services).deleteMany(any(Bson.class));
+        order.verify(archive).bulkWrite(writes.capture(), any(BulkWriteOptions.class));
+        order.verify(services).deleteMany(any(Bson.class));
+
+        ReplaceOneModel<Document> first = writes.getAllValues().get(0).get(0);
+        assertThat(first.getReplaceOptions().isUpsert()).isTrue();
+        assertThat(first.getReplacement()).containsKey("archivedAt");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archiveStopsWhenAnotherProcessAlreadyDeletedTheBatch() {
+        MongoCollection<Document> services = mock(MongoCollection.class);
+        MongoCollection<Document> archive = mock(MongoCollection.class);
+        FindIterable<Document> cursor = mock(FindIterable.class);
+        when(mongoTemplate.getCollectionName(ServiceEntity.class)).thenReturn("services");
+        when(mongoTemplate.getCollection("services")).thenReturn(services);
+        when(mongoTemplate.getCollection(ServicesUseCasesImpl.ARCHIVE_COLLECTION)).thenReturn(archive);
+        when(mongoTemplate.getConverter()).thenReturn(mock(MappingMongoConverter.class));
+        when(services.find(any(Bson.class))).thenReturn(cursor);
+        when(cursor.sort(any())).thenReturn(cursor);
+        when(cursor.limit(anyInt())).thenReturn(cursor);
+        when(cursor.into(any())).thenAnswer(invocation -> {
+            List<Document> target = invocation.getArgument(0);
+            target.add(new Document("_id", "a"));
+            return target;
+        });
+        when(services.deleteMany(any(Bson.class))).thenReturn(DeleteResult.acknowledged(0));
+
+        ServiceArchiveResult result = servicesUseCases.archiveServicesBefore(LocalDate.of(2025, 3, 1), 10);
+
+        assertThat(result.getBatches()).isEqualTo(1);
+        assertThat(result.getDeleted()).isZero();
+    }
+
+    @Test
+    void pageFetchesOneExtraRowToDetectMore() {
+        when(mongoTemplate.find(any(Query.class), eq(ServiceEntity.class))).thenReturn(List.of(
+            entity("s1", LocalDate.of(2025, 3, 1)),
+            entity("s2", LocalDate.of(2025, 3, 2)),
+            entity("s3", LocalDate.of(2025, 3, 3))));
+
+        CursorPage<ServiceModel> page = servicesUseCases.getServicesPage(null, null, null, null, 2);
+
+        assertThat(page.getItems()).extracting(ServiceModel::getId).containsExactly("s1", "s2");
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertThat(next.getValue()).isEqualTo("2025-03-02");
+        assertThat(next.getId()).isEqualTo("s2");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(ServiceEntity.class));
+        assertThat(query.getValue().getLimit()).isEqualTo(3);
+        assertThat(query.getValue().getSortObject()).containsEntry("serviceDate", 1).containsEntry("id", 1);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(mongoTemplate.find(any(Query.class), eq(ServiceEntity.class)))
+            .thenReturn(List.of(entity("s1", LocalDate.of(2025, 3, 1))));
+
+        CursorPage<ServiceModel> page = servicesUseCases.getServicesPage(null, null, null, null, 2);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void cursorAndFiltersBecomeOneKeysetQuery() {
+        when(mongoTemplate.find(any(Query.class), eq(ServiceEntity.class))).thenReturn(List.of());
+        String cursor = new KeysetCursor("2025-03-02", "s2").encode();
+
+        servicesUseCases.getServicesPage(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), "Templo", cursor, 10);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(ServiceEntity.class));
+        List<?> filters = query.getValue().getQueryObject().getList("$and", Object.class);
+        assertThat(filters).hasSize(3);
+        assertThat(filters.get(0).toString()).contains("$gte").contains("$lte");
+        assertThat(filters.get(1).toString()).contains("Templo");
+        assertThat(filters.get(2).toString()).contains("$or").contains("s2");
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> servicesUseCases.getServicesPage(null, null, null, "%%%", 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void migrationIsRejectedInEmbeddedMode() {
+        ReflectionTestUtils.setField(servicesUseCases, "userStorage", "embedded");
+
+        assertThatThrownBy(() -> servicesUseCases.migrateToUserReferences(100))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("user-storage=reference");
+        verify(mongoTemplate, never()).getCollection(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void migrationSlimsEmbeddedUsersBatchByBatch() {
+        ReflectionTestUtils.setField(servicesUseCases, "userStorage", "reference");
+        MongoCollection<Document> services = mock(MongoCollection.class);
+        FindIterable<Document> cursor = mock(FindIterable.class);
+        when(mongoTemplate.getCollectionName(ServiceEntity.class)).thenReturn("services");
+        when(mongoTemplate.getCollection("services")).thenReturn(services);
+        when(services.find(any(Bson.class))).thenReturn(cursor);
+        when(cursor.projection(any())).thenReturn(cursor);
+        when(cursor.sort(any())).thenReturn(cursor);
+        when(cursor.limit(1)).thenReturn(cursor);
+        Document fullUser = new Document("_id", "ana").append("name", "Ana").append("email", "ana@example.com").append("roles", List.of("DIRECTOR"));
+        Deque<List<Document>> batches = new ArrayDeque<>(List.of(
+            List.of(new Document("_id", "s1").append("directors", List.of(fullUser))),
+            List.of(new Document("_id", "s2").append("musiciansList", List.of(
+                new Document("instrument", "BASS").append("musician", List.of(fullUser))))),
+            List.of()));
+        when(cursor.into(any())).thenAnswer(invocation -> {
+            List<Document> target = invocation.getArgument(0);
+            target.addAll(batches.pop());
+            return target;
+        });
+        BulkWriteResult written = mock(BulkWriteResult.class);
+        when(written.getModifiedCount()).thenReturn(1);
+        when(services.bulkWrite(any(List.class), any(BulkWriteOptions.class))).thenReturn(written);
+
+        ServiceMigrationResult result = servicesUseCases.migrateToUserReferences(1);
+
+        assertThat(result.getScanned()).isEqualTo(2);
+        assertThat(result.getMigrated()).isEqualTo(2);
+        assertThat(result.getBatches()).isEqualTo(2);
+
+        ArgumentCaptor<List<UpdateOneModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        verify(services, org.mockito.Mockito.times(2)).bulkWrite(writes.capture(), any(BulkWriteOptions.class));
+        String json = writes.getAllValues().get(0).get(0).getUpdate().toBsonDocument().toJson();
+        assertThat(json).contains("\"$set\"").contains("\"$inc\"").contains("Ana").doesNotContain("ana@example.com");
+
+        // El segundo lote continúa tras el último _id del anterior
+        ArgumentCaptor<Bson> filters = ArgumentCaptor.forClass(Bson.class);
+        verify(services, org.mockito.Mockito.times(3)).find(filters.capture());
+        assertThat(filters.getAllValues().get(1).toBsonDocument().toJson()).contains("$gt").contains("s1");
+    }
+
+    @Test
+    void referenceModeStoresOnlyIdAndName() {
+        ReflectionTestUtils.setField(servicesUseCases, "userStorage", "reference");
+        ServiceModel service = service("s1");
+        UserModel director = new UserModel();
+        director.setId("ana");
+        director.setName("Ana");
+        director.setEmail("ana@example.com");
+        director.setRoles(List.of(UserModel.Role.DIRECTOR));
+        service.getDirectors().add(director);
+        when(serviceRepository.save(any(ServiceEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ServiceModel created = servicesUseCases.createService(service);
+
+        assertThat(created.getDirectors()).singleElement().satisfies(reference -> {
+            assertThat(reference.getName()).isEqualTo("Ana");
+            assertThat(reference.getEmail()).isNull();
+            assertThat(reference.getRoles()).isNull();
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void profileCascadeOnlyTouchesThatUsersCopies() {
+        ReflectionTestUtils.setField(servicesUseCases, "userStorage", "reference");
+        MongoCollection<Document> services = mock(MongoCollection.class);
+        when(mongoTemplate.getCollectionName(ServiceEntity.class)).thenReturn("services");
+        when(mongoTemplate.getCollection("services")).thenReturn(services);
+        when(services.updateMany(any(Bson.class), any(Bson.class), any(UpdateOptions.class)))
+            .thenReturn(UpdateResult.acknowledged(2, 2L, null), UpdateResult.acknowledged(1, 1L, null));
+        UserModel user = new UserModel();
+        user.setId("65f1c0ffee0000000000abcd");
+        user.setName("Ana María");
+        user.setEmail("ana@example.com");
+
+        long modified = servicesUseCases.propagateUserProfile(user, List.of("s1", "s2"));
+
+        assertThat(modified).isEqualTo(3);
+        ArgumentCaptor<Bson> updates = ArgumentCaptor.forClass(Bson.class);
+        ArgumentCaptor<UpdateOptions> options = ArgumentCaptor.forClass(UpdateOptions.class);
+        verify(services, org.mockito.Mockito.times(2)).updateMany(any(Bson.class), updates.capture(), options.capture());
+        String directorsUpdate = updates.getAllValues().get(0).toBsonDocument().toJson();
+        assertThat(directorsUpdate).contains("directors.$[d].name").contains("\"version\"")
+            // En modo referencia solo se refresca el nombre
+            .doesNotContain("email");
+        assertThat(updates.getAllValues().get(1).toBsonDocument().toJson()).contains("musiciansList.$[a].musician.$[m].name");
+        assertThat(options.getAllValues().get(1).getArrayFilters()).hasSize(2);
+        assertThat(options.getAllValues().get(0).getArrayFilters().get(0).toBsonDocument().toJson()).contains("d._id").contains("$oid");
+    }
+
+    @Test
+    void emptyCascadeBatchSkipsMongo() {
+        assertThat(servicesUseCases.propagateUserProfile(new UserModel(), List.of())).isZero();
+        verify(mongoTemplate, never()).getCollection(anyString());
+    }
+
+    private static ServiceEntity entity(String id, LocalDate serviceDate) {
+        ServiceModel service = service(id);
+        service.setServiceDate(serviceDate);
+        return ServiceEntity.fromDomain(service);
+    }
+
+    private static ServiceModel service(String id) {
+        ServiceModel service = new ServiceModel();
+        service.setId(id);
+        service.setServiceDate(LocalDate.now().plusDays(3));
+        service.setLocation("Templo");
+        service.setDirectors(new ArrayList<>());
+        service.setMusiciansList(new ArrayList<>());
+        service.setSongsList(new ArrayList<>());
+        return service;
+    }
+}
@@ -0,0 +1,239 @@
+package com.backend.infraestructure.adapters.out;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.backend.domain.model.AssignmentIndexRebuildResult;
+import com.backend.domain.model.MusiciansList;
+import com.backend.domain.model.ServiceModel;
+import com.backend.domain.model.UserAssignment;
+import com.backend.domain.model.UserModel;
+import com.backend.infraestructure.adapters.out.entities.ServiceEntity;
+import com.backend.infraestructure.adapters.out.entities.UserAssignmentEntity;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+
+class UserAssignmentUseCasesImplTests {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulk;
+    private UserAssignmentUseCasesImpl assignments;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(UserAssignmentEntity.class))).thenReturn(bulk);
+        when(mongoTemplate.remove(any(Query.class), eq(UserAssignmentEntity.class))).thenReturn(DeleteResult.acknowledged(0));
+        assignments = new UserAssignmentUseCasesImpl(mongoTemplate);
+    }
+
+    @Test
+    void rowsAreVersionGuardedUpsertsAndOnlyOlderRowsAreRemoved() {
+        // d1 es director y además toca dos veces el bajo: una fila de director y una de bajo
+        ServiceModel service = service("s1", List.of("d1"), List.of("d1", "d1", "m1"));
+        service.setVersion(3L);
+        when(mongoTemplate.findById("s1:#", UserAssignmentEntity.class)).thenReturn(marker(3L));
+
+        assignments.replaceForService(service);
+
+        ArgumentCaptor<Query> filters = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UserAssignmentEntity> rows = ArgumentCaptor.forClass(UserAssignmentEntity.class);
+        verify(bulk, times(4)).replaceOne(filters.capture(), rows.capture(), any(FindAndReplaceOptions.class));
+        assertThat(rows.getAllValues()).extracting(UserAssignmentEntity::getId)
+            .containsExactly("s1:#", "s1:d1:DIRECTOR:", "s1:d1:MUSICIAN:BASS", "s1:m1:MUSICIAN:BASS");
+        assertThat(rows.getAllValues()).extracting(UserAssignmentEntity::getServiceVersion).containsOnly(3L);
+        assertThat(filters.getValue().getQueryObject().toJson())
+            .contains("\"serviceVersion\": {\"$lte\": 3}").contains("\"$exists\": false");
+
+        ArgumentCaptor<Query> removal = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removal.capture(), eq(UserAssignmentEntity.class));
+        assertThat(removal.getValue().getQueryObject().toJson())
+            .contains("\"serviceId\": \"s1\"")
+            .contains("\"$nin\"")
+            .contains("\"serviceVersion\": {\"$lt\": 3}");
+    }
+
+    @Test
+    void lateWriteIsSkippedWhenANewerVersionIsIndexed() {
+        doThrow(duplicateKeyOnUpsert()).when(bulk).execute();
+        ServiceModel service = service("s1", List.of("d1"), List.of("m1"));
+        service.setVersion(2L);
+
+        assignments.replaceForService(service);
+
+        // Solo se intentó la fila de control
+        verify(bulk, times(1)).replaceOne(any(Query.class), any(UserAssignmentEntity.class), any(FindAndReplaceOptions.class));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(UserAssignmentEntity.class));
+    }
+
+    @Test
+    void writeOvertakenMidFlightRemovesItsOwnVersion() {
+        ServiceModel service = service("s1", List.of(), List.of("m1"));
+        service.setVersion(3L);
+        when(mongoTemplate.findById("s1:#", UserAssignmentEntity.class)).thenReturn(marker(4L));
+
+        assignments.replaceForService(service);
+
+        ArgumentCaptor<Query> removals = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).remove(removals.capture(), eq(UserAssignmentEntity.class));
+        assertThat(removals.getAllValues().get(1).getQueryObject())
+            .containsEntry("serviceId", "s1")
+            .containsEntry("serviceVersion", 3L);
+    }
+
+    @Test
+    void otherBulkErrorsAreNotMistakenForANewerVersion() {
+        doThrow(new BulkOperationException("timeout", new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+            List.of(new BulkWriteError(50, "exceeded time limit", new BsonDocument(), 0)), null,
+            new ServerAddress(), Set.of()))).when(bulk).execute();
+
+        assertThatThrownBy(() -> assignments.replaceForService(service("s1", List.of("d1"), List.of())))
+            .isInstanceOf(BulkOperationException.class);
+    }
+
+    @Test
+    void rebuildWritesControlRowsAndDropsUntouchedRows() {
+        when(mongoTemplate.stream(any(Query.class), eq(ServiceEntity.class))).thenReturn(Stream.of(
+            ServiceEntity.fromDomain(service("s1", List.of("d1"), List.of("m1"))),
+            ServiceEntity.fromDomain(service("s2", List.of("d2"), List.of()))));
+        when(mongoTemplate.remove(any(Query.class), eq(UserAssignmentEntity.class))).thenReturn(DeleteResult.acknowledged(4));
+        LocalDateTime before = LocalDateTime.now().withNano(0);
+
+        AssignmentIndexRebuildResult result = assignments.rebuild(2);
+
+        assertThat(result.getServices()).isEqualTo(2);
+        assertThat(result.getAssignments()).isEqualTo(3);
+        assertThat(result.getBatches()).isEqualTo(2);
+        assertThat(result.getRemoved()).isEqualTo(4);
+        ArgumentCaptor<UserAssignmentEntity> rows = ArgumentCaptor.forClass(UserAssignmentEntity.class);
+        verify(bulk, times(5)).replaceOne(any(Query.class), rows.capture(), any(FindAndReplaceOptions.class));
+        assertThat(rows.getAllValues()).extracting(UserAssignmentEntity::getId).contains("s1:#", "s2:#");
+
+        ArgumentCaptor<Query> stale = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(stale.capture(), eq(UserAssignmentEntity.class));
+        LocalDateTime startedAt = (LocalDateTime) ((Document) stale.getValue().getQueryObject().get("indexedAt")).get("$lt");
+        assertThat(startedAt).isAfterOrEqualTo(before);
+    }
+
+    @Test
+    void serviceIdsForUserAreDistinctAndDateOrdered() {
+        when(mongoTemplate.find(any(Query.class), eq(UserAssignmentEntity.class))).thenReturn(List.of(
+            row("s1"), row("s1"), row("s2")));
+
+        assertThat(assignments.findServiceIdsForUser("u1", LocalDate.of(2025, 3, 1))).containsExactly("s1", "s2");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(UserAssignmentEntity.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("userId", "u1").containsKey("serviceDate");
+        assertThat(query.getValue().getSortObject()).containsKey("serviceDate");
+    }
+
+    @Test
+    void directorIdsComeFromTheIndexedRowsOfTheService() {
+        UserAssignmentEntity director = UserAssignmentEntity.fromDomain(
+            new UserAssignment("d1", "s1", UserModel.Role.DIRECTOR, null, null), 3L, null);
+        UserAssignmentEntity musician = UserAssignmentEntity.fromDomain(
+            new UserAssignment("m1", "s1", UserModel.Role.MUSICIAN, "BASS", null), 3L, null);
+        when(mongoTemplate.find(any(Query.class), eq(UserAssignmentEntity.class)))
+            .thenReturn(List.of(marker(3), director, musician));
+
+        assertThat(assignments.findDirectorIds("s1")).containsExactly("d1");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(UserAssignmentEntity.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("serviceId", "s1");
+    }
+
+    @Test
+    void serviceWithoutMarkerIsNotIndexed() {
+        when(mongoTemplate.find(any(Query.class), eq(UserAssignmentEntity.class))).thenReturn(List.of());
+
+        assertThat(assignments.findDirectorIds("s1")).isNull();
+    }
+
+    @Test
+    void assignmentsInWindowSkipMarkerRows() {
+        when(mongoTemplate.find(any(Query.class), eq(UserAssignmentEntity.class))).thenReturn(List.of(
+            UserAssignmentEntity.fromDomain(new UserAssignment("d1", "s1", UserModel.Role.DIRECTOR, null,
+                LocalDate.of(2025, 3, 5)), 1L, null)));
+
+        assertThat(assignments.findAssignmentsBetween(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 13)))
+            .extracting(UserAssignment::getUserId).containsExactly("d1");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(UserAssignmentEntity.class));
+        Document filter = query.getValue().getQueryObject();
+        assertThat(filter.get("serviceDate", Document.class))
+            .containsEntry("$gt", LocalDate.of(2025, 3, 3)).containsEntry("$lt", LocalDate.of(2025, 3, 13));
+        assertThat(filter.get("userId", Document.class)).containsEntry("$ne", null);
+        assertThat(query.getValue().getSortObject()).containsKey("serviceDate");
+    }
+
+    private static UserAssignmentEntity marker(long version) {
+        UserAssignmentEntity entity = new UserAssignmentEntity();
+        entity.setId("s1:#");
+        entity.setServiceVersion(version);
+        return entity;
+    }
+
+    // Lo que devuelve el driver cuando el filtro de versión no coincide y el upsert choca con el _id
+    private static BulkOperationException duplicateKeyOnUpsert() {
+        return new BulkOperationException("E11000", new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+            List.of(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 0)), null,
+            new ServerAddress(), Set.of()));
+    }
+
+    private static UserAssignmentEntity row(String serviceId) {
+        UserAssignmentEntity entity = new UserAssignmentEntity();
+        entity.setServiceId(serviceId);
+        return entity;
+    }
+
+    private static ServiceModel service(String id, List<String> directorIds, List<String> bassIds) {
+        ServiceModel service = new ServiceModel();
+        service.setId(id);
+        service.setServiceDate(LocalDate.of(2025, 3, 9));
+        service.setDirectors(new ArrayList<>(directorIds.stream().map(UserAssignmentUseCasesImplTests::user).toList()));
+        MusiciansList bass = new MusiciansList();
+        bass.setInstrument("BASS");
+        bass.setMusician(new ArrayList<>(bassIds.stream().map(UserAssignmentUseCasesImplTests::user).toList()));
+        service.setMusiciansList(new ArrayList<>(List.of(bass)));
+        return service;
+    }
+
+    private static UserModel user(String id) {
+        UserModel user = new UserModel();
+        user.setId(id);
+        return user;
+    }
+}
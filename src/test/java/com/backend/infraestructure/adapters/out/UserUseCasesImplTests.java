@@ -0,0 +1,220 @@
+package com.backend.infraestructure.adapters.out;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.backend.domain.model.CursorPage;
+import com.backend.domain.model.UserModel;
+import com.backend.domain.model.UserModel.Role;
+import com.backend.domain.model.UserUpsertResult;
+import com.backend.infraestructure.adapters.out.entities.UserEntity;
+import com.backend.infraestructure.adapters.out.repositories.UserRepository;
+import com.mongodb.client.result.UpdateResult;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UserUseCasesImplTests {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private UserUseCasesImpl userUseCases;
+
+    @Test
+    void ensureRoleWritesAndReportsOnlyUsersMissingTheRoleInMongo() {
+        // La copia del llamante dice que u1 ya es director, pero en MongoDB solo u2 lo es
+        when(mongoTemplate.find(any(Query.class), eq(UserEntity.class)))
+            .thenReturn(List.of(UserEntity.fromDomain(user("u1", Role.MUSICIAN))));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(UserEntity.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        List<String> changed = userUseCases.ensureRole(List.of("u1", "u2"), Role.DIRECTOR);
+
+        assertThat(changed).containsExactly("u1");
+        ArgumentCaptor<Query> read = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(read.capture(), eq(UserEntity.class));
+        assertThat(read.getValue().getQueryObject().get("_id", Document.class).getList("$in", String.class))
+            .containsExactly("u1", "u2");
+        assertThat(read.getValue().getQueryObject().get("roles", Document.class).get("$ne")).isEqualTo("DIRECTOR");
+        assertThat(read.getValue().getFieldsObject()).containsOnlyKeys("_id");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(UserEntity.class));
+        Document filter = query.getValue().getQueryObject();
+        assertThat(filter.get("_id", Document.class).getList("$in", String.class)).containsExactly("u1");
+        assertThat(filter.get("roles", Document.class).get("$ne")).isEqualTo("DIRECTOR");
+        assertThat(update.getValue().getUpdateObject().get("$addToSet", Document.class).get("roles")).isEqualTo("DIRECTOR");
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class))
+            .containsEntry("version", 1).containsEntry("tokenVersion", 1);
+    }
+
+    @Test
+    void ensureRoleSkipsTheWriteWhenEveryoneHasTheRole() {
+        when(mongoTemplate.find(any(Query.class), eq(UserEntity.class))).thenReturn(List.of());
+
+        assertThat(userUseCases.ensureRole(List.of("u1"), Role.DIRECTOR)).isEmpty();
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(UserEntity.class));
+    }
+
+    @Test
+    void ensureRoleWithoutIdsDoesNotTouchMongo() {
+        assertThat(userUseCases.ensureRole(List.of(), Role.DIRECTOR)).isEmpty();
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void tokenVersionIsReadWithAProjection() {
+        UserEntity stored = UserEntity.fromDomain(user("u1", Role.DIRECTOR));
+        stored.setTokenVersion(4L);
+        when(mongoTemplate.findOne(any(Query.class), eq(UserEntity.class))).thenReturn(stored);
+
+        assertThat(userUseCases.getTokenVersion("u1")).isEqualTo(4L);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(UserEntity.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("_id", "u1");
+        assertThat(query.getValue().getFieldsObject()).containsOnlyKeys("tokenVersion");
+    }
+
+    @Test
+    void missingTokenVersionCountsAsZeroAndMissingUserAsNull() {
+        when(mongoTemplate.findOne(any(Query.class), eq(UserEntity.class)))
+            .thenReturn(UserEntity.fromDomain(user("u1", Role.MUSICIAN)))
+            .thenReturn(null);
+
+        assertThat(userUseCases.getTokenVersion("u1")).isZero();
+        assertThat(userUseCases.getTokenVersion("u2")).isNull();
+    }
+
+    @Test
+    void getUsersByIdsDoesNotQueryForAnEmptyIdSet() {
+        assertThat(userUseCases.getUsersByIds(List.of())).isEmpty();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void usersPageContinuesAfterNullNames() {
+        UserEntity unnamed = UserEntity.fromDomain(user("u1", Role.MUSICIAN));
+        UserEntity named = UserEntity.fromDomain(user("u2", Role.MUSICIAN));
+        named.setName("Ana");
+        when(mongoTemplate.find(any(Query.class), eq(UserEntity.class))).thenReturn(List.of(unnamed, named));
+
+        CursorPage<UserModel> page = userUseCases.getUsersPage(Role.MUSICIAN, null, 1);
+
+        assertThat(page.getItems()).extracting(UserModel::getId).containsExactly("u1");
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertThat(next.getValue()).isNull();
+        assertThat(next.getId()).isEqualTo("u1");
+
+        userUseCases.getUsersPage(Role.MUSICIAN, page.getNextCursor(), 1);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, org.mockito.Mockito.times(2)).find(query.capture(), eq(UserEntity.class));
+        Document second = query.getAllValues().get(1).getQueryObject();
+        assertThat(second.toJson()).contains("\"roles\": \"MUSICIAN\"").contains("\"$ne\": null");
+        assertThat(query.getAllValues().get(1).getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void firstGoogleLoginInsertsWithAGeneratedId() {
+        UserModel login = googleLogin("nueva@example.com");
+
+        UserUpsertResult result = userUseCases.upsertByEmail(login);
+
+        assertThat(result.isCreated()).isTrue();
+        assertThat(result.getUser().getId()).matches("[0-9a-f]{24}");
+        assertThat(result.getUser().getVersion()).isZero();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(UserEntity.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("email", "nueva@example.com");
+        Document setOnInsert = update.getValue().getUpdateObject().get("$setOnInsert", Document.class);
+        assertThat(setOnInsert).containsEntry("id", result.getUser().getId()).doesNotContainKey("name");
+        assertThat(options.getValue().isUpsert()).isTrue();
+        assertThat(options.getValue().isReturnNew()).isFalse();
+    }
+
+    @Test
+    void returningGoogleUserIsReadInTheSameCommand() {
+        UserEntity stored = UserEntity.fromDomain(user("u1", Role.DIRECTOR));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(UserEntity.class)))
+            .thenReturn(stored);
+
+        UserUpsertResult result = userUseCases.upsertByEmail(googleLogin("u1@example.com"));
+
+        assertThat(result.isCreated()).isFalse();
+        assertThat(result.getUser().getRoles()).containsExactly(Role.DIRECTOR);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void concurrentFirstLoginFallsBackToTheWinner() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(UserEntity.class)))
+            .thenThrow(new DuplicateKeyException("E11000 email_unique"));
+        when(userRepository.findByEmail("u1@example.com")).thenReturn(Optional.of(UserEntity.fromDomain(user("u1", Role.MUSICIAN))));
+
+        UserUpsertResult result = userUseCases.upsertByEmail(googleLogin("u1@example.com"));
+
+        assertThat(result.isCreated()).isFalse();
+        assertThat(result.getUser().getId()).isEqualTo("u1");
+    }
+
+    @Test
+    void duplicateKeyWithoutAWinnerIsRethrown() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(UserEntity.class)))
+            .thenThrow(new DuplicateKeyException("E11000 otro índice"));
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userUseCases.upsertByEmail(googleLogin("u1@example.com")))
+            .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    private static UserModel googleLogin(String email) {
+        UserModel login = new UserModel();
+        login.setEmail(email);
+        login.setRoles(List.of(Role.MUSICIAN));
+        login.setCreatedAt(LocalDateTime.now());
+        return login;
+    }
+
+    private static UserModel user(String id, Role role) {
+        UserModel user = new UserModel();
+        user.setId(id);
+        user.setEmail(id + "@example.com");
+        user.setRoles(new ArrayList<>(List.of(role)));
+        return user;
+    }
+}
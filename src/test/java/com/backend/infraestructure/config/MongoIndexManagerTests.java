@@ -0,0 +1,186 @@
+package com.backend.infraestructure.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.infraestructure.adapters.out.entities.NotificationDedupEntity;
+import com.backend.infraestructure.adapters.out.entities.ServiceEntity;
+import com.backend.infraestructure.adapters.out.entities.UserAssignmentEntity;
+import com.backend.infraestructure.adapters.out.entities.UserEntity;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+
+class MongoIndexManagerTests {
+
+    private MongoTemplate mongoTemplate;
+    private IndexOperations serviceIndexes;
+    private IndexOperations userIndexes;
+    private IndexOperations assignmentIndexes;
+    private IndexOperations dedupIndexes;
+    private FindIterable<Document> cursor;
+    private MongoIndexManager indexManager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        // Como en Spring Boot: los tipos de java.time son simples y no se inspeccionan como entidades
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(ServiceEntity.class)).thenReturn("services");
+        when(mongoTemplate.getCollectionName(UserEntity.class)).thenReturn("users");
+        when(mongoTemplate.getCollectionName(UserAssignmentEntity.class)).thenReturn("user_assignments");
+        when(mongoTemplate.getCollectionName(NotificationDedupEntity.class)).thenReturn("notification_dedup");
+
+        serviceIndexes = mock(IndexOperations.class);
+        userIndexes = mock(IndexOperations.class);
+        assignmentIndexes = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(ServiceEntity.class)).thenReturn(serviceIndexes);
+        when(mongoTemplate.indexOps(UserEntity.class)).thenReturn(userIndexes);
+        when(mongoTemplate.indexOps(UserAssignmentEntity.class)).thenReturn(assignmentIndexes);
+        when(assignmentIndexes.getIndexInfo()).thenReturn(List.of());
+        dedupIndexes = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(NotificationDedupEntity.class)).thenReturn(dedupIndexes);
+        when(dedupIndexes.getIndexInfo()).thenReturn(List.of(index("expiresAt")));
+
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        cursor = mock(FindIterable.class);
+        when(mongoTemplate.getCollection(anyString())).thenReturn(collection);
+        when(collection.find(any(Bson.class))).thenReturn(cursor);
+        when(cursor.sort(any())).thenReturn(cursor);
+
+        indexManager = new MongoIndexManager(mongoTemplate);
+        ReflectionTestUtils.setField(indexManager, "strict", true);
+    }
+
+    @Test
+    void createsEveryDeclaredIndexAndAcceptsIndexedPlans() {
+        allIndexesPresent();
+        when(cursor.explain()).thenReturn(plan("FETCH", "IXSCAN"));
+
+        assertThatCode(indexManager::manageIndexes).doesNotThrowAnyException();
+
+        verify(serviceIndexes, times(3)).createIndex(any(IndexDefinition.class));
+        verify(userIndexes, times(4)).createIndex(any(IndexDefinition.class));
+        verify(assignmentIndexes, times(3)).createIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void dedupEntriesExpireExactlyAtTheirExpiresAt() {
+        allIndexesPresent();
+        when(cursor.explain()).thenReturn(plan("FETCH", "IXSCAN"));
+
+        indexManager.manageIndexes();
+
+        ArgumentCaptor<IndexDefinition> ttl = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(dedupIndexes).createIndex(ttl.capture());
+        assertThat(ttl.getValue().getIndexKeys()).containsOnlyKeys("expiresAt");
+        assertThat(ttl.getValue().getIndexOptions()).containsEntry("expireAfterSeconds", 0L);
+    }
+
+    @Test
+    void strictModeFailsWhenAnIndexIsMissing() {
+        when(serviceIndexes.getIndexInfo()).thenReturn(List.of(index("serviceDate", "_id")));
+        when(userIndexes.getIndexInfo()).thenReturn(userIndexInfo());
+        when(assignmentIndexes.getIndexInfo()).thenReturn(assignmentIndexInfo());
+        when(cursor.explain()).thenReturn(plan("IXSCAN"));
+
+        assertThatThrownBy(indexManager::manageIndexes)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("directors_serviceDate");
+    }
+
+    @Test
+    void strictModeFailsOnCollectionScan() {
+        allIndexesPresent();
+        when(cursor.explain()).thenReturn(plan("COLLSCAN"));
+
+        assertThatThrownBy(indexManager::manageIndexes)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("COLLSCAN");
+    }
+
+    @Test
+    void lenientModeOnlyLogsProblems() {
+        ReflectionTestUtils.setField(indexManager, "strict", false);
+        when(serviceIndexes.getIndexInfo()).thenReturn(List.of());
+        when(userIndexes.getIndexInfo()).thenReturn(List.of());
+        when(cursor.explain()).thenReturn(plan("COLLSCAN"));
+
+        assertThatCode(indexManager::manageIndexes).doesNotThrowAnyException();
+    }
+
+    private void allIndexesPresent() {
+        when(serviceIndexes.getIndexInfo()).thenReturn(List.of(
+            index("_id"),
+            index("serviceDate", "_id"),
+            index("directors._id", "serviceDate"),
+            index("musiciansList.musician._id", "serviceDate")));
+        when(userIndexes.getIndexInfo()).thenReturn(userIndexInfo());
+        when(assignmentIndexes.getIndexInfo()).thenReturn(assignmentIndexInfo());
+    }
+
+    private static List<IndexInfo> userIndexInfo() {
+        List<IndexInfo> indexes = new ArrayList<>();
+        indexes.add(new IndexInfo(List.of(IndexField.create("email", Sort.Direction.ASC)), "email_unique", true, true, null));
+        indexes.add(index("phoneNumber"));
+        indexes.add(index("name", "_id"));
+        indexes.add(index("roles", "name", "_id"));
+        return indexes;
+    }
+
+    private static List<IndexInfo> assignmentIndexInfo() {
+        return List.of(index("userId", "serviceDate"), index("serviceId"), index("serviceDate"));
+    }
+
+    private static IndexInfo index(String... keys) {
+        List<IndexField> fields = Arrays.stream(keys).map(key -> IndexField.create(key, Sort.Direction.ASC)).toList();
+        return new IndexInfo(fields, String.join("_", keys), false, false, null);
+    }
+
+    // Plan anidado como lo devuelve explain(): cada etapa envuelve a la siguiente en inputStage
+    private static Document plan(String... stages) {
+        Document node = null;
+        for (int i = stages.length - 1; i >= 0; i--) {
+            Document stage = new Document("stage", stages[i]);
+            if (node != null) {
+                stage.append("inputStage", node);
+            }
+            node = stage;
+        }
+        return new Document("queryPlanner", new Document("winningPlan", node));
+    }
+}
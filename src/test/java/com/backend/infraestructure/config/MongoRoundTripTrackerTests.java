@@ -0,0 +1,86 @@
+package com.backend.infraestructure.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+import com.mongodb.event.CommandStartedEvent;
+
+class MongoRoundTripTrackerTests {
+
+    private final MongoRoundTripTracker tracker = new MongoRoundTripTracker();
+
+    @Test
+    void countsCommandsPerCollectionInsideTrackedOperation() {
+        tracker.track("updateServiceAssignments", () -> {
+            tracker.commandStarted(command("find", "services"));
+            tracker.commandStarted(command("find", "users"));
+            tracker.commandStarted(command("findAndModify", "services"));
+            return null;
+        });
+
+        MongoRoundTripTracker.OperationStats stats = tracker.getStats().get("updateServiceAssignments");
+        assertThat(stats.getCalls()).isEqualTo(1);
+        assertThat(stats.getLastRoundTrips()).isEqualTo(3);
+        assertThat(stats.getLastByCollection()).containsEntry("services", 2).containsEntry("users", 1);
+    }
+
+    @Test
+    void commandsOutsideTrackedOperationAreIgnored() {
+        tracker.commandStarted(command("find", "services"));
+        tracker.track("op", () -> null);
+
+        assertThat(tracker.getStats().get("op").getTotalRoundTrips()).isZero();
+    }
+
+    @Test
+    void nestedOperationIsRecordedOnItsOwnAndAddsToTheOuterOne() {
+        tracker.track("outer", () -> {
+            tracker.commandStarted(command("find", "services"));
+            return tracker.track("inner", () -> {
+                tracker.commandStarted(command("update", "users"));
+                return null;
+            });
+        });
+
+        assertThat(tracker.getStats()).containsOnlyKeys("outer", "inner");
+        assertThat(tracker.getStats().get("outer").getLastRoundTrips()).isEqualTo(2);
+        assertThat(tracker.getStats().get("inner").getLastByCollection()).containsOnly(entry("users", 1));
+    }
+
+    @Test
+    void failedOperationIsStillRecorded() {
+        assertThatThrownBy(() -> tracker.track("failing", () -> {
+            tracker.commandStarted(command("find", "services"));
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(tracker.getStats().get("failing").getMaxRoundTrips()).isEqualTo(1);
+    }
+
+    @Test
+    void commandsWithoutCollectionAreCountedByName() {
+        tracker.track("ping", () -> {
+            tracker.commandStarted(command("ping", null));
+            return null;
+        });
+
+        assertThat(tracker.getStats().get("ping").getLastByCollection()).containsEntry("ping", 1);
+    }
+
+    private static CommandStartedEvent command(String name, String collection) {
+        BsonDocument document = collection != null ?
+            new BsonDocument(name, new BsonString(collection)) : new BsonDocument(name, new BsonInt32(1));
+        CommandStartedEvent event = mock(CommandStartedEvent.class);
+        when(event.getCommandName()).thenReturn(name);
+        when(event.getCommand()).thenReturn(document);
+        return event;
+    }
+}
@@ -0,0 +1,138 @@
+package com.backend.infraestructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.backend.infraestructure.config.GoogleIdTokenConfig;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * Tokens firmados con una clave RSA local, servida como JWKS por un servidor REST simulado
+ */
+class GoogleIdTokenVerifierTests {
+
+    private static final String JWKS_URI = "https://keys.example.test/certs";
+    private static final String CLIENT_ID = "client-123.apps.googleusercontent.com";
+
+    private static RSAKey signingKey;
+    private GoogleIdTokenVerifier verifier;
+
+    @BeforeAll
+    static void generateKey() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("k1").generate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(ExpectedCount.manyTimes(), requestTo(JWKS_URI))
+            .andRespond(withSuccess(new JWKSet(signingKey.toPublicJWK()).toString(), MediaType.APPLICATION_JSON));
+
+        RestTemplateBuilder builder = mock(RestTemplateBuilder.class);
+        when(builder.connectTimeout(any(Duration.class))).thenReturn(builder);
+        when(builder.readTimeout(any(Duration.class))).thenReturn(builder);
+        when(builder.build()).thenReturn(restTemplate);
+
+        verifier = new GoogleIdTokenVerifier(new GoogleIdTokenConfig().googleIdTokenDecoder(builder, JWKS_URI, CLIENT_ID));
+    }
+
+    @Test
+    void acceptsBothGoogleIssuerForms() throws Exception {
+        assertThat(verifier.verify(token(claims -> claims.issuer("accounts.google.com"))).getClaimAsString("email"))
+            .isEqualTo("ana@example.com");
+        assertThat(verifier.verify(token(claims -> claims.issuer("https://accounts.google.com"))).getSubject())
+            .isEqualTo("google-sub-1");
+    }
+
+    @Test
+    void rejectsTokensForAnotherAudience() throws Exception {
+        assertThatThrownBy(() -> verifier.verify(token(claims -> claims.audience("otra-app"))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Token de Google inválido");
+    }
+
+    @Test
+    void rejectsForeignIssuer() throws Exception {
+        assertThatThrownBy(() -> verifier.verify(token(claims -> claims.issuer("https://evil.example.com"))))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsExpiredTokens() throws Exception {
+        assertThatThrownBy(() -> verifier.verify(token(claims -> claims.expirationTime(Date.from(Instant.now().minusSeconds(600))))))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherKey() throws Exception {
+        RSAKey foreignKey = new RSAKeyGenerator(2048).keyID("k1").generate();
+        SignedJWT forged = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("k1").build(), baseClaims().build());
+        forged.sign(new RSASSASigner(foreignKey));
+
+        assertThatThrownBy(() -> verifier.verify(forged.serialize()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsUnverifiedOrMissingEmail() throws Exception {
+        assertThatThrownBy(() -> verifier.verify(token(claims -> claims.claim("email_verified", false))))
+            .hasMessageContaining("no está verificado");
+        assertThatThrownBy(() -> verifier.verify(token(claims -> claims.claim("email", null))))
+            .hasMessageContaining("no contiene email");
+    }
+
+    @Test
+    void rejectsTokensWithoutTheEmailVerifiedClaim() throws Exception {
+        assertThatThrownBy(() -> verifier.verify(token(claims -> claims.claim("email_verified", null))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("no está verificado");
+    }
+
+    private static String token(Consumer<JWTClaimsSet.Builder> customizer) throws Exception {
+        JWTClaimsSet.Builder claims = baseClaims();
+        customizer.accept(claims);
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("k1").build(), claims.build());
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    private static JWTClaimsSet.Builder baseClaims() {
+        Instant now = Instant.now();
+        return new JWTClaimsSet.Builder()
+            .issuer("https://accounts.google.com")
+            .audience(CLIENT_ID)
+            .subject("google-sub-1")
+            .issueTime(Date.from(now))
+            .expirationTime(Date.from(now.plusSeconds(3600)))
+            .claim("email", "ana@example.com")
+            .claim("email_verified", true)
+            .claim("name", "Ana");
+    }
+}
@@ -0,0 +1,127 @@
+package com.backend.infraestructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.application.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class JwtAuthenticationFilterTests {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private UserTokenVersionRegistry tokenVersionRegistry;
+
+    @InjectMocks
+    private JwtAuthenticationFilter filter;
+
+    private final Date issuedAt = new Date();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "stateless", true);
+        Claims claims = Jwts.claims().setSubject("ana@example.com");
+        claims.setIssuedAt(issuedAt);
+        claims.put("userId", "u1");
+        claims.put("roles", List.of("MUSICIAN"));
+        claims.put("tokenVersion", 2);
+        when(jwtService.verify(anyString())).thenReturn(claims);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void freshTokenAuthenticatesFromItsClaims() throws Exception {
+        filter.doFilter(bearer(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(authorities()).containsExactly("ROLE_MUSICIAN");
+        verify(tokenVersionRegistry).isStale("u1", 2L);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void tokenIssuedBeforeARoleChangeFallsBackToTheDatabase() throws Exception {
+        when(tokenVersionRegistry.isStale("u1", 2L)).thenReturn(true);
+        when(userDetailsService.loadUserByUsername("ana@example.com"))
+            .thenReturn(new User("ana@example.com", "", List.of(new SimpleGrantedAuthority("ROLE_DIRECTOR"))));
+
+        filter.doFilter(bearer(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(authorities()).containsExactly("ROLE_DIRECTOR");
+    }
+
+    @Test
+    void databaseModeVerifiesTheTokenOnce() throws Exception {
+        ReflectionTestUtils.setField(filter, "stateless", false);
+        when(userDetailsService.loadUserByUsername("ana@example.com"))
+            .thenReturn(new User("ana@example.com", "", List.of(new SimpleGrantedAuthority("ROLE_MUSICIAN"))));
+
+        filter.doFilter(bearer(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(authorities()).containsExactly("ROLE_MUSICIAN");
+        verify(jwtService, times(1)).verify("token");
+        verify(jwtService, never()).validateToken(anyString(), anyString());
+        verify(jwtService, never()).extractEmail(anyString());
+    }
+
+    @Test
+    void invalidTokenLeavesTheRequestAnonymous() throws Exception {
+        when(jwtService.verify(anyString())).thenThrow(new io.jsonwebtoken.ExpiredJwtException(null, null, "expirado"));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(bearer(), new MockHttpServletResponse(), chain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private static MockHttpServletRequest bearer() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+        return request;
+    }
+
+    private static List<String> authorities() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
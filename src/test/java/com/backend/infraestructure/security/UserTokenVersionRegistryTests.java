@@ -0,0 +1,100 @@
+package com.backend.infraestructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.domain.port.UserUseCases;
+
+class UserTokenVersionRegistryTests {
+
+    private UserUseCases userUseCases;
+    private UserTokenVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        userUseCases = mock(UserUseCases.class);
+        registry = registry(30, 100);
+    }
+
+    @Test
+    void tokenWithThePersistedVersionIsNotStale() {
+        when(userUseCases.getTokenVersion("u1")).thenReturn(2L);
+
+        assertThat(registry.isStale("u1", 2L)).isFalse();
+        assertThat(registry.isStale("u1", 1L)).isTrue();
+    }
+
+    @Test
+    void tokenWithoutClaimMatchesUsersThatNeverChangedRoles() {
+        when(userUseCases.getTokenVersion("u1")).thenReturn(0L);
+
+        assertThat(registry.isStale("u1", null)).isFalse();
+    }
+
+    @Test
+    void deletedUserMakesEveryTokenStale() {
+        when(userUseCases.getTokenVersion("u1")).thenReturn(null);
+
+        assertThat(registry.isStale("u1", 0L)).isTrue();
+    }
+
+    @Test
+    void persistedVersionIsCachedUntilTheTtl() {
+        when(userUseCases.getTokenVersion("u1")).thenReturn(2L);
+
+        registry.isStale("u1", 2L);
+        registry.isStale("u1", 2L);
+
+        verify(userUseCases, times(1)).getTokenVersion("u1");
+    }
+
+    @Test
+    void rolesChangedInThisProcessRereadsTheBumpedVersion() {
+        // Otra escritura (ensureRole o updateUser) ya subió la versión en MongoDB
+        when(userUseCases.getTokenVersion("u1")).thenReturn(2L, 3L);
+        assertThat(registry.isStale("u1", 2L)).isFalse();
+
+        registry.rolesChanged("u1");
+
+        assertThat(registry.isStale("u1", 2L)).isTrue();
+        assertThat(registry.isStale("u1", 3L)).isFalse();
+        verify(userUseCases, times(2)).getTokenVersion("u1");
+    }
+
+    @Test
+    void changeFromAnotherInstanceIsSeenAfterTheTtl() {
+        UserTokenVersionRegistry shortLived = registry(0, 100);
+        when(userUseCases.getTokenVersion("u1")).thenReturn(2L, 3L);
+
+        assertThat(shortLived.isStale("u1", 2L)).isFalse();
+        assertThat(shortLived.isStale("u1", 2L)).isTrue();
+    }
+
+    @Test
+    void fullCacheStillAnswersFromMongo() {
+        UserTokenVersionRegistry tiny = registry(30, 1);
+        when(userUseCases.getTokenVersion("u1")).thenReturn(1L);
+        when(userUseCases.getTokenVersion("u2")).thenReturn(5L);
+
+        tiny.isStale("u1", 1L);
+
+        assertThat(tiny.isStale("u2", 5L)).isFalse();
+        assertThat(tiny.isStale("u2", 5L)).isFalse();
+        verify(userUseCases, times(2)).getTokenVersion("u2");
+    }
+
+    private UserTokenVersionRegistry registry(long ttlSeconds, int maxSize) {
+        UserTokenVersionRegistry registry = new UserTokenVersionRegistry();
+        ReflectionTestUtils.setField(registry, "userUseCases", userUseCases);
+        ReflectionTestUtils.setField(registry, "ttlSeconds", ttlSeconds);
+        ReflectionTestUtils.setField(registry, "maxSize", maxSize);
+        return registry;
+    }
+}
@@ -0,0 +1,120 @@
+package com.backend.infraestructure.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.application.dto.NotificationMessage;
+import com.backend.infraestructure.config.RabbitMQConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+
+class DeadLetterServiceTests {
+
+    private RabbitTemplate rabbitTemplate;
+    private Channel channel;
+    private DeadLetterService deadLetterService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        channel = mock(Channel.class);
+        when(rabbitTemplate.getMessageConverter()).thenReturn(new Jackson2JsonMessageConverter());
+        when(rabbitTemplate.execute(any(ChannelCallback.class)))
+            .thenAnswer(invocation -> ((ChannelCallback<?>) invocation.getArgument(0)).doInRabbit(channel));
+
+        deadLetterService = new DeadLetterService(rabbitTemplate);
+        ReflectionTestUtils.setField(deadLetterService, "confirmTimeoutMillis", 100L);
+    }
+
+    @Test
+    void inspectReadsWithoutConsumingAndReturnsEverythingToTheQueue() throws Exception {
+        when(channel.basicGet(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_QUEUE, false))
+            .thenReturn(deadLetter(1, "a@x.com", 4), deadLetter(2, "b@x.com", 4), null);
+
+        List<DeadLetterService.DeadLetter> deadLetters = deadLetterService.inspect(10);
+
+        assertThat(deadLetters).extracting(d -> d.getNotification().getUserEmail())
+            .containsExactly("a@x.com", "b@x.com");
+        assertThat(deadLetters.get(0).getAttempts()).isEqualTo(4);
+        assertThat(deadLetters.get(0).getError()).isEqualTo("SMTP caído");
+        verify(channel).basicNack(2, true, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void replayResetsTheAttemptsAndAcksOnlyAfterTheConfirm() throws Exception {
+        when(channel.basicGet(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_QUEUE, false))
+            .thenReturn(deadLetter(5, "a@x.com", 4), deadLetter(6, "b@x.com", 4));
+
+        int replayed = deadLetterService.replay(2);
+
+        assertThat(replayed).isEqualTo(2);
+        ArgumentCaptor<AMQP.BasicProperties> properties = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel, times(2)).basicPublish(eq(RabbitMQConfig.NOTIFICATION_EXCHANGE),
+            eq(RabbitMQConfig.NOTIFICATION_ROUTING_KEY), properties.capture(), any(byte[].class));
+        assertThat(properties.getValue().getHeaders())
+            .doesNotContainKeys(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, RabbitMQConfig.NOTIFICATION_ERROR_HEADER)
+            .containsEntry("trace", "t1");
+        verify(channel).waitForConfirmsOrDie(100L);
+        verify(channel).basicAck(6, true);
+    }
+
+    @Test
+    void unconfirmedReplayLeavesTheMessagesInTheDlq() throws Exception {
+        when(channel.basicGet(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_QUEUE, false))
+            .thenReturn(deadLetter(9, "a@x.com", 4), (GetResponse) null);
+        doThrow(new TimeoutException("sin confirmación")).when(channel).waitForConfirmsOrDie(anyLong());
+
+        assertThatThrownBy(() -> deadLetterService.replay(5)).isInstanceOf(TimeoutException.class);
+
+        verify(channel).basicNack(9, true, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    private static GetResponse deadLetter(long deliveryTag, String email, int attempts) throws Exception {
+        NotificationMessage notification = new NotificationMessage();
+        notification.setType(NotificationMessage.NotificationType.EMAIL);
+        notification.setUserEmail(email);
+
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, attempts);
+        headers.put(RabbitMQConfig.NOTIFICATION_ERROR_HEADER, "SMTP caído");
+        headers.put("trace", "t1");
+        headers.put("__TypeId__", NotificationMessage.class.getName());
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+            .contentType("application/json")
+            .headers(headers)
+            .build();
+
+        byte[] body = new ObjectMapper().writeValueAsBytes(notification);
+        return new GetResponse(new Envelope(deliveryTag, false, RabbitMQConfig.NOTIFICATION_DEAD_LETTER_EXCHANGE,
+            RabbitMQConfig.NOTIFICATION_DEAD_LETTER_ROUTING_KEY), properties, body, 0);
+    }
+}
@@ -0,0 +1,291 @@
+package com.backend.infraestructure.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import com.backend.application.dto.NotificationMessage;
+import com.backend.domain.model.NotificationClaim;
+import com.backend.infraestructure.config.RabbitMQConfig;
+import com.rabbitmq.client.Channel;
+
+class NotificationConsumerTests {
+
+    private final EmailService emailService = mock(EmailService.class);
+    private final NotificationConsumerMetrics metrics = new NotificationConsumerMetrics();
+    private final Channel channel = mock(Channel.class);
+    private final NotificationDeliveryFailureHandler failureHandler = mock(NotificationDeliveryFailureHandler.class);
+    private final NotificationDeduplicator deduplicator = mock(NotificationDeduplicator.class);
+    private final NotificationConsumer consumer = new NotificationConsumer(emailService, metrics, failureHandler, deduplicator);
+
+    @BeforeEach
+    void claimEverythingByDefault() {
+        when(deduplicator.tryClaim(any(), anyString())).thenReturn(NotificationClaim.CLAIMED);
+    }
+
+    @Test
+    void wholeBatchIsSentInOneCallAndEveryMessageIsAckedOnItsOwn() throws Exception {
+        when(emailService.sendNotificationEmails(anyList())).thenAnswer(invocation -> {
+            List<NotificationMessage> batch = invocation.getArgument(0);
+            return batch.stream().map(n -> new EmailService.DeliveryResult(n, true, null)).toList();
+        });
+
+        consumer.processNotificationBatch(List.of(delivery(7, "a@x.com"), delivery(8, "b@x.com")), channel);
+
+        verify(emailService).sendNotificationEmails(argThat(batch -> batch.size() == 2
+            && "a@x.com".equals(batch.get(0).getUserEmail())
+            && "b@x.com".equals(batch.get(1).getUserEmail())));
+        verify(emailService, never()).sendNotificationEmail(argThat(n -> true));
+        verify(channel).basicAck(7, false);
+        verify(channel).basicAck(8, false);
+
+        NotificationConsumerMetrics.ConsumerStats stats = metrics.getStats();
+        assertThat(stats.getProcessed()).isEqualTo(2);
+        assertThat(stats.getBatches()).isEqualTo(1);
+        assertThat(stats.getInFlight()).isZero();
+    }
+
+    @Test
+    void failedEmailIsRescheduledWithItsAttemptCountAndEveryDeliveryIsAcked() throws Exception {
+        when(emailService.sendNotificationEmails(anyList())).thenAnswer(invocation -> {
+            List<NotificationMessage> batch = invocation.getArgument(0);
+            return List.of(
+                new EmailService.DeliveryResult(batch.get(0), true, null),
+                new EmailService.DeliveryResult(batch.get(1), false, "550 destinatario inválido"),
+                new EmailService.DeliveryResult(batch.get(2), true, null));
+        });
+
+        Message<NotificationMessage> retried = MessageBuilder.fromMessage(delivery(2, "b@x.com"))
+            .setHeader(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, 1)
+            .build();
+
+        consumer.processNotificationBatch(List.of(delivery(1, "a@x.com"), retried, delivery(3, "c@x.com")), channel);
+
+        verify(failureHandler).handleFailure(retried.getPayload(), 2, "550 destinatario inválido");
+        verify(deduplicator).release(eq(retried.getPayload()), anyString());
+        verify(deduplicator, times(2)).delivered(any());
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+        verify(channel).basicAck(3, false);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+        assertThat(metrics.getStats().getProcessed()).isEqualTo(2);
+        assertThat(metrics.getStats().getFailed()).isEqualTo(1);
+        assertThat(metrics.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    void failureThatCannotBeRescheduledIsRequeued() throws Exception {
+        when(emailService.sendNotificationEmails(anyList())).thenAnswer(invocation -> {
+            List<NotificationMessage> batch = invocation.getArgument(0);
+            return List.of(new EmailService.DeliveryResult(batch.get(0), false, "timeout"));
+        });
+        doThrow(new AmqpConnectException(new ConnectException("broker caído")))
+            .when(failureHandler).handleFailure(any(), anyInt(), anyString());
+
+        consumer.processNotificationBatch(List.of(delivery(4, "a@x.com")), channel);
+
+        verify(channel).basicNack(4, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void singleMessageModeHandsTheFailureToTheRetryQueues() {
+        NotificationMessage notification = notification("a@x.com");
+        doThrow(new IllegalStateException("smtp caído")).when(emailService).sendNotificationEmail(notification);
+
+        consumer.processNotification(notification, null);
+        consumer.processNotification(notification, 3);
+
+        verify(failureHandler).handleFailure(notification, 1, "smtp caído");
+        verify(failureHandler).handleFailure(notification, 4, "smtp caído");
+        assertThat(metrics.getStats().getFailed()).isEqualTo(2);
+        assertThat(metrics.getStats().getBatches()).isEqualTo(2);
+        assertThat(metrics.getStats().getMessagesPerSecond()).isPositive();
+    }
+
+    @Test
+    void duplicatesAreAckedWithoutReachingSmtp() throws Exception {
+        Message<NotificationMessage> duplicate = delivery(1, "a@x.com");
+        Message<NotificationMessage> fresh = delivery(2, "b@x.com");
+        when(deduplicator.tryClaim(eq(duplicate.getPayload()), anyString())).thenReturn(NotificationClaim.ALREADY_SENT);
+        when(emailService.sendNotificationEmails(anyList())).thenAnswer(invocation -> {
+            List<NotificationMessage> batch = invocation.getArgument(0);
+            return batch.stream().map(n -> new EmailService.DeliveryResult(n, true, null)).toList();
+        });
+
+        consumer.processNotificationBatch(List.of(duplicate, fresh), channel);
+
+        verify(emailService).sendNotificationEmails(List.of(fresh.getPayload()));
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+        verify(deduplicator).delivered(fresh.getPayload());
+        assertThat(metrics.getStats().getDuplicatesSkipped()).isEqualTo(1);
+        assertThat(metrics.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    void notificationHeldByAnotherConsumerIsDeferredWithoutSpendingAnAttempt() {
+        NotificationMessage notification = notification("a@x.com");
+        when(deduplicator.tryClaim(eq(notification), anyString())).thenReturn(NotificationClaim.IN_PROGRESS);
+
+        consumer.processNotification(notification, 2);
+
+        verify(emailService, never()).sendNotificationEmail(any());
+        verify(failureHandler).defer(notification, 2, "Entrega en curso en otro consumidor");
+        verify(failureHandler, never()).handleFailure(any(), anyInt(), anyString());
+        // La reserva es de otro consumidor: no se toca
+        verify(deduplicator, never()).release(any(), any());
+        assertThat(metrics.getStats().getDeferred()).isEqualTo(1);
+        assertThat(metrics.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    void deferralThatCannotBePublishedNeverReleasesAForeignLease() {
+        NotificationMessage notification = notification("a@x.com");
+        when(deduplicator.tryClaim(eq(notification), anyString())).thenReturn(NotificationClaim.IN_PROGRESS);
+        doThrow(new AmqpConnectException(new ConnectException("broker caído")))
+            .when(failureHandler).defer(any(), anyInt(), anyString());
+
+        assertThatThrownBy(() -> consumer.processNotification(notification, null))
+            .isInstanceOf(AmqpConnectException.class);
+
+        verify(deduplicator, never()).release(any(), any());
+        assertThat(metrics.getStats().getFailed()).isZero();
+        assertThat(metrics.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    void batchClaimErrorIsRequeuedWithoutReleasing() throws Exception {
+        when(deduplicator.tryClaim(any(), anyString())).thenReturn(NotificationClaim.IN_PROGRESS);
+        doThrow(new AmqpConnectException(new ConnectException("broker caído")))
+            .when(failureHandler).defer(any(), anyInt(), anyString());
+
+        consumer.processNotificationBatch(List.of(delivery(5, "a@x.com")), channel);
+
+        verify(channel).basicNack(5, false, true);
+        verify(deduplicator, never()).release(any(), any());
+        verify(emailService, never()).sendNotificationEmails(anyList());
+        assertThat(metrics.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    void exhaustedPoolDefersTheWholeBatchWithoutSpendingAttempts() throws Exception {
+        when(emailService.sendNotificationEmails(anyList()))
+            .thenThrow(new SmtpPoolExhaustedException("No hay conexiones SMTP libres tras 50 ms"));
+        Message<NotificationMessage> retried = MessageBuilder.fromMessage(delivery(2, "b@x.com"))
+            .setHeader(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, 2)
+            .build();
+
+        consumer.processNotificationBatch(List.of(delivery(1, "a@x.com"), retried), channel);
+
+        verify(failureHandler).defer(any(), eq(0), anyString());
+        verify(failureHandler).defer(retried.getPayload(), 2, "No hay conexiones SMTP libres tras 50 ms");
+        verify(failureHandler, never()).handleFailure(any(), anyInt(), anyString());
+        verify(deduplicator, times(2)).release(any(), any());
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+        assertThat(metrics.getStats().getDeferred()).isEqualTo(2);
+        assertThat(metrics.getStats().getFailed()).isZero();
+        assertThat(metrics.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    void exhaustedPoolInSingleModeIsDeferredNotFailed() {
+        NotificationMessage notification = notification("a@x.com");
+        doThrow(new SmtpPoolExhaustedException("sin conexión")).when(emailService).sendNotificationEmail(notification);
+
+        consumer.processNotification(notification, 1);
+
+        verify(failureHandler).defer(notification, 1, "sin conexión");
+        verify(failureHandler, never()).handleFailure(any(), anyInt(), anyString());
+        assertThat(metrics.getStats().getDeferred()).isEqualTo(1);
+    }
+
+    @Test
+    void failedSendReleasesOnlyTheReservationItClaimed() {
+        NotificationMessage notification = notification("a@x.com");
+        doThrow(new IllegalStateException("550")).when(emailService).sendNotificationEmail(notification);
+
+        consumer.processNotification(notification, null);
+
+        ArgumentCaptor<String> claimOwner = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> releaseOwner = ArgumentCaptor.forClass(String.class);
+        verify(deduplicator).tryClaim(eq(notification), claimOwner.capture());
+        verify(deduplicator).release(eq(notification), releaseOwner.capture());
+        assertThat(releaseOwner.getValue()).isNotBlank().isEqualTo(claimOwner.getValue());
+    }
+
+    @Test
+    void unexpectedSendErrorRequeuesEveryClaimedMessage() throws Exception {
+        when(emailService.sendNotificationEmails(anyList())).thenThrow(new IllegalStateException("plantilla rota"));
+
+        consumer.processNotificationBatch(List.of(delivery(1, "a@x.com"), delivery(2, "b@x.com")), channel);
+
+        verify(channel).basicNack(1, false, true);
+        verify(channel).basicNack(2, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(deduplicator, times(2)).release(any(), any());
+        verify(deduplicator, never()).delivered(any());
+        assertThat(metrics.getStats().getFailed()).isEqualTo(2);
+        assertThat(metrics.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    void alreadySentEmailIsMarkedDeliveredBeforeItsRequeue() throws Exception {
+        Message<NotificationMessage> first = delivery(1, "a@x.com");
+        Message<NotificationMessage> second = delivery(2, "b@x.com");
+        when(emailService.sendNotificationEmails(anyList())).thenAnswer(invocation -> {
+            List<NotificationMessage> batch = invocation.getArgument(0);
+            return batch.stream().map(n -> new EmailService.DeliveryResult(n, true, null)).toList();
+        });
+        // El canal se cierra tras confirmar el primero
+        doThrow(new IOException("canal cerrado")).when(channel).basicAck(2, false);
+
+        consumer.processNotificationBatch(List.of(first, second), channel);
+
+        verify(channel).basicAck(1, false);
+        verify(channel).basicNack(2, false, true);
+        verify(deduplicator, times(2)).delivered(second.getPayload());
+        verify(deduplicator, never()).release(any(), any());
+        assertThat(metrics.getStats().getInFlight()).isZero();
+    }
+
+    private static Message<NotificationMessage> delivery(long tag, String email) {
+        return MessageBuilder.withPayload(notification(email))
+            .setHeader(AmqpHeaders.DELIVERY_TAG, tag)
+            .build();
+    }
+
+    private static NotificationMessage notification(String email) {
+        NotificationMessage notification = new NotificationMessage();
+        notification.setType(NotificationMessage.NotificationType.EMAIL);
+        notification.setCategory(NotificationMessage.NotificationCategory.REMINDER);
+        notification.setUserEmail(email);
+        return notification;
+    }
+}
@@ -0,0 +1,133 @@
+package com.backend.infraestructure.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.backend.application.dto.NotificationMessage;
+import com.backend.application.dto.NotificationMessage.NotificationCategory;
+import com.backend.application.dto.NotificationMessage.NotificationType;
+import com.backend.domain.model.NotificationClaim;
+import com.backend.domain.port.NotificationDedupUseCases;
+
+class NotificationDeduplicatorTests {
+
+    private NotificationDedupUseCases dedupUseCases;
+    private NotificationDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        dedupUseCases = mock(NotificationDedupUseCases.class);
+        deduplicator = new NotificationDeduplicator(dedupUseCases, true, 3600, 120, 100);
+    }
+
+    @Test
+    void claimsWithLeaseUnderTheNotificationKey() {
+        NotificationMessage notification = notification("u1");
+        when(dedupUseCases.claim(anyString(), anyString(), any())).thenReturn(NotificationClaim.CLAIMED);
+
+        assertThat(deduplicator.tryClaim(notification, "owner-1")).isEqualTo(NotificationClaim.CLAIMED);
+        verify(dedupUseCases).claim(NotificationMessage.keyOf(notification), "owner-1", Duration.ofSeconds(120));
+    }
+
+    @Test
+    void prefersThePublishedKey() {
+        NotificationMessage notification = notification("u1");
+        notification.setNotificationKey("clave-publicada");
+        when(dedupUseCases.claim(anyString(), anyString(), any())).thenReturn(NotificationClaim.CLAIMED);
+
+        deduplicator.tryClaim(notification, "owner-1");
+
+        verify(dedupUseCases).claim(eq("clave-publicada"), eq("owner-1"), any());
+    }
+
+    @Test
+    void deliveredKeyIsSkippedWithoutQueryingMongo() {
+        NotificationMessage notification = notification("u1");
+        when(dedupUseCases.claim(anyString(), anyString(), any())).thenReturn(NotificationClaim.CLAIMED);
+
+        deduplicator.tryClaim(notification, "owner-1");
+        deduplicator.delivered(notification);
+
+        assertThat(deduplicator.tryClaim(notification("u1"), "owner-2")).isEqualTo(NotificationClaim.ALREADY_SENT);
+        verify(dedupUseCases, times(1)).claim(anyString(), anyString(), any());
+        verify(dedupUseCases).markSent(NotificationMessage.keyOf(notification), Duration.ofSeconds(3600));
+    }
+
+    @Test
+    void alreadySentInMongoIsRememberedLocally() {
+        NotificationMessage notification = notification("u1");
+        when(dedupUseCases.claim(anyString(), anyString(), any())).thenReturn(NotificationClaim.ALREADY_SENT);
+
+        assertThat(deduplicator.tryClaim(notification, "owner-1")).isEqualTo(NotificationClaim.ALREADY_SENT);
+        assertThat(deduplicator.tryClaim(notification, "owner-1")).isEqualTo(NotificationClaim.ALREADY_SENT);
+        verify(dedupUseCases, times(1)).claim(anyString(), anyString(), any());
+    }
+
+    @Test
+    void inProgressIsReportedAndNotRemembered() {
+        NotificationMessage notification = notification("u1");
+        when(dedupUseCases.claim(anyString(), anyString(), any()))
+            .thenReturn(NotificationClaim.IN_PROGRESS)
+            .thenReturn(NotificationClaim.CLAIMED);
+
+        assertThat(deduplicator.tryClaim(notification, "owner-1")).isEqualTo(NotificationClaim.IN_PROGRESS);
+        assertThat(deduplicator.tryClaim(notification, "owner-1")).isEqualTo(NotificationClaim.CLAIMED);
+    }
+
+    @Test
+    void releaseFreesOnlyTheOwnersReservation() {
+        NotificationMessage notification = notification("u1");
+
+        deduplicator.release(notification, "owner-1");
+
+        verify(dedupUseCases).release(NotificationMessage.keyOf(notification), "owner-1");
+        verify(dedupUseCases, never()).markSent(anyString(), any());
+    }
+
+    @Test
+    void failsOpenWhenMongoIsUnavailable() {
+        NotificationMessage notification = notification("u1");
+        when(dedupUseCases.claim(anyString(), anyString(), any())).thenThrow(new RuntimeException("timeout"));
+        doThrow(new RuntimeException("timeout")).when(dedupUseCases).markSent(anyString(), any());
+        doThrow(new RuntimeException("timeout")).when(dedupUseCases).release(anyString(), anyString());
+
+        assertThat(deduplicator.tryClaim(notification, "owner-1")).isEqualTo(NotificationClaim.CLAIMED);
+        deduplicator.release(notification, "owner-1");
+        deduplicator.delivered(notification);
+
+        // Aunque MongoDB falle, el envío queda recordado en este nodo
+        assertThat(deduplicator.tryClaim(notification, "owner-1")).isEqualTo(NotificationClaim.ALREADY_SENT);
+    }
+
+    @Test
+    void disabledDeduplicatorAlwaysClaims() {
+        NotificationDeduplicator disabled = new NotificationDeduplicator(dedupUseCases, false, 3600, 120, 100);
+        NotificationMessage notification = notification("u1");
+
+        disabled.delivered(notification);
+
+        assertThat(disabled.tryClaim(notification, "owner-1")).isEqualTo(NotificationClaim.CLAIMED);
+        disabled.release(notification, "owner-1");
+        verifyNoInteractions(dedupUseCases);
+    }
+
+    private static NotificationMessage notification(String userId) {
+        return new NotificationMessage(NotificationType.EMAIL, NotificationCategory.ASSIGNMENT,
+            userId, userId + "@example.com", "MUSICIAN", "GUITAR", "Asignación", "Cuerpo", "s1",
+            "2025-03-02", "Iglesia", "2025-03-01");
+    }
+}
@@ -0,0 +1,141 @@
+package com.backend.infraestructure.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import com.backend.application.dto.NotificationMessage;
+import com.backend.application.dto.NotificationMessage.NotificationCategory;
+import com.backend.application.dto.NotificationMessage.NotificationType;
+import com.backend.infraestructure.config.RabbitMQConfig;
+
+class NotificationDeliveryFailureHandlerTests {
+
+    private RabbitTemplate rabbitTemplate;
+    private NotificationConsumerMetrics metrics;
+    private NotificationDeliveryFailureHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        metrics = new NotificationConsumerMetrics();
+        handler = new NotificationDeliveryFailureHandler(rabbitTemplate, metrics);
+    }
+
+    @Test
+    void firstFailureGoesToTenSecondRetryQueue() {
+        assertRetriedTo(1, "notification.retry.10s");
+    }
+
+    @Test
+    void secondFailureGoesToSixtySecondRetryQueue() {
+        assertRetriedTo(2, "notification.retry.60s");
+    }
+
+    @Test
+    void thirdFailureGoesToFiveMinuteRetryQueue() {
+        assertRetriedTo(3, "notification.retry.300s");
+    }
+
+    @Test
+    void failureAfterLastRetryGoesToDeadLetterQueue() {
+        NotificationMessage notification = notification();
+
+        handler.handleFailure(notification, 4, "SMTP caído");
+
+        Map<String, Object> headers = publishedHeaders(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_EXCHANGE,
+            RabbitMQConfig.NOTIFICATION_DEAD_LETTER_ROUTING_KEY, notification);
+        assertThat(headers)
+            .containsEntry(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, 4)
+            .containsEntry(RabbitMQConfig.NOTIFICATION_ERROR_HEADER, "SMTP caído")
+            .containsKey(RabbitMQConfig.NOTIFICATION_FAILED_AT_HEADER);
+        verify(rabbitTemplate, never()).convertAndSend(eq(RabbitMQConfig.NOTIFICATION_RETRY_EXCHANGE), anyString(),
+            any(Object.class), any(MessagePostProcessor.class));
+        assertThat(metrics.getStats().getDeadLettered()).isEqualTo(1);
+        assertThat(metrics.getStats().getRetried()).isZero();
+    }
+
+    @Test
+    void missingErrorIsReportedAsUnknown() {
+        NotificationMessage notification = notification();
+
+        handler.handleFailure(notification, 1, null);
+
+        Map<String, Object> headers = publishedHeaders(RabbitMQConfig.NOTIFICATION_RETRY_EXCHANGE,
+            "notification.retry.10s", notification);
+        assertThat(headers).containsEntry(RabbitMQConfig.NOTIFICATION_ERROR_HEADER, "Error desconocido");
+    }
+
+    @Test
+    void deferKeepsTheAttemptCounter() {
+        NotificationMessage notification = notification();
+
+        handler.defer(notification, 2, "Pool SMTP agotado");
+
+        Map<String, Object> headers = publishedHeaders(RabbitMQConfig.NOTIFICATION_RETRY_EXCHANGE,
+            "notification.retry.10s", notification);
+        assertThat(headers)
+            .containsEntry(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, 2)
+            .containsEntry(RabbitMQConfig.NOTIFICATION_ERROR_HEADER, "Pool SMTP agotado");
+        assertThat(metrics.getStats().getRetried()).isZero();
+    }
+
+    @Test
+    void retryQueuesReturnToMainQueueWhenTheirTtlExpires() {
+        Map<String, Queue> queues = new RabbitMQConfig().notificationRetryDeclarables()
+            .getDeclarablesByType(Queue.class).stream()
+            .collect(Collectors.toMap(Queue::getName, queue -> queue));
+
+        for (int delaySeconds : RabbitMQConfig.NOTIFICATION_RETRY_DELAYS_SECONDS) {
+            Queue retryQueue = queues.get(RabbitMQConfig.retryQueueName(delaySeconds));
+            assertThat(retryQueue.getArguments())
+                .containsEntry("x-message-ttl", delaySeconds * 1000)
+                .containsEntry("x-dead-letter-exchange", RabbitMQConfig.NOTIFICATION_EXCHANGE)
+                .containsEntry("x-dead-letter-routing-key", RabbitMQConfig.NOTIFICATION_ROUTING_KEY);
+        }
+        assertThat(queues).containsKey(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_QUEUE);
+    }
+
+    private void assertRetriedTo(int failedAttempts, String retryQueue) {
+        NotificationMessage notification = notification();
+
+        handler.handleFailure(notification, failedAttempts, "SMTP caído");
+
+        Map<String, Object> headers = publishedHeaders(RabbitMQConfig.NOTIFICATION_RETRY_EXCHANGE, retryQueue, notification);
+        assertThat(headers)
+            .containsEntry(RabbitMQConfig.NOTIFICATION_ATTEMPT_HEADER, failedAttempts)
+            .containsEntry(RabbitMQConfig.NOTIFICATION_ERROR_HEADER, "SMTP caído");
+        assertThat(metrics.getStats().getRetried()).isEqualTo(1);
+        assertThat(metrics.getStats().getDeadLettered()).isZero();
+    }
+
+    // Aplica el post-procesador publicado a un mensaje vacío y devuelve sus cabeceras
+    private Map<String, Object> publishedHeaders(String exchange, String routingKey, NotificationMessage notification) {
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq(exchange), eq(routingKey), eq(notification), postProcessor.capture());
+        Message message = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        return message.getMessageProperties().getHeaders();
+    }
+
+    private static NotificationMessage notification() {
+        return new NotificationMessage(NotificationType.EMAIL, NotificationCategory.ASSIGNMENT,
+            "u1", "u1@example.com", "MUSICIAN", "GUITAR", "Asignación", "Cuerpo", "s1",
+            "2025-03-02", "Iglesia", "2025-03-01");
+    }
+}
@@ -0,0 +1,209 @@
+package com.backend.infraestructure.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.application.dto.NotificationMessage;
+import com.backend.application.dto.PublishResult;
+import com.backend.infraestructure.config.RabbitMQConfig;
+
+class NotificationProducerTests {
+
+    private RabbitTemplate rabbitTemplate;
+    private RabbitOperations channel;
+    private NotificationProducer producer;
+    // Respuesta del broker para cada publicación, en orden; sin respuesta el mensaje queda sin confirmar
+    private final Deque<Consumer<CorrelationData>> broker = new ArrayDeque<>();
+    private final List<CorrelationData> unconfirmed = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        channel = mock(RabbitOperations.class);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+            invocation.<RabbitOperations.OperationsCallback<Object>>getArgument(0).doInRabbit(channel));
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            if (broker.isEmpty()) {
+                unconfirmed.add(correlation);
+            } else {
+                broker.pop().accept(correlation);
+            }
+            return null;
+        }).when(channel).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        producer = new NotificationProducer(rabbitTemplate);
+        ReflectionTestUtils.setField(producer, "confirmTimeoutMillis", 50L);
+        ReflectionTestUtils.setField(producer, "maxAttempts", 3);
+    }
+
+    @Test
+    void confirmsArriveThroughTheTemplateCallback() {
+        producer.registerConfirmCallback();
+
+        verify(rabbitTemplate).setConfirmCallback(producer);
+    }
+
+    @Test
+    void batchIsPublishedOnOneChannelWithoutWaitingForConfirms() {
+        CompletableFuture<PublishResult> future =
+            producer.sendMultipleNotificationsToQueue(List.of(message("a"), message("b")));
+
+        assertThat(future).isNotDone();
+        assertThat(producer.pendingConfirms()).isEqualTo(2);
+        verify(rabbitTemplate, times(1)).invoke(any());
+        verify(channel, times(2)).convertAndSend(eq(RabbitMQConfig.NOTIFICATION_EXCHANGE),
+            eq(RabbitMQConfig.NOTIFICATION_ROUTING_KEY), any(Object.class), any(CorrelationData.class));
+
+        unconfirmed.forEach(correlation -> producer.confirm(correlation, true, null));
+
+        assertThat(future).isCompleted();
+        assertThat(future.join().getConfirmed()).isEqualTo(2);
+        assertThat(future.join().isAllConfirmed()).isTrue();
+        assertThat(producer.pendingConfirms()).isZero();
+    }
+
+    @Test
+    void nackedMessageIsRepublishedUntilTheBrokerAcksIt() {
+        broker.add(nack("cola llena"));
+        broker.add(ack());
+
+        CompletableFuture<PublishResult> future = producer.publishBatch(List.of(message("a")));
+        assertThat(future).isNotDone();
+
+        producer.processPending();
+
+        assertThat(future).isCompleted();
+        assertThat(future.join().getConfirmed()).isEqualTo(1);
+        assertThat(future.join().getFailed()).isEmpty();
+        verify(channel, times(2)).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+        verify(rabbitTemplate, never()).convertAndSend(eq(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_EXCHANGE),
+            anyString(), any(Object.class), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void singleNotificationIsNotDroppedWhenEveryAttemptIsNacked() {
+        ReflectionTestUtils.setField(producer, "maxAttempts", 2);
+        broker.add(nack("cola llena"));
+        broker.add(nack("cola llena"));
+        NotificationMessage notification = message("a");
+
+        producer.sendNotificationToQueue(notification);
+        producer.processPending();
+        producer.processPending();
+
+        verify(channel, times(2)).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_EXCHANGE),
+            eq(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_ROUTING_KEY), eq(notification), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void returnedMessageEndsInTheDeadLetterQueueWithTheReplyText() {
+        ReflectionTestUtils.setField(producer, "maxAttempts", 1);
+        broker.add(correlation -> {
+            correlation.setReturned(new ReturnedMessage(new Message(new byte[0], new MessageProperties()),
+                312, "NO_ROUTE", RabbitMQConfig.NOTIFICATION_EXCHANGE, "otra"));
+            producer.confirm(correlation, true, null);
+        });
+        broker.add(ack());
+
+        CompletableFuture<PublishResult> future = producer.publishBatch(List.of(message("returned"), message("ok")));
+        producer.processPending();
+
+        PublishResult result = future.join();
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getConfirmed()).isEqualTo(1);
+        assertThat(result.getFailed()).singleElement().satisfies(failed -> {
+            assertThat(failed.getNotification().getUserEmail()).isEqualTo("returned@example.com");
+            assertThat(failed.getReason()).contains("Devuelto").contains("NO_ROUTE");
+        });
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_EXCHANGE),
+            eq(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_ROUTING_KEY), eq(result.getFailed().get(0).getNotification()),
+            any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void unconfirmedMessageIsRepublishedAfterTheTimeoutAndThenDeadLettered() {
+        ReflectionTestUtils.setField(producer, "confirmTimeoutMillis", 0L);
+        ReflectionTestUtils.setField(producer, "maxAttempts", 2);
+
+        CompletableFuture<PublishResult> future = producer.publishBatch(List.of(message("silent")));
+        producer.processPending();
+
+        assertThat(future).isNotDone();
+        assertThat(unconfirmed).hasSize(2);
+
+        producer.processPending();
+
+        assertThat(future).isCompleted();
+        assertThat(future.join().getFailed()).extracting(PublishResult.FailedPublish::getReason)
+            .singleElement().asString().contains("Sin confirmación");
+        assertThat(producer.pendingConfirms()).isZero();
+
+        // Una confirmación que llega tarde ya no cuenta
+        producer.confirm(unconfirmed.get(0), true, null);
+        assertThat(future.join().getConfirmed()).isZero();
+    }
+
+    @Test
+    void messagesAfterAMidBatchFailureAreRetriedInsteadOfDropped() {
+        ReflectionTestUtils.setField(producer, "maxAttempts", 1);
+        broker.add(ack());
+        broker.add(correlation -> {
+            throw new org.springframework.amqp.AmqpIOException(new java.io.IOException("canal cerrado"));
+        });
+
+        CompletableFuture<PublishResult> future = producer.publishBatch(List.of(message("a"), message("b"), message("c")));
+        producer.processPending();
+
+        PublishResult result = future.join();
+        assertThat(result.getConfirmed()).isEqualTo(1);
+        assertThat(result.getFailed()).extracting(PublishResult.FailedPublish::getReason)
+            .allSatisfy(reason -> assertThat(reason).startsWith("No publicado"))
+            .hasSize(2);
+        verify(rabbitTemplate, times(2)).convertAndSend(eq(RabbitMQConfig.NOTIFICATION_DEAD_LETTER_EXCHANGE),
+            anyString(), any(Object.class), any(MessagePostProcessor.class));
+        assertThat(producer.pendingConfirms()).isZero();
+    }
+
+    private Consumer<CorrelationData> ack() {
+        return correlation -> producer.confirm(correlation, true, null);
+    }
+
+    private Consumer<CorrelationData> nack(String cause) {
+        return correlation -> producer.confirm(correlation, false, cause);
+    }
+
+    private static NotificationMessage message(String user) {
+        NotificationMessage message = new NotificationMessage();
+        message.setUserEmail(user + "@example.com");
+        return message;
+    }
+}
@@ -0,0 +1,206 @@
+package com.backend.infraestructure.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+class SmtpTransportPoolTests {
+
+    private JavaMailSenderImpl mailSender;
+    private Session session;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = mock(JavaMailSenderImpl.class);
+        session = mock(Session.class);
+        when(mailSender.getSession()).thenReturn(session);
+        when(mailSender.getHost()).thenReturn("smtp.example.com");
+        when(mailSender.getPort()).thenReturn(587);
+    }
+
+    @Test
+    void reusesOneConnectionAcrossSends() throws MessagingException {
+        Transport transport = connectedTransport();
+        when(session.getTransport("smtp")).thenReturn(transport);
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 2, 1, 100, 60_000, 1_000);
+
+        pool.send(message());
+        pool.sendAll(List.of(message(), message()));
+
+        verify(transport, times(1)).connect("smtp.example.com", 587, null, null);
+        verify(transport, times(3)).sendMessage(any(), any());
+        SmtpTransportPool.PoolStats stats = pool.getStats();
+        assertThat(stats.getConnectionsOpened()).isEqualTo(1);
+        assertThat(stats.getMessagesSent()).isEqualTo(3);
+        assertThat(stats.getIdleConnections()).isEqualTo(1);
+        assertThat(stats.getBorrowedConnections()).isZero();
+    }
+
+    @Test
+    void poolIsNeverSmallerThanConsumerConcurrency() {
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 3, 100, 60_000, 1_000);
+
+        assertThat(pool.getStats().getMaxConnections()).isEqualTo(3);
+    }
+
+    @Test
+    void failsFastWhenNoConnectionIsFreeInTime() throws Exception {
+        Transport transport = connectedTransport();
+        when(session.getTransport("smtp")).thenReturn(transport);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            finish.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(transport).sendMessage(any(), any());
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 1, 100, 60_000, 50);
+
+        Thread holder = new Thread(() -> pool.sendAll(List.of(message())));
+        holder.start();
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> pool.sendAll(List.of(message(), message())))
+            .isInstanceOf(SmtpPoolExhaustedException.class);
+        assertThat(pool.getStats().getExhausted()).isEqualTo(1);
+        assertThat(pool.getStats().getMessagesFailed()).isZero();
+
+        finish.countDown();
+        holder.join(5_000);
+        assertThat(pool.getStats().getBorrowedConnections()).isZero();
+        assertThat(pool.getStats().getMessagesSent()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsConnectionsIdleLongerThanTimeout() throws Exception {
+        Transport transport = connectedTransport();
+        when(session.getTransport("smtp")).thenReturn(transport);
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 1, 100, 20, 1_000);
+        pool.send(message());
+
+        Thread.sleep(50);
+        pool.evictIdle();
+
+        verify(transport).close();
+        assertThat(pool.getStats().getIdleConnections()).isZero();
+        assertThat(pool.getStats().getConnectionsClosed()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredIdleConnectionIsReplacedOnBorrow() throws Exception {
+        Transport first = connectedTransport();
+        Transport second = connectedTransport();
+        when(session.getTransport("smtp")).thenReturn(first, second);
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 1, 100, 20, 1_000);
+        pool.send(message());
+
+        Thread.sleep(50);
+        pool.send(message());
+
+        verify(first).close();
+        verify(first, times(1)).sendMessage(any(), any());
+        verify(second, times(1)).sendMessage(any(), any());
+        assertThat(pool.getStats().getConnectionsOpened()).isEqualTo(2);
+    }
+
+    @Test
+    void recyclesConnectionAfterMaxMessages() throws MessagingException {
+        Transport first = connectedTransport();
+        Transport second = connectedTransport();
+        when(session.getTransport("smtp")).thenReturn(first, second);
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 1, 2, 60_000, 1_000);
+
+        pool.sendAll(List.of(message(), message(), message()));
+
+        verify(first, times(2)).sendMessage(any(), any());
+        verify(first).close();
+        verify(second, times(1)).sendMessage(any(), any());
+        assertThat(pool.getStats().getConnectionsOpened()).isEqualTo(2);
+        assertThat(pool.getStats().getIdleConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void brokenConnectionIsDiscardedAndMessageRetriedOnce() throws MessagingException {
+        Transport broken = connectedTransport();
+        Transport healthy = connectedTransport();
+        when(session.getTransport("smtp")).thenReturn(broken, healthy);
+        doThrow(new MessagingException("conexión cerrada")).when(broken).sendMessage(any(), any());
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 1, 100, 60_000, 1_000);
+
+        List<MessagingException> results = pool.sendAll(List.of(message()));
+
+        assertThat(results).containsExactly((MessagingException) null);
+        verify(broken).close();
+        verify(healthy).sendMessage(any(), any());
+        assertThat(pool.getStats().getMessagesSent()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedRecipientIsNotRetriedAndKeepsTheConnection() throws MessagingException {
+        Transport transport = connectedTransport();
+        when(session.getTransport("smtp")).thenReturn(transport);
+        SendFailedException rejected = new SendFailedException("destinatario inválido");
+        doThrow(rejected).doNothing().when(transport).sendMessage(any(), any());
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 1, 100, 60_000, 1_000);
+
+        List<MessagingException> results = pool.sendAll(List.of(message(), message()));
+
+        assertThat(results).containsExactly(rejected, null);
+        verify(transport, times(2)).sendMessage(any(), any());
+        verify(transport, never()).close();
+        assertThat(pool.getStats().getMessagesFailed()).isEqualTo(1);
+        assertThat(pool.getStats().getConnectionsOpened()).isEqualTo(1);
+    }
+
+    @Test
+    void shutdownClosesIdleConnections() throws MessagingException {
+        Transport transport = connectedTransport();
+        when(session.getTransport(anyString())).thenReturn(transport);
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 1, 100, 60_000, 1_000);
+        pool.send(message());
+
+        pool.shutdown();
+
+        verify(transport).close();
+        assertThat(pool.getStats().getIdleConnections()).isZero();
+    }
+
+    private static Transport connectedTransport() {
+        Transport transport = mock(Transport.class);
+        when(transport.isConnected()).thenReturn(true);
+        return transport;
+    }
+
+    private static MimeMessage message() {
+        MimeMessage message = mock(MimeMessage.class);
+        try {
+            when(message.getSentDate()).thenReturn(new Date());
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+        return message;
+    }
+}